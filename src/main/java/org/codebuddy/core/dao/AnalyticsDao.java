@@ -0,0 +1,19 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.ProblemAggregate;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Aggregates computed by the store over all problems.
+ */
+public class AnalyticsDao {
+
+    /**
+     * Per-platform, per-difficulty and per-day groups. MySQL computes them in one round trip;
+     * missing times count as 0, as they do when problems are loaded.
+     */
+    public List<ProblemAggregate> getAggregates() throws SQLException {
+        return ProblemDao.readStore().getAggregates();
+    }
+}
@@ -0,0 +1,203 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Problem;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking facade over {@link ProblemDao}. Each call runs on a background executor
+ * and returns a {@link CompletableFuture}; failures complete it with the original SQLException.
+ * At most {@code db.async.maxConcurrency} calls touch the database at once. Cancelling a
+ * future, or letting it time out, drops the call if it has not started; a started read is
+ * interrupted, but a started write always runs to the end, since an interrupt inside file
+ * I/O closes the channel it was using.
+ */
+public class AsyncProblemDao {
+    private static final long DEFAULT_TIMEOUT_MS = 30_000;
+
+    // Call states: waiting for a permit, running, or dropped before it ran
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int DROPPED = 2;
+
+    private static final ExecutorService executor = createExecutor();
+    private static final Semaphore permits = new Semaphore(
+            Math.max(1, DatabaseManager.getIntSetting("db.async.maxConcurrency",
+                    DatabaseManager.getIntSetting("db.pool.maxSize", 8))), true);
+
+    private final ProblemDao problemDao;
+    private final long timeoutMillis;
+
+    public AsyncProblemDao() {
+        this(CachingProblemDao.getInstance(), DatabaseManager.getIntSetting("db.async.timeoutMs", (int) DEFAULT_TIMEOUT_MS));
+    }
+
+    /**
+     * @param timeoutMillis per-call timeout; 0 disables it
+     */
+    public AsyncProblemDao(ProblemDao problemDao, long timeoutMillis) {
+        this.problemDao = problemDao;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T call() throws SQLException;
+    }
+
+    /**
+     * Runs arbitrary database work on the async executor, under the same concurrency bound and timeout.
+     * Once started the work is never interrupted, so it may write.
+     */
+    public <T> CompletableFuture<T> submit(SqlWork<T> work) {
+        return submit(work, false);
+    }
+
+    /**
+     * Like {@link #submit}, for work that only reads: cancelling it interrupts it even once started.
+     */
+    public <T> CompletableFuture<T> submitRead(SqlWork<T> work) {
+        return submit(work, true);
+    }
+
+    private <T> CompletableFuture<T> submit(SqlWork<T> work, boolean interruptible) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        Future<?> task = executor.submit(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                result.completeExceptionally(new CancellationException("Interrupted waiting for database access"));
+                return;
+            }
+            try {
+                // Lost to a cancel or timeout while queued
+                if (!state.compareAndSet(QUEUED, RUNNING)) {
+                    return;
+                }
+                result.complete(work.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            } finally {
+                permits.release();
+            }
+        });
+
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                if (state.compareAndSet(QUEUED, DROPPED) || interruptible) {
+                    task.cancel(true);
+                }
+            }
+        });
+        return timeoutMillis > 0 ? result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS) : result;
+    }
+
+    public CompletableFuture<List<Problem>> getAllProblems() {
+        return submitRead(problemDao::getAllProblems);
+    }
+
+    public CompletableFuture<List<Problem>> findProblems(ProblemQuery query) {
+        return submitRead(() -> problemDao.findProblems(query));
+    }
+
+    public CompletableFuture<Optional<Problem>> findById(int problemId) {
+        return submitRead(() -> problemDao.findById(problemId));
+    }
+
+    public CompletableFuture<Map<Integer, Problem>> findByIds(Collection<Integer> problemIds) {
+        return submitRead(() -> problemDao.findByIds(problemIds));
+    }
+
+    public CompletableFuture<List<Problem>> getProblemsPage(Problem after, int limit) {
+        return submitRead(() -> problemDao.getProblemsPage(after, limit));
+    }
+
+    public CompletableFuture<List<Problem>> getProblemsPage(ProblemQuery filter, Problem after, int limit) {
+        return submitRead(() -> problemDao.getProblemsPage(filter, after, limit));
+    }
+
+    public CompletableFuture<Problem> saveProblem(Problem problem) {
+        return submit(() -> {
+            problemDao.saveProblem(problem);
+            return problem;
+        });
+    }
+
+    public CompletableFuture<Problem> updateProblem(Problem problem) {
+        return submit(() -> {
+            problemDao.updateProblem(problem);
+            return problem;
+        });
+    }
+
+    public CompletableFuture<Void> deleteProblem(int problemId) {
+        return submit(() -> {
+            problemDao.deleteProblem(problemId);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> saveProblems(Collection<Problem> problems) {
+        return submit(() -> {
+            problemDao.saveProblems(problems);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> updateProblems(Collection<Problem> problems) {
+        return submit(() -> {
+            problemDao.updateProblems(problems);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> deleteProblems(Collection<Integer> problemIds) {
+        return submit(() -> {
+            problemDao.deleteProblems(problemIds);
+            return null;
+        });
+    }
+
+    /**
+     * Unwraps the SQLException (or other cause) from a failed future's exception.
+     */
+    public static Throwable rootCause(Throwable error) {
+        while ((error instanceof CompletionException
+                || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    // Virtual threads when the runtime has them (Java 21+), otherwise a cached pool of daemon threads
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "codebuddy-db-async");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
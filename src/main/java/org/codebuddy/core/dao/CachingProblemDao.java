@@ -0,0 +1,255 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Problem;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache in front of {@link ProblemDao}, keyed by problem id and by query.
+ * Every committed write bumps a version stamp, which makes all cached query results stale;
+ * id entries are only dropped for the problems a write touched. Entries are also evicted
+ * by size (least recently used first) and age.
+ * Cached problems are never handed out: every read returns copies the caller may change.
+ */
+public class CachingProblemDao extends ProblemDao implements ProblemChangeListener {
+    private static final int DEFAULT_MAX_QUERIES = 64;
+    private static final int DEFAULT_MAX_PROBLEMS = 10_000;
+    private static final long DEFAULT_TTL_MS = 300_000;
+
+    private static CachingProblemDao instance;
+
+    private final AtomicLong version = new AtomicLong();
+    private final LruCache<Object, Object> queryCache;
+    private final LruCache<Integer, Problem> problemCache;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Query keys for the parameterless reads
+    private static final Object ALL_KEY = "all";
+    private static final Object COUNT_KEY = "count";
+
+    public CachingProblemDao(int maxQueries, int maxProblems, long ttlMillis) {
+        this.queryCache = new LruCache<>(maxQueries);
+        this.problemCache = new LruCache<>(maxProblems);
+        this.ttlMillis = ttlMillis;
+        ProblemDao.addChangeListener(this);
+    }
+
+    /**
+     * The application-wide cache, sized from config.properties.
+     */
+    public static synchronized CachingProblemDao getInstance() {
+        if (instance == null) {
+            instance = new CachingProblemDao(
+                    DatabaseManager.getIntSetting("cache.maxQueries", DEFAULT_MAX_QUERIES),
+                    DatabaseManager.getIntSetting("cache.maxProblems", DEFAULT_MAX_PROBLEMS),
+                    DatabaseManager.getIntSetting("cache.ttlMs", (int) DEFAULT_TTL_MS));
+        }
+        return instance;
+    }
+
+    @Override
+    public List<Problem> getAllProblems() throws SQLException {
+        return copies(cachedQuery(ALL_KEY, () -> List.copyOf(super.getAllProblems())));
+    }
+
+    @Override
+    public List<Problem> findProblems(ProblemQuery query) throws SQLException {
+        return copies(cachedQuery(query, () -> List.copyOf(super.findProblems(query))));
+    }
+
+    @Override
+    public int countProblems() throws SQLException {
+        return cachedQuery(COUNT_KEY, super::countProblems);
+    }
+
+    @Override
+    public Optional<Problem> findById(int problemId) throws SQLException {
+        Problem cached = problemCache.get(problemId, version.get(), ttlMillis, false);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(new Problem(cached));
+        }
+        misses.increment();
+
+        long loadedAt = version.get();
+        Optional<Problem> loaded = super.findById(problemId);
+        // Skip caching if a write landed while loading; the row may already be out of date
+        if (loaded.isPresent() && version.get() == loadedAt) {
+            problemCache.put(problemId, new Problem(loaded.get()), loadedAt);
+        }
+        return loaded;
+    }
+
+    @Override
+    public Map<Integer, Problem> findByIds(Collection<Integer> problemIds) throws SQLException {
+        Map<Integer, Problem> result = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        long current = version.get();
+
+        for (int id : problemIds) {
+            Problem cached = problemCache.get(id, current, ttlMillis, false);
+            if (cached != null) {
+                hits.increment();
+                result.put(id, new Problem(cached));
+            } else {
+                misses.increment();
+                missing.add(id);
+                result.put(id, null);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Integer, Problem> loaded = super.findByIds(missing);
+            if (version.get() == current) {
+                for (Problem p : loaded.values()) {
+                    problemCache.put(p.getId(), new Problem(p), current);
+                }
+            }
+            result.putAll(loaded);
+        }
+        result.values().removeIf(p -> p == null);
+        return result;
+    }
+
+    /**
+     * Drops everything, e.g. after the database was changed behind the DAO's back.
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        queryCache.clear();
+        problemCache.clear();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), queryCache.evictions(), problemCache.evictions(),
+                queryCache.size(), problemCache.size(), version.get());
+    }
+
+    public record CacheStats(long hits, long misses, long queryEvictions, long problemEvictions,
+                             int cachedQueries, int cachedProblems, long version) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    @Override
+    public void problemsSaved(List<Problem> saved) {
+        version.incrementAndGet();
+    }
+
+    @Override
+    public void problemsUpdated(List<Problem> before, List<Problem> after) {
+        version.incrementAndGet();
+        for (Problem p : before) {
+            problemCache.remove(p.getId());
+        }
+    }
+
+    @Override
+    public void problemsDeleted(List<Problem> deleted) {
+        version.incrementAndGet();
+        for (Problem p : deleted) {
+            problemCache.remove(p.getId());
+        }
+    }
+
+    private static List<Problem> copies(List<Problem> cached) {
+        List<Problem> copies = new ArrayList<>(cached.size());
+        for (Problem problem : cached) {
+            copies.add(new Problem(problem));
+        }
+        return copies;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cachedQuery(Object key, AsyncProblemDao.SqlWork<T> loader) throws SQLException {
+        long current = version.get();
+        Object cached = queryCache.get(key, current, ttlMillis, true);
+        if (cached != null) {
+            hits.increment();
+            return (T) cached;
+        }
+        misses.increment();
+
+        // Tag with the version seen before loading, so a write that lands mid-load marks it stale
+        T loaded = loader.call();
+        queryCache.put(key, loaded, current);
+        return loaded;
+    }
+
+    /**
+     * Access-ordered map with size eviction; entries remember the version and time they were loaded.
+     */
+    private static class LruCache<K, V> {
+        private record Entry<V>(V value, long version, long loadedAt) {}
+
+        private final Map<K, Entry<V>> entries;
+        private long evictions = 0;
+
+        LruCache(int maxSize) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > maxSize) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        /**
+         * Returns the value if it is young enough and, when {@code checkVersion} is set,
+         * was loaded at the current version.
+         */
+        synchronized V get(K key, long currentVersion, long ttlMillis, boolean checkVersion) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            boolean expired = ttlMillis > 0 && System.currentTimeMillis() - entry.loadedAt() > ttlMillis;
+            if (expired || (checkVersion && entry.version() != currentVersion)) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+
+        synchronized void put(K key, V value, long version) {
+            entries.put(key, new Entry<>(value, version, System.currentTimeMillis()));
+        }
+
+        synchronized void remove(K key) {
+            entries.remove(key);
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized long evictions() {
+            return evictions;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package org.codebuddy.core.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, thread-safe JDBC connection pool.
+ * Connections handed out by {@link #borrow()} return to the pool when closed,
+ * so DAO code can keep using try-with-resources.
+ */
+public class ConnectionPool {
+    private final String url;
+    private final Properties connectionProps;
+    private final int maxSize;
+    private final int minIdle;
+    private final long maxWaitMillis;
+    private final long idleTimeoutMillis;
+    private final long validationIntervalMillis;
+    private final int validationTimeoutSeconds;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean shutdown = false;
+
+    // Metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+
+    public ConnectionPool(String url, Properties connectionProps, int maxSize, int minIdle,
+                          long maxWaitMillis, long idleTimeoutMillis,
+                          long validationIntervalMillis, int validationTimeoutSeconds) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.url = url;
+        this.connectionProps = connectionProps;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.maxWaitMillis = maxWaitMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationIntervalMillis = validationIntervalMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "codebuddy-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured time if the pool is exhausted.
+     * Closing the returned connection hands it back to the pool.
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + maxWaitMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            Connection physical = takeIdle();
+            if (physical == null) {
+                physical = createPhysical();
+            }
+            borrowCount.increment();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection takeIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+
+            long idleFor = System.currentTimeMillis() - candidate.idleSince;
+            if (idleFor > idleTimeoutMillis) {
+                destroy(candidate.connection);
+                continue;
+            }
+            if (idleFor > validationIntervalMillis && !isValid(candidate.connection)) {
+                destroy(candidate.connection);
+                continue;
+            }
+            return candidate.connection;
+        }
+    }
+
+    private Connection createPhysical() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, connectionProps);
+        conn.setAutoCommit(true);
+        createdCount.increment();
+        return conn;
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Connection physical) {
+        try {
+            if (shutdown || physical.isClosed()) {
+                destroy(physical);
+                return;
+            }
+            // Never hand out a connection with a half-finished transaction
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            synchronized (idle) {
+                idle.addFirst(new IdleConnection(physical, System.currentTimeMillis()));
+            }
+        } catch (SQLException e) {
+            destroy(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(Connection conn) {
+        destroyedCount.increment();
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Failed to close pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<Connection> expired = new ArrayList<>();
+        synchronized (idle) {
+            // Oldest connections sit at the tail
+            Iterator<IdleConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() > minIdle) {
+                IdleConnection candidate = it.next();
+                if (now - candidate.idleSince > idleTimeoutMillis) {
+                    it.remove();
+                    expired.add(candidate.connection);
+                }
+            }
+        }
+        // Closed outside the lock, so a slow close doesn't hold up borrows and returns
+        for (Connection connection : expired) {
+            destroy(connection);
+        }
+    }
+
+    private void recordWait(long nanos) {
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical));
+    }
+
+    public PoolStats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        int active = maxSize - permits.availablePermits();
+        long borrows = borrowCount.sum();
+        long waitNanos = totalWaitNanos.sum();
+        return new PoolStats(
+                active,
+                idleCount,
+                maxSize,
+                permits.getQueueLength(),
+                borrows,
+                TimeUnit.NANOSECONDS.toMillis(waitNanos),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                borrows == 0 ? 0.0 : waitNanos / 1_000_000.0 / borrows,
+                createdCount.sum(),
+                destroyedCount.sum());
+    }
+
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        List<IdleConnection> closing;
+        synchronized (idle) {
+            closing = new ArrayList<>(idle);
+            idle.clear();
+        }
+        for (IdleConnection c : closing) {
+            destroy(c.connection);
+        }
+    }
+
+    private record IdleConnection(Connection connection, long idleSince) {}
+
+    /**
+     * Snapshot of pool usage. Wait times cover the time callers spent blocked in {@link #borrow()}.
+     */
+    public record PoolStats(int active, int idle, int maxSize, int waiting, long borrowCount,
+                            long totalWaitMillis, long maxWaitMillis, double averageWaitMillis,
+                            long createdCount, long destroyedCount) {
+        @Override
+        public String toString() {
+            return String.format("active=%d idle=%d max=%d waiting=%d borrows=%d avgWait=%.2fms maxWait=%dms created=%d destroyed=%d",
+                    active, idle, maxSize, waiting, borrowCount, averageWaitMillis, maxWaitMillis, createdCount, destroyedCount);
+        }
+    }
+
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean closed = false;
+
+        PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(physical);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
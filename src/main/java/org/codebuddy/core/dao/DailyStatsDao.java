@@ -0,0 +1,123 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.*;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Access to the problem_daily_stats rollup (solved count and time sum per day, platform and difficulty).
+ * The rollup is kept current by {@link MySqlProblemStore} writes, inside the same transaction,
+ * and seeded by {@link #rebuild(Connection)} when the schema is migrated; other stores compute
+ * the same figures from their rows.
+ */
+public class DailyStatsDao {
+
+    public List<DailyStat> getDailyStats() throws SQLException {
+        return ProblemDao.readStore().getDailyStats();
+    }
+
+    /**
+     * Recomputes the MySQL rollup on the given connection, in one transaction; run by schema
+     * migration V7. Days are taken in Java and rows are grouped by their parsed platform and
+     * difficulty, so legacy spellings land in the same groups the write path adjusts.
+     */
+    static void rebuild(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM problem_daily_stats");
+            Delta totals = new Delta();
+            try (ResultSet rs = stmt.executeQuery("SELECT solved_date, platform, difficulty, time_taken_min FROM problems")) {
+                while (rs.next()) {
+                    totals.adjust(rs.getTimestamp("solved_date").toLocalDateTime().toLocalDate(),
+                            ProblemDao.parsePlatform(rs.getString("platform")),
+                            ProblemDao.parseDifficulty(rs.getString("difficulty")),
+                            rs.getInt("time_taken_min"), 1);
+                }
+            }
+            totals.applyTo(conn);
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Net rollup changes from a set of problem writes, applied in the writer's transaction.
+     */
+    static class Delta {
+        private record Key(LocalDate day, Platform platform, Difficulty difficulty) {}
+
+        // Per key: [count delta, time delta]
+        private final Map<Key, long[]> changes = new HashMap<>();
+
+        void add(Problem problem) {
+            adjust(problem, 1);
+        }
+
+        void remove(Problem problem) {
+            adjust(problem, -1);
+        }
+
+        private void adjust(Problem problem, int sign) {
+            adjust(problem.getSolvedDate().toLocalDate(), problem.getPlatform(), problem.getDifficulty(),
+                    problem.getTimeTakenMin(), sign);
+        }
+
+        private void adjust(LocalDate day, Platform platform, Difficulty difficulty, int time, int sign) {
+            long[] change = changes.computeIfAbsent(new Key(day, platform, difficulty), k -> new long[2]);
+            change[0] += sign;
+            change[1] += (long) sign * time;
+        }
+
+        void applyTo(Connection conn) throws SQLException {
+            String upsert = "INSERT INTO problem_daily_stats (solved_day, platform, difficulty, solved_count, time_sum) " +
+                    "VALUES (?, ?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE solved_count = solved_count + VALUES(solved_count), " +
+                    "time_sum = time_sum + VALUES(time_sum)";
+            List<Key> shrunk = new ArrayList<>();
+
+            try (PreparedStatement stmt = conn.prepareStatement(upsert)) {
+                for (Map.Entry<Key, long[]> entry : changes.entrySet()) {
+                    long[] change = entry.getValue();
+                    if (change[0] == 0 && change[1] == 0) {
+                        continue;
+                    }
+                    bindKey(stmt, entry.getKey());
+                    stmt.setLong(4, change[0]);
+                    stmt.setLong(5, change[1]);
+                    stmt.addBatch();
+                    if (change[0] < 0) {
+                        shrunk.add(entry.getKey());
+                    }
+                }
+                stmt.executeBatch();
+            }
+
+            if (shrunk.isEmpty()) {
+                return;
+            }
+            // Drop days that no longer have any problems
+            String cleanup = "DELETE FROM problem_daily_stats WHERE solved_day = ? AND platform = ? AND difficulty = ? AND solved_count <= 0";
+            try (PreparedStatement stmt = conn.prepareStatement(cleanup)) {
+                for (Key key : shrunk) {
+                    bindKey(stmt, key);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+
+        private static void bindKey(PreparedStatement stmt, Key key) throws SQLException {
+            stmt.setDate(1, Date.valueOf(key.day()));
+            stmt.setString(2, key.platform().name());
+            stmt.setString(3, key.difficulty().name());
+        }
+    }
+}
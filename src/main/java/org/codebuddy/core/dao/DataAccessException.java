@@ -0,0 +1,18 @@
+package org.codebuddy.core.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Unchecked wrapper for SQL failures raised where a checked exception can't be thrown,
+ * such as inside a {@link java.util.stream.Stream} or {@link java.util.Iterator}.
+ */
+public class DataAccessException extends RuntimeException {
+    public DataAccessException(String message, SQLException cause) {
+        super(message, cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
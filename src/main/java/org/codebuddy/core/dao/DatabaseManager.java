@@ -6,7 +6,6 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.sql.ResultSet;
 import java.util.Properties;
 
 public class DatabaseManager {
@@ -15,31 +14,124 @@ public class DatabaseManager {
     private static final String DEFAULT_DB_USER = "root";
     private static final String DEFAULT_DB_PASSWORD = "123321";
     
-    private static Connection connection;
+    // Pool defaults, overridable in config.properties
+    private static final int DEFAULT_POOL_MAX_SIZE = 8;
+    private static final int DEFAULT_POOL_MIN_IDLE = 1;
+    private static final long DEFAULT_POOL_MAX_WAIT_MS = 10_000;
+    private static final long DEFAULT_POOL_IDLE_TIMEOUT_MS = 300_000;
+    private static final long DEFAULT_POOL_VALIDATION_INTERVAL_MS = 5_000;
+    private static final int DEFAULT_POOL_VALIDATION_TIMEOUT_SEC = 2;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    // MySQL "Unknown database"
+    private static final int ER_BAD_DB_ERROR = 1049;
+
+    private static Properties config;
+    private static ConnectionPool pool;
     private static boolean initialized = false;
 
     private DatabaseManager() {}
 
+    /**
+     * Borrows a pooled connection. Closing it returns it to the pool.
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        ConnectionPool connectionPool = getPool();
+        try {
+            return connectionPool.borrow();
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_BAD_DB_ERROR) {
+                throw e;
+            }
+            // Only pay for the extra server connection when the database is really missing
+            ensureDatabaseExists(getSetting("db.url", DEFAULT_DB_URL),
+                    getSetting("db.user", DEFAULT_DB_USER),
+                    getSetting("db.password", DEFAULT_DB_PASSWORD));
+            return connectionPool.borrow();
+        }
+    }
+
+    private static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
             try {
-                Properties props = loadDatabaseProperties();
+                Properties props = getConfig();
                 String dbUrl = props.getProperty("db.url", DEFAULT_DB_URL);
                 String dbUser = props.getProperty("db.user", DEFAULT_DB_USER);
                 String dbPassword = props.getProperty("db.password", DEFAULT_DB_PASSWORD);
-                
-                // Ensure database exists
-                ensureDatabaseExists(dbUrl, dbUser, dbPassword);
-                
-                // Connect to the database
-                connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
-                connection.setAutoCommit(true);
+
+                Properties connectionProps = new Properties();
+                connectionProps.setProperty("user", dbUser);
+                connectionProps.setProperty("password", dbPassword);
+                // Send and read timestamps as the JVM's wall clock, unconverted. The session keeps the
+                // server's zone: setting a named zone fails on servers without time zone tables.
+                // "Today" and rollup days are worked out in Java instead.
+                connectionProps.setProperty("connectionTimeZone", "LOCAL");
+                // Let the driver collapse batched INSERTs into multi-row statements
+                connectionProps.setProperty("rewriteBatchedStatements", "true");
+                // Per-connection prepared statement cache kept by the driver
+                int statementCacheSize = intProperty(props, "db.statementCacheSize", DEFAULT_STATEMENT_CACHE_SIZE);
+                if (statementCacheSize > 0) {
+                    connectionProps.setProperty("useServerPrepStmts", "true");
+                    connectionProps.setProperty("cachePrepStmts", "true");
+                    connectionProps.setProperty("prepStmtCacheSize", String.valueOf(statementCacheSize));
+                    connectionProps.setProperty("prepStmtCacheSqlLimit", "2048");
+                }
+
+                pool = new ConnectionPool(
+                        dbUrl,
+                        connectionProps,
+                        intProperty(props, "db.pool.maxSize", DEFAULT_POOL_MAX_SIZE),
+                        intProperty(props, "db.pool.minIdle", DEFAULT_POOL_MIN_IDLE),
+                        longProperty(props, "db.pool.maxWaitMs", DEFAULT_POOL_MAX_WAIT_MS),
+                        longProperty(props, "db.pool.idleTimeoutMs", DEFAULT_POOL_IDLE_TIMEOUT_MS),
+                        longProperty(props, "db.pool.validationIntervalMs", DEFAULT_POOL_VALIDATION_INTERVAL_MS),
+                        intProperty(props, "db.pool.validationTimeoutSec", DEFAULT_POOL_VALIDATION_TIMEOUT_SEC));
                 
             } catch (IOException e) {
                 throw new SQLException("Failed to load database config: " + e.getMessage(), e);
             }
         }
-        return connection;
+        return pool;
+    }
+
+    public static ConnectionPool.PoolStats getPoolStats() throws SQLException {
+        return getPool().getStats();
+    }
+
+    /**
+     * Reads a setting from config.properties, falling back to the default when absent.
+     */
+    public static String getSetting(String key, String defaultValue) {
+        try {
+            return getConfig().getProperty(key, defaultValue);
+        } catch (IOException e) {
+            return defaultValue;
+        }
+    }
+
+    public static int getIntSetting(String key, int defaultValue) {
+        try {
+            return intProperty(getConfig(), key, defaultValue);
+        } catch (IOException | NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static int intProperty(Properties props, String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long longProperty(Properties props, String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    private static synchronized Properties getConfig() throws IOException {
+        if (config == null) {
+            config = loadDatabaseProperties();
+        }
+        return config;
     }
 
     private static Properties loadDatabaseProperties() throws IOException {
@@ -49,6 +141,12 @@ public class DatabaseManager {
                 props.load(input);
             }
         }
+        // -Ddb.url=... and the like win over the file, e.g. to point tests at a scratch database
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("db.") || key.startsWith("storage.")) {
+                props.setProperty(key, System.getProperty(key));
+            }
+        }
         return props;
     }
 
@@ -72,73 +170,18 @@ public class DatabaseManager {
             return;
         }
         
-        createTables();
-        addSampleProblems();
+        // Only migrations not yet recorded in schema_version are run
+        new SchemaMigrator().migrate();
         
         initialized = true;
         System.out.println("Database initialized successfully");
     }
 
-    private static void createTables() throws SQLException {
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            
-            // Drop existing tables to ensure clean schema
-            stmt.executeUpdate("DROP TABLE IF EXISTS problems");
-            stmt.executeUpdate("DROP TABLE IF EXISTS users");
-            
-            // Create problems table without user_id
-            String createProblemsTable = """
-                CREATE TABLE problems (
-                    problem_id INT AUTO_INCREMENT PRIMARY KEY,
-                    name VARCHAR(255) NOT NULL,
-                    platform VARCHAR(50) NOT NULL,
-                    difficulty VARCHAR(20) NOT NULL,
-                    time_taken_min INT,
-                    solved_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                    notes TEXT,
-                    link VARCHAR(500)
-                )
-                """;
-            
-            stmt.executeUpdate(createProblemsTable);
-            System.out.println("Database tables created successfully");
-        }
-    }
-
-    private static void addSampleProblems() throws SQLException {
-        try (Connection conn = getConnection(); Statement stmt = conn.createStatement()) {
-            // Add sample problems if not present
-            try {
-                stmt.executeUpdate("INSERT INTO problems (name, platform, difficulty, time_taken_min, solved_date, notes, link) VALUES " +
-                        "('Two Sum', 'LEETCODE', 'EASY', 15, NOW(), 'Classic hashmap problem', 'https://leetcode.com/problems/two-sum/')");
-                stmt.executeUpdate("INSERT INTO problems (name, platform, difficulty, time_taken_min, solved_date, notes, link) VALUES " +
-                        "('Median of Two Sorted Arrays', 'LEETCODE', 'HARD', 60, NOW(), 'Binary search required', 'https://leetcode.com/problems/median-of-two-sorted-arrays/')");
-                stmt.executeUpdate("INSERT INTO problems (name, platform, difficulty, time_taken_min, solved_date, notes, link) VALUES " +
-                        "('Chef and Strings', 'CODECHEF', 'MEDIUM', 25, NOW(), 'String manipulation', 'https://www.codechef.com/problems/STRINGS')");
-                System.out.println("Sample problems added");
-            } catch (SQLException e) {
-                // Problems already exist, ignore
-                System.out.println("Sample problems already exist");
-            }
-
-            initialized = true;
-            System.out.println("Database initialized successfully");
-            
-        } catch (SQLException e) {
-            System.err.println("Failed to initialize database: " + e.getMessage());
-            throw e;
-        }
-    }
-
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-                initialized = false;
-            } catch (SQLException e) {
-                System.err.println("Failed to close connection: " + e.getMessage());
-            }
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+            initialized = false;
         }
     }
 
@@ -0,0 +1,585 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.models.ProblemAggregate;
+import org.codebuddy.core.models.ProblemAggregate.Kind;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Embedded single-user store: every problem is held in memory and each write is appended
+ * to one local file in the {@link MutationLog} format, then fsynced. Opening the store
+ * replays the file and cuts off a torn last write. Once superseded rows outnumber live
+ * ones, the file is rewritten with just the live rows and swapped in atomically.
+ * Needs no server, but only one store may use a file at a time: opening takes a lock on a
+ * {@code .lock} file next to it, held until {@link #close}, and fails at once if it is taken.
+ */
+public class FileProblemStore implements ProblemStore {
+    private static final int COMPACT_MIN_ROWS = 10_000;
+    private static final int COMPACT_CHUNK = 1_000;
+
+    // Same order as MySQL's keyset pages: solved date, then id, descending
+    static final Comparator<Problem> NEWEST_FIRST =
+            Comparator.comparing(Problem::getSolvedDate).thenComparingInt(Problem::getId).reversed();
+
+    private final Path path;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Problem> byId = new HashMap<>();
+    private final TreeSet<Problem> byDate = new TreeSet<>(NEWEST_FIRST);
+    private volatile FileChannel channel;
+    // On a separate file, so compaction can replace the data file without letting go of it
+    private FileChannel lockChannel;
+    private long nextSeq = 1;
+    private int maxId = 0;
+    // Rows written to the file, live or superseded
+    private long loggedRows = 0;
+
+    public FileProblemStore(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public void initialize() throws SQLException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "file:" + path.toAbsolutePath();
+    }
+
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+                lockChannel = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (lockChannel == null) {
+            lockChannel = lock();
+        }
+        FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer log = MutationLog.readAll(file, "Problem store");
+            int end = MutationLog.scan(log, 0, entry -> {
+                nextSeq = Math.max(nextSeq, entry.seq() + 1);
+                loggedRows += entry.mutation().size();
+                replay(entry.mutation());
+            });
+            if (end < log.limit()) {
+                System.err.println("Truncating " + (log.limit() - end) + " bytes of torn or corrupt data from " + path);
+                file.truncate(end);
+                file.force(false);
+            }
+            file.position(end);
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            byId.clear();
+            byDate.clear();
+            throw e;
+        }
+        channel = file;
+    }
+
+    private FileChannel lock() throws IOException {
+        Path lockPath = path.resolveSibling(path.getFileName() + ".lock");
+        FileChannel file = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock fileLock;
+        try {
+            fileLock = file.tryLock();
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+        if (fileLock == null) {
+            file.close();
+            throw new IOException(path + " is in use by another CodeBuddy window or process");
+        }
+        return file;
+    }
+
+    // Log records are already resolved: saves and updates carry whole rows
+    private void replay(ProblemMutation mutation) {
+        if (mutation.op() == ProblemMutation.Op.DELETE) {
+            for (int id : mutation.ids()) {
+                remove(id);
+            }
+        } else {
+            for (Problem problem : mutation.problems()) {
+                put(problem);
+            }
+        }
+    }
+
+    @Override
+    public List<ProblemMutation.Result> apply(List<ProblemMutation> mutations, boolean keepIds) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            // Change memory first, keeping what each id held so a failed write can be undone
+            Map<Integer, Problem> undo = new LinkedHashMap<>();
+            int maxIdBefore = maxId;
+            List<ProblemMutation.Result> results = new ArrayList<>(mutations.size());
+            List<ProblemMutation> records = new ArrayList<>(mutations.size());
+            for (ProblemMutation mutation : mutations) {
+                ProblemMutation.Result result = switch (mutation.op()) {
+                    case SAVE -> save(mutation.problems(), keepIds, undo);
+                    case UPDATE -> update(mutation.problems(), undo);
+                    case DELETE -> delete(mutation.ids(), undo);
+                };
+                results.add(result);
+                if (mutation.op() == ProblemMutation.Op.DELETE) {
+                    if (!result.before().isEmpty()) {
+                        records.add(ProblemMutation.delete(result.before().stream().map(Problem::getId).toList()));
+                    }
+                } else if (!result.after().isEmpty()) {
+                    records.add(new ProblemMutation(mutation.op(), result.after(), List.of()));
+                }
+            }
+
+            try {
+                append(records);
+            } catch (IOException e) {
+                List<Map.Entry<Integer, Problem>> changes = new ArrayList<>(undo.entrySet());
+                for (int i = changes.size() - 1; i >= 0; i--) {
+                    remove(changes.get(i).getKey());
+                    if (changes.get(i).getValue() != null) {
+                        put(changes.get(i).getValue());
+                    }
+                }
+                maxId = maxIdBefore;
+                throw new SQLException("Failed to write to problem store " + path + ": " + e.getMessage(), e);
+            }
+            compactIfNeeded();
+            return results;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ProblemMutation.Result save(List<Problem> problems, boolean keepIds, Map<Integer, Problem> undo) {
+        List<Problem> saved = new ArrayList<>();
+        for (Problem problem : problems) {
+            if (keepIds) {
+                if (byId.containsKey(problem.getId())) {
+                    continue;
+                }
+            } else {
+                problem.setId(maxId + 1);
+            }
+            undo.putIfAbsent(problem.getId(), null);
+            put(problem);
+            saved.add(new Problem(problem));
+        }
+        return new ProblemMutation.Result(ProblemMutation.Op.SAVE, List.of(), saved);
+    }
+
+    private ProblemMutation.Result update(List<Problem> problems, Map<Integer, Problem> undo) {
+        // Later changes to the same problem win, as in one SQL batch
+        Map<Integer, Problem> latest = new LinkedHashMap<>();
+        for (Problem problem : problems) {
+            latest.put(problem.getId(), problem);
+        }
+        List<Problem> before = new ArrayList<>();
+        List<Problem> after = new ArrayList<>();
+        for (Problem problem : latest.values()) {
+            Problem old = byId.get(problem.getId());
+            if (old == null) {
+                continue;
+            }
+            Problem updated = ProblemDao.applyUpdate(old, problem);
+            undo.putIfAbsent(old.getId(), old);
+            put(updated);
+            before.add(new Problem(old));
+            after.add(new Problem(updated));
+        }
+        return new ProblemMutation.Result(ProblemMutation.Op.UPDATE, before, after);
+    }
+
+    private ProblemMutation.Result delete(List<Integer> ids, Map<Integer, Problem> undo) {
+        List<Problem> deleted = new ArrayList<>();
+        for (int id : ids) {
+            Problem old = byId.get(id);
+            if (old == null) {
+                continue;
+            }
+            undo.putIfAbsent(id, old);
+            remove(id);
+            deleted.add(new Problem(old));
+        }
+        return new ProblemMutation.Result(ProblemMutation.Op.DELETE, deleted, List.of());
+    }
+
+    private void put(Problem problem) {
+        Problem copy = new Problem(problem);
+        Problem old = byId.put(copy.getId(), copy);
+        if (old != null) {
+            byDate.remove(old);
+        }
+        byDate.add(copy);
+        maxId = Math.max(maxId, copy.getId());
+    }
+
+    private void remove(int id) {
+        Problem old = byId.remove(id);
+        if (old != null) {
+            byDate.remove(old);
+        }
+    }
+
+    private void append(List<ProblemMutation> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        long start = channel.position();
+        try {
+            for (ProblemMutation record : records) {
+                ByteBuffer bytes = ByteBuffer.wrap(MutationLog.encode(nextSeq++, record));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                loggedRows += record.size();
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Drop the partial write so the file ends on the last complete one
+            channel.truncate(start);
+            channel.position(start);
+            throw e;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (loggedRows - byId.size() < Math.max(COMPACT_MIN_ROWS, byId.size())) {
+            return;
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            List<Problem> rows = new ArrayList<>(byDate.descendingSet());
+            for (int start = 0; start < rows.size(); start += COMPACT_CHUNK) {
+                List<Problem> chunk = rows.subList(start, Math.min(rows.size(), start + COMPACT_CHUNK));
+                ByteBuffer bytes = ByteBuffer.wrap(MutationLog.encode(nextSeq++, ProblemMutation.save(chunk)));
+                while (bytes.hasRemaining()) {
+                    out.write(bytes);
+                }
+            }
+            out.force(true);
+        } catch (IOException e) {
+            System.err.println("Failed to compact " + path + ": " + e.getMessage());
+            return;
+        }
+        try {
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            loggedRows = byId.size();
+        } catch (IOException e) {
+            System.err.println("Failed to compact " + path + ": " + e.getMessage());
+        } finally {
+            try {
+                channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(channel.size());
+            } catch (IOException e) {
+                channel = null;
+                System.err.println("Failed to reopen " + path + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opens the file if it is not open. A channel can also close under us (an interrupted thread
+     * inside write or force closes it for good); then the rows are reloaded from the file, which
+     * holds whatever that write got down.
+     */
+    private void ensureOpen() throws SQLException {
+        if (channel != null && channel.isOpen()) {
+            return;
+        }
+        try {
+            if (channel != null) {
+                System.err.println("Reopening " + path + " after its channel was closed");
+                channel = null;
+                byId.clear();
+                byDate.clear();
+                loggedRows = 0;
+            }
+            open();
+        } catch (IOException e) {
+            throw new SQLException("Failed to open problem store " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Read<T> {
+        T run();
+    }
+
+    // Opens the file on first use, then runs the read with writers blocked
+    private <T> T read(Read<T> reader) throws SQLException {
+        FileChannel current = channel;
+        if (current == null || !current.isOpen()) {
+            initialize();
+        }
+        lock.readLock().lock();
+        try {
+            return reader.run();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reserved ids are only kept for this run; the file is never shared with another writer.
+     */
+    @Override
+    public int reserveIds(int count) throws SQLException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int first = maxId + 1;
+            maxId += count;
+            return first;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Problem> getAllProblems() throws SQLException {
+        return read(() -> copies(byDate));
+    }
+
+    @Override
+    public int countProblems() throws SQLException {
+        return read(byId::size);
+    }
+
+    @Override
+    public Map<Integer, Problem> findByIds(Collection<Integer> problemIds) throws SQLException {
+        return read(() -> {
+            Map<Integer, Problem> found = new LinkedHashMap<>();
+            for (int id : problemIds) {
+                Problem problem = byId.get(id);
+                if (problem != null) {
+                    found.putIfAbsent(id, new Problem(problem));
+                }
+            }
+            return found;
+        });
+    }
+
+    @Override
+    public List<Problem> findProblems(ProblemQuery query) throws SQLException {
+        List<Problem> matches = read(() -> {
+            List<Problem> rows = new ArrayList<>();
+            for (Problem problem : byDate) {
+                if (query.matches(problem)) {
+                    rows.add(problem);
+                }
+            }
+            return rows;
+        });
+        if (query.sortField() != ProblemQuery.SortField.SOLVED_DATE || query.ascending()) {
+            matches.sort(order(query.sortField(), query.ascending()));
+        }
+        if (query.hasLimit() && matches.size() > query.limit()) {
+            matches = matches.subList(0, query.limit());
+        }
+        return copies(matches);
+    }
+
+    // Matches MySQL's ORDER BY: platform and difficulty are stored as names, text compares case-insensitively
+    static Comparator<Problem> order(ProblemQuery.SortField field, boolean ascending) {
+        Comparator<Problem> order = switch (field) {
+            case NAME -> Comparator.comparing(Problem::getName, String.CASE_INSENSITIVE_ORDER);
+            case PLATFORM -> Comparator.comparing((Problem p) -> p.getPlatform().name());
+            case DIFFICULTY -> Comparator.comparing((Problem p) -> p.getDifficulty().name());
+            case TIME_TAKEN -> Comparator.comparingInt(Problem::getTimeTakenMin);
+            case SOLVED_DATE -> Comparator.comparing(Problem::getSolvedDate);
+        };
+        order = order.thenComparingInt(Problem::getId);
+        return ascending ? order : order.reversed();
+    }
+
+    @Override
+    public List<Problem> getProblemsPage(ProblemQuery filter, Problem after, int limit) throws SQLException {
+        return read(() -> {
+            List<Problem> page = new ArrayList<>(Math.min(limit, byDate.size()));
+            for (Problem problem : after == null ? byDate : byDate.tailSet(after, false)) {
+                if (page.size() == limit) {
+                    break;
+                }
+                if (filter.matches(problem)) {
+                    page.add(new Problem(problem));
+                }
+            }
+            return page;
+        });
+    }
+
+    @Override
+    public int getProblemsSolvedToday() throws SQLException {
+        LocalDateTime start = LocalDate.now().atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        return read(() -> {
+            int count = 0;
+            for (Problem problem : byDate) {
+                LocalDateTime solved = problem.getSolvedDate();
+                if (solved.isBefore(start)) {
+                    break;
+                }
+                if (solved.isBefore(end)) {
+                    count++;
+                }
+            }
+            return count;
+        });
+    }
+
+    @Override
+    public int getCurrentStreak() throws SQLException {
+        return read(() -> {
+            int streak = 0;
+            LocalDate currentDate = LocalDate.now();
+            LocalDate lastDay = null;
+            for (Problem problem : byDate) {
+                LocalDate day = problem.getSolvedDate().toLocalDate();
+                if (day.equals(lastDay)) {
+                    continue;
+                }
+                lastDay = day;
+                if (!day.equals(currentDate)) {
+                    break;
+                }
+                streak++;
+                currentDate = currentDate.minusDays(1);
+            }
+            return streak;
+        });
+    }
+
+    @Override
+    public List<String> getAllTags() throws SQLException {
+        return read(() -> {
+            TreeSet<String> tags = new TreeSet<>();
+            for (Problem problem : byId.values()) {
+                tags.addAll(problem.getTags());
+            }
+            return new ArrayList<>(tags);
+        });
+    }
+
+    @Override
+    public List<DailyStat> getDailyStats() throws SQLException {
+        return read(() -> {
+            TreeMap<LocalDate, Map<Platform, Map<Difficulty, long[]>>> days = new TreeMap<>();
+            for (Problem problem : byId.values()) {
+                long[] totals = days.computeIfAbsent(problem.getSolvedDate().toLocalDate(), d -> new EnumMap<>(Platform.class))
+                        .computeIfAbsent(problem.getPlatform(), p -> new EnumMap<>(Difficulty.class))
+                        .computeIfAbsent(problem.getDifficulty(), d -> new long[2]);
+                totals[0]++;
+                totals[1] += problem.getTimeTakenMin();
+            }
+            List<DailyStat> stats = new ArrayList<>();
+            days.forEach((day, platforms) -> platforms.forEach((platform, difficulties) ->
+                    difficulties.forEach((difficulty, totals) ->
+                            stats.add(new DailyStat(day, platform, difficulty, (int) totals[0], totals[1])))));
+            return stats;
+        });
+    }
+
+    @Override
+    public List<ProblemAggregate> getAggregates() throws SQLException {
+        return read(() -> aggregates(byId.values()));
+    }
+
+    /**
+     * The per-platform, per-difficulty and per-day groups of {@code problems}.
+     */
+    static List<ProblemAggregate> aggregates(Collection<Problem> problems) {
+        Map<Platform, long[]> platforms = new EnumMap<>(Platform.class);
+        Map<Difficulty, long[]> difficulties = new EnumMap<>(Difficulty.class);
+        Map<LocalDate, long[]> days = new TreeMap<>();
+        for (Problem problem : problems) {
+            int time = problem.getTimeTakenMin();
+            track(platforms.computeIfAbsent(problem.getPlatform(), k -> newGroup()), time);
+            track(difficulties.computeIfAbsent(problem.getDifficulty(), k -> newGroup()), time);
+            track(days.computeIfAbsent(problem.getSolvedDate().toLocalDate(), k -> newGroup()), time);
+        }
+        List<ProblemAggregate> aggregates = new ArrayList<>();
+        platforms.forEach((platform, g) -> aggregates.add(new ProblemAggregate(Kind.PLATFORM,
+                platform, null, null, (int) g[0], g[1], (int) g[2], (int) g[3])));
+        difficulties.forEach((difficulty, g) -> aggregates.add(new ProblemAggregate(Kind.DIFFICULTY,
+                null, difficulty, null, (int) g[0], g[1], (int) g[2], (int) g[3])));
+        days.forEach((day, g) -> aggregates.add(new ProblemAggregate(Kind.DAY,
+                null, null, day, (int) g[0], g[1], (int) g[2], (int) g[3])));
+        return aggregates;
+    }
+
+    // Per group: [count, time sum, min time, max time]
+    private static long[] newGroup() {
+        return new long[] {0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE};
+    }
+
+    private static void track(long[] group, int time) {
+        group[0]++;
+        group[1] += time;
+        group[2] = Math.min(group[2], time);
+        group[3] = Math.max(group[3], time);
+    }
+
+    private static List<Problem> copies(Collection<Problem> problems) {
+        List<Problem> copies = new ArrayList<>(problems.size());
+        for (Problem problem : problems) {
+            copies.add(new Problem(problem));
+        }
+        return copies;
+    }
+}
@@ -0,0 +1,423 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.models.ProblemAggregate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A store as it will be once the write journal is replayed into it. Reads go to the store
+ * and are patched with the journaled writes it hasn't applied yet, so a write can be read
+ * back as soon as it is journaled and reads never wait for replay. Writes go straight to
+ * the store.
+ * <p>
+ * The rows the unreplayed writes touch are read from the store and the writes are applied
+ * to them in order, by the store's own rules: saving an id that is already there is skipped,
+ * updates keep the solved date and skip missing rows. Under those rules the result is the
+ * same whether or not replay has committed an entry yet. Limited queries and pages ask the
+ * store for one extra row per touched id, so dropping the touched rows can't leave them short.
+ * Replay commits hold reads off, so the store reads one call combines all see the same data.
+ */
+final class JournalOverlay implements ProblemStore {
+    private final ProblemStore store;
+    private final Supplier<List<MutationLog.Entry>> unreplayed;
+    private final ReentrantReadWriteLock replayGate = new ReentrantReadWriteLock();
+    // Entries set aside by replay, left out until they leave the unreplayed entries
+    private final Set<Long> withdrawn = ConcurrentHashMap.newKeySet();
+
+    /**
+     * {@code unreplayed} lists the journal entries not yet replayed into {@code store}, oldest first.
+     */
+    JournalOverlay(ProblemStore store, Supplier<List<MutationLog.Entry>> unreplayed) {
+        this.store = store;
+        this.unreplayed = unreplayed;
+    }
+
+    /**
+     * Runs a replay commit with reads held off.
+     */
+    <T> T commit(AsyncProblemDao.SqlWork<T> work) throws SQLException {
+        replayGate.writeLock().lock();
+        try {
+            return work.call();
+        } finally {
+            replayGate.writeLock().unlock();
+        }
+    }
+
+    /**
+     * What {@code mutation} will change when applied after the journaled writes.
+     */
+    List<ProblemMutation.Result> preview(ProblemMutation mutation) throws SQLException {
+        return switch (mutation.op()) {
+            case SAVE -> List.of(new ProblemMutation.Result(ProblemMutation.Op.SAVE, List.of(), copies(mutation.problems())));
+            case UPDATE -> {
+                Map<Integer, Problem> current = findByIds(mutation.problems().stream().map(Problem::getId).toList());
+                List<Problem> before = new ArrayList<>();
+                List<Problem> after = new ArrayList<>();
+                for (Problem changes : mutation.problems()) {
+                    Problem row = current.get(changes.getId());
+                    if (row != null) {
+                        Problem updated = ProblemDao.applyUpdate(row, changes);
+                        before.add(row);
+                        after.add(updated);
+                        current.put(updated.getId(), new Problem(updated));
+                    }
+                }
+                yield List.of(new ProblemMutation.Result(ProblemMutation.Op.UPDATE, before, after));
+            }
+            case DELETE -> List.of(new ProblemMutation.Result(ProblemMutation.Op.DELETE,
+                    new ArrayList<>(findByIds(mutation.ids()).values()), List.of()));
+        };
+    }
+
+    /**
+     * Leaves an entry replay set aside out of every later read, and returns what that
+     * changes, as the writes that would undo it.
+     */
+    List<ProblemMutation.Result> withdraw(MutationLog.Entry entry) throws SQLException {
+        replayGate.readLock().lock();
+        try {
+            List<MutationLog.Entry> entries = live();
+            Set<Integer> ids = touched(List.of(entry));
+            Map<Integer, Problem> base = store.findByIds(ids);
+            Map<Integer, Problem> with = resolve(base, entries);
+            withdrawn.add(entry.seq());
+            entries.removeIf(e -> e.seq() == entry.seq());
+            Map<Integer, Problem> without = resolve(base, entries);
+
+            List<Problem> saved = new ArrayList<>();
+            List<Problem> before = new ArrayList<>();
+            List<Problem> after = new ArrayList<>();
+            List<Problem> deleted = new ArrayList<>();
+            for (int id : ids) {
+                Problem was = with.get(id);
+                Problem now = without.get(id);
+                if (was == null && now != null) {
+                    saved.add(new Problem(now));
+                } else if (was != null && now == null) {
+                    deleted.add(new Problem(was));
+                } else if (was != null && !was.equals(now)) {
+                    before.add(new Problem(was));
+                    after.add(new Problem(now));
+                }
+            }
+            return List.of(new ProblemMutation.Result(ProblemMutation.Op.SAVE, List.of(), saved),
+                    new ProblemMutation.Result(ProblemMutation.Op.UPDATE, before, after),
+                    new ProblemMutation.Result(ProblemMutation.Op.DELETE, deleted, List.of()));
+        } finally {
+            replayGate.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void initialize() throws SQLException {
+        store.initialize();
+    }
+
+    @Override
+    public String describe() {
+        return store.describe();
+    }
+
+    @Override
+    public List<ProblemMutation.Result> apply(List<ProblemMutation> mutations, boolean keepIds) throws SQLException {
+        return store.apply(mutations, keepIds);
+    }
+
+    @Override
+    public int reserveIds(int count) throws SQLException {
+        return store.reserveIds(count);
+    }
+
+    @Override
+    public List<Problem> getAllProblems() throws SQLException {
+        return read(pending -> {
+            if (pending == null) {
+                return store.getAllProblems();
+            }
+            List<Problem> rows = patch(store.getAllProblems(), pending, problem -> true);
+            rows.sort(FileProblemStore.NEWEST_FIRST);
+            return rows;
+        });
+    }
+
+    @Override
+    public int countProblems() throws SQLException {
+        return read(pending -> pending == null ? store.countProblems()
+                : store.countProblems() - pending.base().size() + pending.rows().size());
+    }
+
+    @Override
+    public Map<Integer, Problem> findByIds(Collection<Integer> problemIds) throws SQLException {
+        return read(pending -> {
+            Map<Integer, Problem> found = store.findByIds(problemIds);
+            if (pending == null) {
+                return found;
+            }
+            Map<Integer, Problem> patched = new LinkedHashMap<>();
+            for (int id : problemIds) {
+                Problem problem = pending.touched().contains(id) ? pending.rows().get(id) : found.get(id);
+                if (problem != null && !patched.containsKey(id)) {
+                    patched.put(id, new Problem(problem));
+                }
+            }
+            return patched;
+        });
+    }
+
+    @Override
+    public List<Problem> findProblems(ProblemQuery query) throws SQLException {
+        return read(pending -> {
+            if (pending == null) {
+                return store.findProblems(query);
+            }
+            ProblemQuery wider = query.hasLimit()
+                    ? query.toBuilder().limit(widen(query.limit(), pending)).build()
+                    : query;
+            List<Problem> rows = patch(store.findProblems(wider), pending, query::matches);
+            rows.sort(FileProblemStore.order(query.sortField(), query.ascending()));
+            return query.hasLimit() ? cut(rows, query.limit()) : rows;
+        });
+    }
+
+    @Override
+    public List<Problem> getProblemsPage(ProblemQuery filter, Problem after, int limit) throws SQLException {
+        return read(pending -> {
+            if (pending == null) {
+                return store.getProblemsPage(filter, after, limit);
+            }
+            List<Problem> rows = patch(store.getProblemsPage(filter, after, widen(limit, pending)), pending,
+                    problem -> filter.matches(problem)
+                            && (after == null || FileProblemStore.NEWEST_FIRST.compare(problem, after) > 0));
+            rows.sort(FileProblemStore.NEWEST_FIRST);
+            return cut(rows, limit);
+        });
+    }
+
+    @Override
+    public int getProblemsSolvedToday() throws SQLException {
+        LocalDateTime start = LocalDate.now().atStartOfDay();
+        Predicate<Problem> today = problem -> !problem.getSolvedDate().isBefore(start)
+                && problem.getSolvedDate().isBefore(start.plusDays(1));
+        return read(pending -> pending == null ? store.getProblemsSolvedToday()
+                : store.getProblemsSolvedToday() - count(pending.base().values(), today)
+                        + count(pending.rows().values(), today));
+    }
+
+    @Override
+    public int getCurrentStreak() throws SQLException {
+        return read(pending -> {
+            if (pending == null) {
+                return store.getCurrentStreak();
+            }
+            Set<LocalDate> days = new HashSet<>();
+            for (DailyStat stat : dailyStats(pending)) {
+                days.add(stat.day());
+            }
+            int streak = 0;
+            for (LocalDate day = LocalDate.now(); days.contains(day); day = day.minusDays(1)) {
+                streak++;
+            }
+            return streak;
+        });
+    }
+
+    @Override
+    public List<String> getAllTags() throws SQLException {
+        return read(pending -> {
+            if (pending == null) {
+                return store.getAllTags();
+            }
+            TreeSet<String> tags = new TreeSet<>(store.getAllTags());
+            for (Problem problem : pending.rows().values()) {
+                tags.addAll(problem.getTags());
+            }
+            return new ArrayList<>(tags);
+        });
+    }
+
+    @Override
+    public List<DailyStat> getDailyStats() throws SQLException {
+        return read(pending -> pending == null ? store.getDailyStats() : dailyStats(pending));
+    }
+
+    @Override
+    public List<ProblemAggregate> getAggregates() throws SQLException {
+        return read(pending -> {
+            if (pending == null) {
+                return store.getAggregates();
+            }
+            if (!pending.additive()) {
+                // A minimum or maximum can't be taken back out of a group, so start over from the rows
+                return FileProblemStore.aggregates(patch(store.getAllProblems(), pending, problem -> true));
+            }
+            // Readers add up groups that appear more than once
+            List<ProblemAggregate> aggregates = new ArrayList<>(store.getAggregates());
+            aggregates.addAll(FileProblemStore.aggregates(pending.rows().values()));
+            return aggregates;
+        });
+    }
+
+    /**
+     * The rows the unreplayed writes touch: {@code base} as the store has them, {@code rows}
+     * as they will be. {@code additive} means the writes only add rows the store doesn't have.
+     */
+    private record Pending(Set<Integer> touched, Map<Integer, Problem> base, Map<Integer, Problem> rows,
+                           boolean additive) {}
+
+    private interface Read<T> {
+        T run(Pending pending) throws SQLException;
+    }
+
+    // The pending is null when nothing is waiting to be replayed
+    private <T> T read(Read<T> reader) throws SQLException {
+        replayGate.readLock().lock();
+        try {
+            List<MutationLog.Entry> entries = live();
+            if (entries.isEmpty()) {
+                return reader.run(null);
+            }
+            Set<Integer> touched = touched(entries);
+            Map<Integer, Problem> base = store.findByIds(touched);
+            boolean additive = base.isEmpty()
+                    && entries.stream().allMatch(e -> e.mutation().op() == ProblemMutation.Op.SAVE);
+            return reader.run(new Pending(touched, base, resolve(base, entries), additive));
+        } finally {
+            replayGate.readLock().unlock();
+        }
+    }
+
+    private List<MutationLog.Entry> live() {
+        List<MutationLog.Entry> entries = new ArrayList<>(unreplayed.get());
+        if (!withdrawn.isEmpty()) {
+            long oldest = entries.isEmpty() ? Long.MAX_VALUE : entries.get(0).seq();
+            withdrawn.removeIf(seq -> seq < oldest);
+            entries.removeIf(e -> withdrawn.contains(e.seq()));
+        }
+        return entries;
+    }
+
+    private static Set<Integer> touched(List<MutationLog.Entry> entries) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (MutationLog.Entry entry : entries) {
+            for (Problem problem : entry.mutation().problems()) {
+                ids.add(problem.getId());
+            }
+            ids.addAll(entry.mutation().ids());
+        }
+        return ids;
+    }
+
+    // Applies the entries to the base rows, the way the store would
+    private static Map<Integer, Problem> resolve(Map<Integer, Problem> base, List<MutationLog.Entry> entries) {
+        Map<Integer, Problem> rows = new HashMap<>(base);
+        for (MutationLog.Entry entry : entries) {
+            ProblemMutation mutation = entry.mutation();
+            switch (mutation.op()) {
+                case SAVE -> mutation.problems().forEach(p -> rows.putIfAbsent(p.getId(), p));
+                case UPDATE -> mutation.problems().forEach(p ->
+                        rows.computeIfPresent(p.getId(), (id, before) -> ProblemDao.applyUpdate(before, p)));
+                case DELETE -> mutation.ids().forEach(rows::remove);
+            }
+        }
+        return rows;
+    }
+
+    // The store's rows without the touched ones, plus copies of the pending rows that pass
+    private static List<Problem> patch(List<Problem> stored, Pending pending, Predicate<Problem> include) {
+        List<Problem> rows = new ArrayList<>(stored.size() + pending.rows().size());
+        for (Problem problem : stored) {
+            if (!pending.touched().contains(problem.getId())) {
+                rows.add(problem);
+            }
+        }
+        for (Problem problem : pending.rows().values()) {
+            if (include.test(problem)) {
+                rows.add(new Problem(problem));
+            }
+        }
+        return rows;
+    }
+
+    private List<DailyStat> dailyStats(Pending pending) throws SQLException {
+        TreeMap<LocalDate, Map<Platform, Map<Difficulty, long[]>>> days = new TreeMap<>();
+        for (DailyStat stat : store.getDailyStats()) {
+            long[] totals = group(days, stat.day(), stat.platform(), stat.difficulty());
+            totals[0] += stat.solvedCount();
+            totals[1] += stat.timeSum();
+        }
+        for (Problem problem : pending.base().values()) {
+            long[] totals = group(days, problem.getSolvedDate().toLocalDate(), problem.getPlatform(), problem.getDifficulty());
+            totals[0]--;
+            totals[1] -= problem.getTimeTakenMin();
+        }
+        for (Problem problem : pending.rows().values()) {
+            long[] totals = group(days, problem.getSolvedDate().toLocalDate(), problem.getPlatform(), problem.getDifficulty());
+            totals[0]++;
+            totals[1] += problem.getTimeTakenMin();
+        }
+        List<DailyStat> stats = new ArrayList<>();
+        days.forEach((day, platforms) -> platforms.forEach((platform, difficulties) ->
+                difficulties.forEach((difficulty, totals) -> {
+                    if (totals[0] > 0) {
+                        stats.add(new DailyStat(day, platform, difficulty, (int) totals[0], totals[1]));
+                    }
+                })));
+        return stats;
+    }
+
+    private static long[] group(Map<LocalDate, Map<Platform, Map<Difficulty, long[]>>> days,
+                                LocalDate day, Platform platform, Difficulty difficulty) {
+        return days.computeIfAbsent(day, d -> new EnumMap<>(Platform.class))
+                .computeIfAbsent(platform, p -> new EnumMap<>(Difficulty.class))
+                .computeIfAbsent(difficulty, d -> new long[2]);
+    }
+
+    private static int widen(int limit, Pending pending) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) limit + pending.touched().size());
+    }
+
+    private static List<Problem> cut(List<Problem> rows, int limit) {
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    private static int count(Collection<Problem> problems, Predicate<Problem> test) {
+        int count = 0;
+        for (Problem problem : problems) {
+            if (test.test(problem)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<Problem> copies(Collection<Problem> problems) {
+        List<Problem> copies = new ArrayList<>(problems.size());
+        for (Problem problem : problems) {
+            copies.add(new Problem(problem));
+        }
+        return copies;
+    }
+}
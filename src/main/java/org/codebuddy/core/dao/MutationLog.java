@@ -0,0 +1,172 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Record format shared by the write journal and the embedded store's data file.
+ * Each record is {@code [body length][CRC-32 of body][body]}; the body holds a sequence
+ * number, the operation and the full rows (or ids, for deletes).
+ */
+final class MutationLog {
+    static final int RECORD_HEADER = 8;
+
+    /**
+     * A decoded record; {@code end} is the file offset just past it.
+     */
+    record Entry(long seq, ProblemMutation mutation, long end) {}
+
+    private MutationLog() {
+    }
+
+    static byte[] encode(long seq, ProblemMutation mutation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // length, patched below
+        out.writeInt(0); // CRC, patched below
+        out.writeLong(seq);
+        out.writeByte(mutation.op().ordinal());
+        if (mutation.op() == ProblemMutation.Op.DELETE) {
+            out.writeInt(mutation.ids().size());
+            for (int id : mutation.ids()) {
+                out.writeInt(id);
+            }
+        } else {
+            out.writeInt(mutation.problems().size());
+            for (Problem problem : mutation.problems()) {
+                out.writeInt(problem.getId());
+                writeString(out, problem.getName());
+                writeString(out, problem.getPlatform().name());
+                writeString(out, problem.getDifficulty().name());
+                out.writeInt(problem.getTimeTakenMin());
+                out.writeLong(problem.getSolvedDate().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(problem.getSolvedDate().getNano());
+                writeString(out, problem.getNotes());
+                writeString(out, problem.getLink());
+                out.writeShort(problem.getTags().size());
+                for (String tag : problem.getTags()) {
+                    writeString(out, tag);
+                }
+            }
+        }
+        byte[] record = bytes.toByteArray();
+        int length = record.length - RECORD_HEADER;
+        ByteBuffer.wrap(record).putInt(length).putInt((int) checksum(record, RECORD_HEADER, length));
+        return record;
+    }
+
+    /**
+     * Reads the whole file into memory.
+     */
+    static ByteBuffer readAll(FileChannel channel, String what) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(what + " is too large to read: " + size + " bytes");
+        }
+        ByteBuffer log = ByteBuffer.allocate((int) size);
+        while (log.hasRemaining() && channel.read(log, log.position()) >= 0) {
+            // keep reading
+        }
+        log.flip();
+        return log;
+    }
+
+    /**
+     * Decodes records from {@code position} until the end or the first torn or corrupt one.
+     * Returns the offset where valid data ends.
+     */
+    static int scan(ByteBuffer log, int position, Consumer<Entry> consumer) {
+        int size = log.limit();
+        while (position + RECORD_HEADER <= size) {
+            int length = log.getInt(position);
+            long crc = Integer.toUnsignedLong(log.getInt(position + 4));
+            if (length <= 0 || length > size - position - RECORD_HEADER
+                    || checksum(log.array(), position + RECORD_HEADER, length) != crc) {
+                break;
+            }
+            Entry entry;
+            try {
+                entry = decode(log.slice(position + RECORD_HEADER, length), position + RECORD_HEADER + length);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                // The CRC matched, so this only trips on a record from an incompatible build
+                break;
+            }
+            consumer.accept(entry);
+            position += RECORD_HEADER + length;
+        }
+        return position;
+    }
+
+    static long checksum(byte[] data, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, offset, length);
+        return crc.getValue();
+    }
+
+    private static Entry decode(ByteBuffer body, long end) {
+        long seq = body.getLong();
+        ProblemMutation.Op op = ProblemMutation.Op.values()[body.get()];
+        int count = body.getInt();
+        List<Problem> problems = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (op == ProblemMutation.Op.DELETE) {
+                ids.add(body.getInt());
+                continue;
+            }
+            int id = body.getInt();
+            String name = readString(body);
+            Platform platform = ProblemDao.parsePlatform(readString(body));
+            Difficulty difficulty = ProblemDao.parseDifficulty(readString(body));
+            int time = body.getInt();
+            LocalDateTime solved = LocalDateTime.ofEpochSecond(body.getLong(), body.getInt(), ZoneOffset.UTC);
+            Problem problem = new Problem(id, name, platform, difficulty, time, solved, readString(body), readString(body));
+            int tagCount = Short.toUnsignedInt(body.getShort());
+            List<String> tags = new ArrayList<>(tagCount);
+            for (int t = 0; t < tagCount; t++) {
+                tags.add(readString(body));
+            }
+            problem.setTags(tags);
+            problems.add(problem);
+        }
+        return new Entry(seq, new ProblemMutation(op, problems, ids), end);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,533 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.*;
+import org.codebuddy.core.models.ProblemAggregate.Kind;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The MySQL store: problems, tags and the daily rollup in the database configured by {@code db.url}.
+ */
+public class MySqlProblemStore implements ProblemStore {
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL = "INSERT INTO problems (name, platform, difficulty, time_taken_min, solved_date, notes, link, problem_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL = "UPDATE problems SET name=?, platform=?, difficulty=?, time_taken_min=?, notes=?, link=? WHERE problem_id=?";
+    private static final String DELETE_SQL = "DELETE FROM problems WHERE problem_id = ?";
+
+    @Override
+    public void initialize() throws SQLException {
+        DatabaseManager.initializeDatabase();
+    }
+
+    @Override
+    public String describe() {
+        return DatabaseManager.getSetting("db.url", "");
+    }
+
+    @Override
+    public List<ProblemMutation.Result> apply(List<ProblemMutation> mutations, boolean keepIds) throws SQLException {
+        return inTransaction(conn -> {
+            List<ProblemMutation.Result> results = new ArrayList<>(mutations.size());
+            for (ProblemMutation mutation : mutations) {
+                results.add(switch (mutation.op()) {
+                    case SAVE -> new ProblemMutation.Result(mutation.op(), List.of(),
+                            insertRows(conn, mutation.problems(), keepIds));
+                    case UPDATE -> updateRows(conn, mutation.problems());
+                    case DELETE -> new ProblemMutation.Result(mutation.op(),
+                            deleteRows(conn, mutation.ids()), List.of());
+                });
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public int reserveIds(int count) throws SQLException {
+        return inTransaction(conn -> reserveIds(conn, count));
+    }
+
+    /**
+     * Takes the next {@code count} ids from problem_id_sequence. Every insert gets its ids
+     * here rather than from AUTO_INCREMENT, so ids reserved ahead by a journal are never
+     * reused; rows inserted by other means are skipped over.
+     */
+    private static int reserveIds(Connection conn, int count) throws SQLException {
+        int first;
+        // Locks the sequence row until the transaction ends
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT GREATEST(s.next_id, (SELECT COALESCE(MAX(problem_id), 0) + 1 FROM problems)) "
+                     + "FROM problem_id_sequence s WHERE s.id = 1 FOR UPDATE")) {
+            if (!rs.next()) {
+                throw new SQLException("problem_id_sequence has no row; is the schema migrated?");
+            }
+            first = rs.getInt(1);
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("UPDATE problem_id_sequence SET next_id = ? WHERE id = 1")) {
+            stmt.setInt(1, Math.addExact(first, count));
+            stmt.executeUpdate();
+        }
+        return first;
+    }
+
+    /**
+     * Inserts the rows and returns the ones actually inserted. With {@code keepIds} the ids
+     * are already set, and rows whose id exists are skipped; otherwise each row gets a new id.
+     */
+    private List<Problem> insertRows(Connection conn, Collection<Problem> problems, boolean keepIds) throws SQLException {
+        int batchSize = batchSize();
+        List<Problem> rows = new ArrayList<>(problems);
+        if (keepIds) {
+            Map<Integer, Problem> existing = loadByIds(conn, rows.stream().map(Problem::getId).toList(), true);
+            rows.removeIf(p -> existing.containsKey(p.getId()));
+            if (rows.isEmpty()) {
+                return rows;
+            }
+        } else {
+            int id = reserveIds(conn, rows.size());
+            for (Problem problem : rows) {
+                problem.setId(id++);
+            }
+        }
+
+        DailyStatsDao.Delta delta = new DailyStatsDao.Delta();
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_SQL)) {
+            int pending = 0;
+            for (Problem problem : rows) {
+                bindInsert(stmt, problem);
+                stmt.addBatch();
+                delta.add(problem);
+                if (++pending == batchSize) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+        TagDao.write(conn, rows, false, batchSize);
+        delta.applyTo(conn);
+        return rows;
+    }
+
+    private ProblemMutation.Result updateRows(Connection conn, Collection<Problem> problems) throws SQLException {
+        int batchSize = batchSize();
+        // Later changes to the same problem win; each row is updated once against its current state
+        Map<Integer, Problem> latest = new LinkedHashMap<>();
+        for (Problem problem : problems) {
+            latest.put(problem.getId(), problem);
+        }
+        Map<Integer, Problem> before = loadByIds(conn, latest.keySet(), true);
+        DailyStatsDao.Delta delta = new DailyStatsDao.Delta();
+        List<Problem> beforeRows = new ArrayList<>();
+        List<Problem> afterRows = new ArrayList<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SQL)) {
+            int pending = 0;
+            for (Problem problem : latest.values()) {
+                Problem old = before.get(problem.getId());
+                if (old == null) {
+                    continue;
+                }
+                bindUpdate(stmt, problem);
+                stmt.addBatch();
+                Problem updated = ProblemDao.applyUpdate(old, problem);
+                delta.remove(old);
+                delta.add(updated);
+                beforeRows.add(old);
+                afterRows.add(updated);
+                if (++pending == batchSize) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+        TagDao.write(conn, afterRows, true, batchSize);
+        delta.applyTo(conn);
+        return new ProblemMutation.Result(ProblemMutation.Op.UPDATE, beforeRows, afterRows);
+    }
+
+    private List<Problem> deleteRows(Connection conn, Collection<Integer> problemIds) throws SQLException {
+        int batchSize = batchSize();
+        Map<Integer, Problem> before = loadByIds(conn, problemIds, true);
+        DailyStatsDao.Delta delta = new DailyStatsDao.Delta();
+
+        try (PreparedStatement stmt = conn.prepareStatement(DELETE_SQL)) {
+            int pending = 0;
+            for (Problem old : before.values()) {
+                stmt.setInt(1, old.getId());
+                stmt.addBatch();
+                delta.remove(old);
+                if (++pending == batchSize) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+        delta.applyTo(conn);
+        return new ArrayList<>(before.values());
+    }
+
+    private void bindInsert(PreparedStatement stmt, Problem problem) throws SQLException {
+        stmt.setString(1, problem.getName());
+        stmt.setString(2, problem.getPlatform().name());
+        stmt.setString(3, problem.getDifficulty().name());
+        stmt.setInt(4, problem.getTimeTakenMin());
+        stmt.setTimestamp(5, Timestamp.valueOf(problem.getSolvedDate()));
+        stmt.setString(6, problem.getNotes());
+        stmt.setString(7, problem.getLink());
+        stmt.setInt(8, problem.getId());
+    }
+
+    private void bindUpdate(PreparedStatement stmt, Problem problem) throws SQLException {
+        stmt.setString(1, problem.getName());
+        stmt.setString(2, problem.getPlatform().name());
+        stmt.setString(3, problem.getDifficulty().name());
+        stmt.setInt(4, problem.getTimeTakenMin());
+        stmt.setString(5, problem.getNotes());
+        stmt.setString(6, problem.getLink());
+        stmt.setInt(7, problem.getId());
+    }
+
+    private int batchSize() {
+        return Math.max(1, DatabaseManager.getIntSetting("db.batchSize", DEFAULT_BATCH_SIZE));
+    }
+
+    @FunctionalInterface
+    private interface TransactionWork<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    private <T> T inTransaction(TransactionWork<T> work) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    @Override
+    public List<Problem> getAllProblems() throws SQLException {
+        String sql = "SELECT * FROM problems ORDER BY solved_date DESC";
+        List<Problem> problems = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    problems.add(createProblemFromResultSet(rs));
+                }
+            }
+            TagDao.attach(conn, problems, batchSize());
+        }
+        return problems;
+    }
+
+    @Override
+    public int countProblems() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM problems")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public Map<Integer, Problem> findByIds(Collection<Integer> problemIds) throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            return loadByIds(conn, problemIds, false);
+        }
+    }
+
+    private Map<Integer, Problem> loadByIds(Connection conn, Collection<Integer> problemIds, boolean forUpdate) throws SQLException {
+        List<Integer> ids = problemIds.stream().distinct().toList();
+        Map<Integer, Problem> found = new HashMap<>();
+        int chunkSize = batchSize();
+
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            List<Integer> chunk = ids.subList(start, Math.min(ids.size(), start + chunkSize));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            String sql = "SELECT * FROM problems WHERE problem_id IN (" + placeholders + ")" +
+                    (forUpdate ? " FOR UPDATE" : "");
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setInt(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Problem problem = createProblemFromResultSet(rs);
+                        found.put(problem.getId(), problem);
+                    }
+                }
+            }
+        }
+
+        TagDao.attach(conn, found.values(), chunkSize);
+
+        Map<Integer, Problem> ordered = new LinkedHashMap<>();
+        for (int id : ids) {
+            Problem problem = found.get(id);
+            if (problem != null) {
+                ordered.put(id, problem);
+            }
+        }
+        return ordered;
+    }
+
+    @Override
+    public List<Problem> findProblems(ProblemQuery query) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT * FROM problems");
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(query, conditions, params);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        // Sort column comes from the enum, never from user input
+        String direction = query.ascending() ? "ASC" : "DESC";
+        sql.append(" ORDER BY ").append(query.sortField().getColumn()).append(' ').append(direction);
+        sql.append(", problem_id ").append(direction);
+        if (query.hasLimit()) {
+            sql.append(" LIMIT ?");
+            params.add(query.limit());
+        }
+
+        List<Problem> problems = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        problems.add(createProblemFromResultSet(rs));
+                    }
+                }
+            }
+            TagDao.attach(conn, problems, batchSize());
+        }
+        return problems;
+    }
+
+    private static void addFilters(ProblemQuery query, List<String> conditions, List<Object> params) {
+        if (query.platform() != null) {
+            conditions.add("platform = ?");
+            params.add(query.platform().name());
+        }
+        if (query.difficulty() != null) {
+            conditions.add("difficulty = ?");
+            params.add(query.difficulty().name());
+        }
+        if (query.solvedFrom() != null) {
+            conditions.add("solved_date >= ?");
+            params.add(Timestamp.valueOf(query.solvedFrom()));
+        }
+        if (query.solvedTo() != null) {
+            conditions.add("solved_date < ?");
+            params.add(Timestamp.valueOf(query.solvedTo()));
+        }
+        if (query.minTimeTaken() != null) {
+            conditions.add("time_taken_min >= ?");
+            params.add(query.minTimeTaken());
+        }
+        if (query.maxTimeTaken() != null) {
+            conditions.add("time_taken_min <= ?");
+            params.add(query.maxTimeTaken());
+        }
+    }
+
+    @Override
+    public List<Problem> getProblemsPage(ProblemQuery filter, Problem after, int limit) throws SQLException {
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        addFilters(filter, conditions, params);
+        if (after != null) {
+            Timestamp solved = Timestamp.valueOf(after.getSolvedDate());
+            conditions.add("(solved_date < ? OR (solved_date = ? AND problem_id < ?))");
+            params.add(solved);
+            params.add(solved);
+            params.add(after.getId());
+        }
+        String sql = "SELECT * FROM problems" +
+                (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions)) +
+                " ORDER BY solved_date DESC, problem_id DESC LIMIT ?";
+        params.add(limit);
+        List<Problem> page = new ArrayList<>(limit);
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                stmt.setFetchSize(limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        page.add(createProblemFromResultSet(rs));
+                    }
+                }
+            }
+            TagDao.attach(conn, page, batchSize());
+        }
+        return page;
+    }
+
+    @Override
+    public int getProblemsSolvedToday() throws SQLException {
+        // Range on solved_date so the index can be used; today is the JVM's, not the server's
+        String sql = "SELECT COUNT(*) FROM problems WHERE solved_date >= ? AND solved_date < ?";
+        LocalDate today = LocalDate.now();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(today.atStartOfDay()));
+            stmt.setTimestamp(2, Timestamp.valueOf(today.plusDays(1).atStartOfDay()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) return rs.getInt(1);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int getCurrentStreak() throws SQLException {
+        // The daily rollup already holds one row per active day, in primary-key order
+        String sql = "SELECT DISTINCT solved_day FROM problem_daily_stats ORDER BY solved_day DESC";
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            int streak = 0;
+            LocalDate currentDate = LocalDate.now();
+
+            while (rs.next()) {
+                LocalDate date = rs.getDate("solved_day").toLocalDate();
+                if (date.equals(currentDate)) {
+                    streak++;
+                    currentDate = currentDate.minusDays(1);
+                } else {
+                    break;
+                }
+            }
+            return streak;
+        }
+    }
+
+    @Override
+    public List<String> getAllTags() throws SQLException {
+        List<String> tags = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM tags ORDER BY name")) {
+            while (rs.next()) {
+                tags.add(rs.getString("name"));
+            }
+        }
+        return tags;
+    }
+
+    @Override
+    public List<DailyStat> getDailyStats() throws SQLException {
+        String sql = "SELECT solved_day, platform, difficulty, solved_count, time_sum FROM problem_daily_stats ORDER BY solved_day";
+        List<DailyStat> stats = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                stats.add(new DailyStat(
+                        rs.getDate("solved_day").toLocalDate(),
+                        ProblemDao.parsePlatform(rs.getString("platform")),
+                        ProblemDao.parseDifficulty(rs.getString("difficulty")),
+                        rs.getInt("solved_count"),
+                        rs.getLong("time_sum")));
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Fetched with a single UNION ALL query so the whole summary costs one round trip.
+     * Missing times count as 0, as they do when problems are loaded. Timestamps are stored
+     * as the app's wall clock, so DATE() gives the same day as Java.
+     */
+    @Override
+    public List<ProblemAggregate> getAggregates() throws SQLException {
+        String sql = """
+            SELECT 'P' AS kind, platform AS group_key, NULL AS solved_day,
+                   COUNT(*) AS solved_count, COALESCE(SUM(time_taken_min), 0) AS time_sum,
+                   MIN(COALESCE(time_taken_min, 0)) AS min_time, MAX(COALESCE(time_taken_min, 0)) AS max_time
+            FROM problems GROUP BY platform
+            UNION ALL
+            SELECT 'D', difficulty, NULL, COUNT(*), COALESCE(SUM(time_taken_min), 0),
+                   MIN(COALESCE(time_taken_min, 0)), MAX(COALESCE(time_taken_min, 0))
+            FROM problems GROUP BY difficulty
+            UNION ALL
+            SELECT 'A', NULL, DATE(solved_date), COUNT(*), COALESCE(SUM(time_taken_min), 0),
+                   MIN(COALESCE(time_taken_min, 0)), MAX(COALESCE(time_taken_min, 0))
+            FROM problems GROUP BY DATE(solved_date)
+            """;
+        List<ProblemAggregate> aggregates = new ArrayList<>();
+
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                String kind = rs.getString("kind");
+                int count = rs.getInt("solved_count");
+                long timeSum = rs.getLong("time_sum");
+                int minTime = rs.getInt("min_time");
+                int maxTime = rs.getInt("max_time");
+
+                switch (kind) {
+                    case "P" -> aggregates.add(new ProblemAggregate(Kind.PLATFORM,
+                            ProblemDao.parsePlatform(rs.getString("group_key")), null, null,
+                            count, timeSum, minTime, maxTime));
+                    case "D" -> aggregates.add(new ProblemAggregate(Kind.DIFFICULTY,
+                            null, ProblemDao.parseDifficulty(rs.getString("group_key")), null,
+                            count, timeSum, minTime, maxTime));
+                    default -> aggregates.add(new ProblemAggregate(Kind.DAY,
+                            null, null, rs.getDate("solved_day").toLocalDate(),
+                            count, timeSum, minTime, maxTime));
+                }
+            }
+        }
+        return aggregates;
+    }
+
+    private Problem createProblemFromResultSet(ResultSet rs) throws SQLException {
+        // Legacy rows may hold lower-case platform and difficulty names
+        return new Problem(
+            rs.getInt("problem_id"),
+            rs.getString("name"),
+            ProblemDao.parsePlatform(rs.getString("platform")),
+            ProblemDao.parseDifficulty(rs.getString("difficulty")),
+            rs.getInt("time_taken_min"),
+            rs.getTimestamp("solved_date").toLocalDateTime(),
+            rs.getString("notes"),
+            rs.getString("link")
+        );
+    }
+}
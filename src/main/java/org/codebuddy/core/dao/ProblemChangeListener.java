@@ -0,0 +1,29 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Problem;
+
+import java.util.List;
+
+/**
+ * Notified after ProblemDao writes commit (with the journal on, once they are journaled).
+ * Callbacks run on the writing thread, so implementations should be quick and thread-safe.
+ */
+public interface ProblemChangeListener {
+
+    default void problemsSaved(List<Problem> saved) {}
+
+    /**
+     * {@code before} and {@code after} hold the same problems in the same order.
+     */
+    default void problemsUpdated(List<Problem> before, List<Problem> after) {}
+
+    default void problemsDeleted(List<Problem> deleted) {}
+
+    /**
+     * A journaled write replay had to set aside, as it failed in a way retrying can't fix.
+     * Listeners were told about it when it was journaled, and have just been sent the changes
+     * that undo it. It is kept in the journal's {@code problems.rejected} file.
+     * Runs on the journal's replay thread.
+     */
+    default void writeRejected(String description, String reason) {}
+}
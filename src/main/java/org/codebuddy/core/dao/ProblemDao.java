@@ -1,73 +1,436 @@
 package org.codebuddy.core.dao;
 
 import org.codebuddy.core.models.*;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.sql.*;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class ProblemDao {
-    public void saveProblem(Problem problem) throws SQLException {
-        String sql = "INSERT INTO problems (name, platform, difficulty, time_taken_min, solved_date, notes, link) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            stmt.setString(1, problem.getName());
-            stmt.setString(2, problem.getPlatform().name());
-            stmt.setString(3, problem.getDifficulty().name());
-            stmt.setInt(4, problem.getTimeTakenMin());
-            stmt.setTimestamp(5, Timestamp.valueOf(problem.getSolvedDate()));
-            stmt.setString(6, problem.getNotes());
-            stmt.setString(7, problem.getLink());
-            
-            stmt.executeUpdate();
-            
-            // Get the generated ID
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    problem.setId(rs.getInt(1));
+    private static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int DEFAULT_JOURNAL_COMPACT_BYTES = 4 << 20;
+    private static final int DEFAULT_JOURNAL_ID_BLOCK = 100;
+
+    // Column sizes in the problems table (VARCHAR lengths count characters, TEXT bytes)
+    public static final int MAX_NAME_LENGTH = 255;
+    public static final int MAX_LINK_LENGTH = 500;
+    public static final int MAX_NOTES_BYTES = 65_535;
+    // Tags per problem in a journal record
+    public static final int MAX_TAGS = 65_535;
+    // TIMESTAMP range, a day inside each end so the session time zone can't push a date out
+    private static final LocalDateTime MIN_SOLVED_DATE = LocalDateTime.of(1970, 1, 2, 0, 0);
+    private static final LocalDateTime MAX_SOLVED_DATE = LocalDateTime.of(2038, 1, 18, 0, 0);
+
+    private static final CopyOnWriteArrayList<ProblemChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Writes hold the read side while they commit and tell listeners; loadAndListen holds the
+    // write side, so a load never overlaps a write
+    private static final ReentrantReadWriteLock writeGate = new ReentrantReadWriteLock();
+    // Journaled writes work out what they change from the writes journaled before them, one at a time
+    private static final ReentrantLock journalWrites = new ReentrantLock();
+
+    private static ProblemStore store;
+
+    private static final Object journalLock = new Object();
+    private static ProblemJournal journal;
+    private static JournalOverlay overlay;
+    private static boolean journalOpened = false;
+
+    /**
+     * Registers a listener told about every committed write made through any ProblemDao.
+     * Registering a listener again has no effect.
+     */
+    public static void addChangeListener(ProblemChangeListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    /**
+     * Runs {@code load} with writes held off, then registers {@code listener}, so the listener
+     * is told about exactly the writes the load didn't see.
+     */
+    public static <T> T loadAndListen(ProblemChangeListener listener, AsyncProblemDao.SqlWork<T> load) throws SQLException {
+        writeGate.writeLock().lock();
+        try {
+            T result = load.call();
+            addChangeListener(listener);
+            return result;
+        } finally {
+            writeGate.writeLock().unlock();
+        }
+    }
+
+    public static void removeChangeListener(ProblemChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * The store named by {@code storage.backend}: {@code mysql} (default) or {@code file}.
+     */
+    public static synchronized ProblemStore getStore() {
+        if (store == null) {
+            String backend = DatabaseManager.getSetting("storage.backend", "mysql").trim().toLowerCase();
+            switch (backend) {
+                case "file" -> {
+                    String defaultPath = Paths.get(System.getProperty("user.home"), ".codebuddy", "problems.db").toString();
+                    store = new FileProblemStore(Paths.get(DatabaseManager.getSetting("storage.file.path", defaultPath)));
+                }
+                case "mysql" -> store = new MySqlProblemStore();
+                default -> {
+                    System.err.println("Unknown storage.backend '" + backend + "', using mysql");
+                    store = new MySqlProblemStore();
                 }
             }
         }
+        return store;
+    }
+
+    /**
+     * The store reads go to: with the journal on, a view that includes the journaled writes
+     * not yet replayed into MySQL.
+     */
+    static ProblemStore readStore() {
+        ProblemJournal journal = journal();
+        return journal != null ? overlay : getStore();
+    }
+
+    /**
+     * Prepares the configured store: creates or migrates the MySQL schema, or opens the data file.
+     */
+    public static void initializeStorage() throws SQLException {
+        getStore().initialize();
+    }
+
+    public void saveProblem(Problem problem) throws SQLException {
+        saveProblems(List.of(problem));
     }
 
     public void updateProblem(Problem problem) throws SQLException {
-        String sql = "UPDATE problems SET name=?, platform=?, difficulty=?, time_taken_min=?, notes=?, link=? WHERE problem_id=?";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, problem.getName());
-            stmt.setString(2, problem.getPlatform().name());
-            stmt.setString(3, problem.getDifficulty().name());
-            stmt.setInt(4, problem.getTimeTakenMin());
-            stmt.setString(5, problem.getNotes());
-            stmt.setString(6, problem.getLink());
-            stmt.setInt(7, problem.getId());
-            stmt.executeUpdate();
-        }
+        updateProblems(List.of(problem));
     }
 
     public void deleteProblem(int problemId) throws SQLException {
-        String sql = "DELETE FROM problems WHERE problem_id = ?";
-        try (Connection conn = DatabaseManager.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, problemId);
-            stmt.executeUpdate();
+        deleteProblems(List.of(problemId));
+    }
+
+    /**
+     * Inserts all problems in one transaction using JDBC batches, setting each id.
+     * Nothing is inserted if any row fails, and the problems keep the ids they had, so the
+     * same objects can be saved again. With the journal on, ids are assigned here, the write
+     * is committed once it is in the journal and the rows reach MySQL in the background.
+     */
+    public void saveProblems(Collection<Problem> problems) throws SQLException {
+        if (problems.isEmpty()) return;
+
+        validate(problems, true);
+        // Ids set before the transaction failed would make a retry look like an update
+        int[] ids = problems.stream().mapToInt(Problem::getId).toArray();
+        try {
+            ProblemJournal journal = journal();
+            if (journal != null) {
+                journal.assignIds(problems);
+            }
+            write(journal, ProblemMutation.save(problems));
+        } catch (SQLException | RuntimeException e) {
+            int i = 0;
+            for (Problem problem : problems) {
+                problem.setId(ids[i++]);
+            }
+            throw e;
         }
     }
 
-    public List<Problem> getAllProblems() throws SQLException {
-        String sql = "SELECT * FROM problems ORDER BY solved_date DESC";
-        List<Problem> problems = new ArrayList<>();
+    /**
+     * Updates all problems in one transaction using JDBC batches.
+     */
+    public void updateProblems(Collection<Problem> problems) throws SQLException {
+        if (problems.isEmpty()) return;
+        validate(problems, false);
+        write(journal(), ProblemMutation.update(problems));
+    }
 
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+    /**
+     * Deletes all given ids in one transaction using JDBC batches.
+     */
+    public void deleteProblems(Collection<Integer> problemIds) throws SQLException {
+        if (problemIds.isEmpty()) return;
+        write(journal(), ProblemMutation.delete(problemIds));
+    }
 
-            while (rs.next()) {
-                problems.add(createProblemFromResultSet(rs));
+    /**
+     * Rejects problems the store can't hold before anything is written, so the caller
+     * gets the error now rather than from a background replay, which retries every refusal.
+     * Keys can't clash: saved rows get fresh ids, updates of missing ids are skipped, tags
+     * are inserted if missing and only linked to rows the same transaction has. Updates
+     * never change the solved date, so it is only checked for saves.
+     */
+    private static void validate(Collection<Problem> problems, boolean saving) throws SQLException {
+        for (Problem problem : problems) {
+            if (!saving && problem.getId() <= 0) {
+                throw new SQLDataException("Can't update a problem that was never saved: " + problem.getName());
+            }
+            String name = problem.getName();
+            if (name == null || name.isBlank()) {
+                throw new SQLDataException("Problem name is required");
+            }
+            if (problem.getPlatform() == null || problem.getDifficulty() == null) {
+                throw new SQLDataException("Platform and difficulty are required: " + name);
+            }
+            if (name.codePointCount(0, name.length()) > MAX_NAME_LENGTH) {
+                throw new SQLDataException("Problem name is longer than " + MAX_NAME_LENGTH + " characters");
+            }
+            String link = problem.getLink();
+            if (link != null && link.codePointCount(0, link.length()) > MAX_LINK_LENGTH) {
+                throw new SQLDataException("Link is longer than " + MAX_LINK_LENGTH + " characters: " + name);
+            }
+            String notes = problem.getNotes();
+            if (notes != null && notes.getBytes(StandardCharsets.UTF_8).length > MAX_NOTES_BYTES) {
+                throw new SQLDataException("Notes are longer than " + MAX_NOTES_BYTES + " bytes: " + name);
             }
+            LocalDateTime solved = problem.getSolvedDate();
+            if (saving && (solved == null || solved.isBefore(MIN_SOLVED_DATE) || solved.isAfter(MAX_SOLVED_DATE))) {
+                throw new SQLDataException("Solved date must be between " + MIN_SOLVED_DATE.toLocalDate()
+                        + " and " + MAX_SOLVED_DATE.toLocalDate() + ": " + name);
+            }
+            if (problem.getTags().size() > MAX_TAGS) {
+                throw new SQLDataException("A problem can have at most " + MAX_TAGS + " tags: " + name);
+            }
+            TagDao.checkLengths(problem.getTags());
         }
-        return problems;
+    }
+
+    private static void write(ProblemJournal journal, ProblemMutation mutation) throws SQLException {
+        if (journal == null) {
+            writeGate.readLock().lock();
+            try {
+                fire(getStore().apply(List.of(mutation), false));
+            } finally {
+                writeGate.readLock().unlock();
+            }
+            return;
+        }
+        writeGate.readLock().lock();
+        journalWrites.lock();
+        try {
+            List<ProblemMutation.Result> results = overlay.preview(mutation);
+            journal.append(mutation);
+            fire(results);
+        } catch (IOException e) {
+            throw new SQLException("Failed to write to the journal: " + e.getMessage(), e);
+        } finally {
+            journalWrites.unlock();
+            writeGate.readLock().unlock();
+        }
+    }
+
+    /**
+     * The row as it looks after an update: the solved date is never updated.
+     */
+    static Problem applyUpdate(Problem before, Problem changes) {
+        Problem after = new Problem(before.getId(), changes.getName(), changes.getPlatform(), changes.getDifficulty(),
+                changes.getTimeTakenMin(), before.getSolvedDate(), changes.getNotes(), changes.getLink());
+        after.setTags(changes.getTags());
+        return after;
+    }
+
+    /**
+     * The write journal, opened on first use unless {@code db.journal.enabled} is false or the
+     * store isn't MySQL; null then, or if it could not be opened, in which case writes go
+     * straight to the store.
+     */
+    private static ProblemJournal journal() {
+        synchronized (journalLock) {
+            if (!journalOpened) {
+                journalOpened = true;
+                // The embedded store already writes to local disk; journaling would only add a second copy
+                if (getStore() instanceof MySqlProblemStore
+                        && Boolean.parseBoolean(DatabaseManager.getSetting("db.journal.enabled", "true"))) {
+                    String defaultDir = Paths.get(System.getProperty("user.home"), ".codebuddy", "journal").toString();
+                    // Replay commits through the overlay, so it must exist before the replay thread starts
+                    overlay = new JournalOverlay(getStore(), () -> journal.unreplayed());
+                    try {
+                        journal = ProblemJournal.open(Paths.get(DatabaseManager.getSetting("db.journal.dir", defaultDir)),
+                                new JournalTarget(),
+                                Math.max(1, DatabaseManager.getIntSetting("db.batchSize", DEFAULT_BATCH_SIZE)),
+                                Math.max(1, DatabaseManager.getIntSetting("db.journal.idBlock", DEFAULT_JOURNAL_ID_BLOCK)),
+                                DatabaseManager.getIntSetting("db.journal.compactBytes", DEFAULT_JOURNAL_COMPACT_BYTES));
+                    } catch (IOException e) {
+                        System.err.println("Could not open the write journal, writing to the database directly: " + e.getMessage());
+                    }
+                }
+            }
+            return journal;
+        }
+    }
+
+    private static class JournalTarget implements ProblemJournal.Target {
+        @Override
+        public void apply(List<MutationLog.Entry> entries) throws SQLException {
+            replay(entries);
+        }
+
+        @Override
+        public int reserveIds(int count) throws SQLException {
+            getStore().initialize();
+            return getStore().reserveIds(count);
+        }
+
+        @Override
+        public void rejected(MutationLog.Entry entry, Exception cause) {
+            // Listeners were told about the write when it was journaled; take it back
+            writeGate.readLock().lock();
+            journalWrites.lock();
+            try {
+                fire(overlay.withdraw(entry));
+            } catch (SQLException e) {
+                System.err.println("Could not tell listeners about a rejected write: " + e.getMessage());
+            } finally {
+                journalWrites.unlock();
+                writeGate.readLock().unlock();
+            }
+            ProblemMutation mutation = entry.mutation();
+            String description = switch (mutation.op()) {
+                case SAVE -> "save of " + names(mutation.problems());
+                case UPDATE -> "edit of " + names(mutation.problems());
+                case DELETE -> "delete of " + mutation.ids().size() + " problem(s)";
+            };
+            for (ProblemChangeListener listener : listeners) {
+                try {
+                    listener.writeRejected(description, cause.getMessage());
+                } catch (RuntimeException e) {
+                    System.err.println("Problem change listener failed: " + e.getMessage());
+                }
+            }
+        }
+
+        private static String names(List<Problem> problems) {
+            return problems.stream().map(p -> "'" + p.getName() + "'").collect(Collectors.joining(", "));
+        }
+    }
+
+    /**
+     * Applies a batch of journal entries in one transaction. Listeners were told when the
+     * entries were journaled. Consecutive entries of the same kind are merged into one batched write.
+     */
+    private static void replay(List<MutationLog.Entry> entries) throws SQLException {
+        // Replay needs the tables; this is a no-op once the app has initialized
+        getStore().initialize();
+        List<ProblemMutation> mutations = new ArrayList<>();
+        int start = 0;
+        while (start < entries.size()) {
+            ProblemMutation.Op op = entries.get(start).mutation().op();
+            List<Problem> problems = new ArrayList<>();
+            List<Integer> ids = new ArrayList<>();
+            int end = start;
+            while (end < entries.size() && entries.get(end).mutation().op() == op) {
+                problems.addAll(entries.get(end).mutation().problems());
+                ids.addAll(entries.get(end).mutation().ids());
+                end++;
+            }
+            mutations.add(new ProblemMutation(op, problems, ids));
+            start = end;
+        }
+        overlay.commit(() -> getStore().apply(mutations, true));
+    }
+
+    private static void fire(List<ProblemMutation.Result> results) {
+        for (ProblemMutation.Result result : results) {
+            List<Problem> changed = result.op() == ProblemMutation.Op.DELETE ? result.before() : result.after();
+            if (changed.isEmpty()) {
+                continue;
+            }
+            for (ProblemChangeListener listener : listeners) {
+                try {
+                    switch (result.op()) {
+                        case SAVE -> listener.problemsSaved(result.after());
+                        case UPDATE -> listener.problemsUpdated(result.before(), result.after());
+                        case DELETE -> listener.problemsDeleted(result.before());
+                    }
+                } catch (RuntimeException e) {
+                    System.err.println("Problem change listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    public List<Problem> getAllProblems() throws SQLException {
+        return readStore().getAllProblems();
+    }
+
+    public int countProblems() throws SQLException {
+        return readStore().countProblems();
+    }
+
+    /**
+     * Looks up a single problem by primary key.
+     */
+    public Optional<Problem> findById(int problemId) throws SQLException {
+        return Optional.ofNullable(readStore().findByIds(List.of(problemId)).get(problemId));
+    }
+
+    /**
+     * Looks up several problems by primary key, keyed by id in the order requested.
+     * Ids that don't exist are left out of the result.
+     */
+    public Map<Integer, Problem> findByIds(Collection<Integer> problemIds) throws SQLException {
+        return readStore().findByIds(problemIds);
+    }
+
+    /**
+     * Runs a filtered, sorted query in the store so only matching rows come back.
+     */
+    public List<Problem> findProblems(ProblemQuery query) throws SQLException {
+        return readStore().findProblems(query);
+    }
+
+    /**
+     * Reads one page of problems, newest first (by solved date, then id).
+     * Pass the last problem of the previous page as {@code after}, or null for the first page.
+     */
+    public List<Problem> getProblemsPage(Problem after, int limit) throws SQLException {
+        return getProblemsPage(ProblemQuery.all(), after, limit);
+    }
+
+    /**
+     * Like {@link #getProblemsPage(Problem, int)}, but only problems passing {@code filter}'s
+     * criteria; its sort and limit are ignored.
+     */
+    public List<Problem> getProblemsPage(ProblemQuery filter, Problem after, int limit) throws SQLException {
+        return readStore().getProblemsPage(filter, after, limit);
+    }
+
+    /**
+     * Streams every problem, newest first, holding at most one page in memory.
+     * Pages are fetched lazily with keyset pagination, so no connection is held between pages.
+     * SQL failures surface as {@link DataAccessException}.
+     */
+    public Stream<Problem> streamProblems() {
+        return streamProblems(DatabaseManager.getIntSetting("db.fetchSize", DEFAULT_FETCH_SIZE));
+    }
+
+    public Stream<Problem> streamProblems(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        Iterator<Problem> iterator = new PageIterator(pageSize);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
     }
 
     // Simplified - no user management needed
@@ -76,71 +439,74 @@ public class ProblemDao {
     }
 
     public int getProblemsSolvedToday(int userId) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM problems WHERE DATE(solved_date) = CURDATE()";
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) return rs.getInt(1);
-        }
-        return 0;
+        return readStore().getProblemsSolvedToday();
     }
 
     public int getCurrentStreak(int userId) throws SQLException {
-        String sql = "SELECT DISTINCT DATE(solved_date) as solved_date FROM problems ORDER BY solved_date DESC";
-        try (Connection conn = DatabaseManager.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            int streak = 0;
-            java.time.LocalDate today = java.time.LocalDate.now();
-            java.time.LocalDate currentDate = today;
-            
-            while (rs.next()) {
-                java.time.LocalDate date = rs.getDate("solved_date").toLocalDate();
-                if (date.equals(currentDate)) {
-                    streak++;
-                    currentDate = currentDate.minusDays(1);
-                } else {
-                    break;
-                }
+        return readStore().getCurrentStreak();
+    }
+
+    private class PageIterator implements Iterator<Problem> {
+        private final int pageSize;
+        private List<Problem> page = List.of();
+        private int position = 0;
+        private Problem last = null;
+        private boolean exhausted = false;
+
+        PageIterator(int pageSize) {
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (position < page.size()) {
+                return true;
             }
-            return streak;
+            if (exhausted) {
+                return false;
+            }
+            try {
+                page = getProblemsPage(last, pageSize);
+            } catch (SQLException e) {
+                throw new DataAccessException("Failed to load problems page: " + e.getMessage(), e);
+            }
+            position = 0;
+            if (page.size() < pageSize) {
+                exhausted = true;
+            }
+            if (page.isEmpty()) {
+                return false;
+            }
+            last = page.get(page.size() - 1);
+            return true;
+        }
+
+        @Override
+        public Problem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(position++);
         }
     }
 
-    private Problem createProblemFromResultSet(ResultSet rs) throws SQLException {
+    static Platform parsePlatform(String value) {
         try {
-            return new Problem(
-                rs.getInt("problem_id"),
-                rs.getString("name"),
-                Platform.valueOf(rs.getString("platform")),
-                Difficulty.valueOf(rs.getString("difficulty")),
-                rs.getInt("time_taken_min"),
-                rs.getTimestamp("solved_date").toLocalDateTime(),
-                rs.getString("notes"),
-                rs.getString("link")
-            );
-        } catch (IllegalArgumentException e) {
-            // Handle legacy data with old format
-            String platformStr = rs.getString("platform");
-            String difficultyStr = rs.getString("difficulty");
-            
-            Platform platform = mapLegacyPlatform(platformStr);
-            Difficulty difficulty = mapLegacyDifficulty(difficultyStr);
-            
-            return new Problem(
-                rs.getInt("problem_id"),
-                rs.getString("name"),
-                platform,
-                difficulty,
-                rs.getInt("time_taken_min"),
-                rs.getTimestamp("solved_date").toLocalDateTime(),
-                rs.getString("notes"),
-                rs.getString("link")
-            );
-        }
-    }
-
-    private Platform mapLegacyPlatform(String platformStr) {
+            return Platform.valueOf(value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return mapLegacyPlatform(value);
+        }
+    }
+
+    static Difficulty parseDifficulty(String value) {
+        try {
+            return Difficulty.valueOf(value);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return mapLegacyDifficulty(value);
+        }
+    }
+
+    private static Platform mapLegacyPlatform(String platformStr) {
         if (platformStr == null) return Platform.OTHER;
         
         switch (platformStr.toLowerCase()) {
@@ -152,7 +518,7 @@ public class ProblemDao {
         }
     }
 
-    private Difficulty mapLegacyDifficulty(String difficultyStr) {
+    private static Difficulty mapLegacyDifficulty(String difficultyStr) {
         if (difficultyStr == null) return Difficulty.MEDIUM;
         
         switch (difficultyStr.toLowerCase()) {
@@ -0,0 +1,499 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Problem;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only log of problem writes, replayed into MySQL by a background thread.
+ * <p>
+ * Records use the {@link MutationLog} format. Appends return once the
+ * record is on disk. Concurrent appenders share fsyncs: one of them forces the file for
+ * everything written so far while the others wait.
+ * <p>
+ * A checkpoint file records how far replay got. On open, records after the checkpoint are
+ * queued for replay and a torn record at the end of the file is cut off. Replay must be
+ * idempotent, since a crash between a commit and its checkpoint replays the batch again.
+ * Writes are validated in full before they are logged, so the database only refuses them
+ * while it is unreachable or busy: every {@link SQLException} is retried, with backoff,
+ * until it succeeds. Only an entry that fails some other way, which no retry can fix, is
+ * set aside in a rejected file.
+ * Once everything is replayed and the file has grown past the compaction size, it is
+ * truncated.
+ * <p>
+ * Saved problems get their ids before they are logged, from blocks reserved in the
+ * database, so no other writer can use them. One spare block is reserved ahead by the
+ * replay thread and kept in a file, so saves only wait on the database when it has run out.
+ * The rest of the block in use is dropped on restart, as some of it may have been handed out.
+ */
+class ProblemJournal {
+    /**
+     * Where the journal is replayed to.
+     */
+    interface Target {
+        void apply(List<MutationLog.Entry> entries) throws SQLException;
+
+        /**
+         * Reserves {@code count} consecutive ids and returns the first.
+         */
+        int reserveIds(int count) throws SQLException;
+
+        /**
+         * Called once for an entry that failed with something other than an SQLException and
+         * was set aside, before it leaves the unreplayed entries.
+         */
+        void rejected(MutationLog.Entry entry, Exception cause);
+    }
+
+    private static final String LOG_FILE = "problems.journal";
+    private static final String CHECKPOINT_FILE = "problems.checkpoint";
+    private static final String REJECTED_FILE = "problems.rejected";
+    private static final String IDS_FILE = "problems.ids";
+    private static final long RETRY_MIN_MS = 500;
+    private static final long RETRY_MAX_MS = 30_000;
+
+    private final Path dir;
+    private final Target target;
+    private final int batchSize;
+    private final int idBlock;
+    private final long compactBytes;
+    private final FileChannel channel;
+
+    // Offsets are logical: they keep growing across truncations; base is the logical offset of byte 0
+    private final Object appendLock = new Object();
+    private long base;
+    private volatile long writtenEnd;
+    private long nextSeq;
+
+    // Ids [nextId, idEnd) are free to hand out, then the spare block [spareId, spareEnd)
+    private final Object idLock = new Object();
+    private int nextId;
+    private int idEnd;
+    private int spareId;
+    private int spareEnd;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private long durableEnd;
+    private boolean syncing;
+
+    // Guarded by this
+    private final ArrayDeque<MutationLog.Entry> pending = new ArrayDeque<>();
+    private long replayedSeq;
+    private volatile boolean closed;
+    private Thread replayer;
+
+    private ProblemJournal(Path dir, Target target, int batchSize, int idBlock, long compactBytes) throws IOException {
+        this.dir = dir;
+        this.target = target;
+        this.batchSize = batchSize;
+        this.idBlock = idBlock;
+        this.compactBytes = compactBytes;
+        Files.createDirectories(dir);
+        this.channel = FileChannel.open(dir.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens (or creates) the journal in {@code dir}, recovers unreplayed records and starts replaying them.
+     */
+    static ProblemJournal open(Path dir, Target target, int batchSize, int idBlock, long compactBytes) throws IOException {
+        ProblemJournal journal = new ProblemJournal(dir, target, batchSize, idBlock, compactBytes);
+        try {
+            journal.recover();
+            journal.loadSpareIds();
+        } catch (IOException | RuntimeException e) {
+            journal.channel.close();
+            throw e;
+        }
+        journal.replayer = new Thread(journal::replayLoop, "codebuddy-journal-replay");
+        journal.replayer.setDaemon(true);
+        journal.replayer.start();
+        return journal;
+    }
+
+    long append(ProblemMutation mutation) throws IOException {
+        MutationLog.Entry entry;
+        synchronized (appendLock) {
+            long seq = nextSeq++;
+            // Copies, so callers changing their objects afterwards can't change what is replayed
+            ProblemMutation copy = new ProblemMutation(mutation.op(),
+                    mutation.problems().stream().map(Problem::new).toList(), List.copyOf(mutation.ids()));
+            ByteBuffer record = ByteBuffer.wrap(MutationLog.encode(seq, copy));
+            long position = writtenEnd - base;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            writtenEnd = base + position;
+            entry = new MutationLog.Entry(seq, copy, writtenEnd);
+            synchronized (this) {
+                pending.addLast(entry);
+                notifyAll();
+            }
+        }
+        awaitDurable(entry.end());
+        return entry.seq();
+    }
+
+    /**
+     * Gives each problem an id from the reserved blocks. Only reserves from the database,
+     * and so waits on it, once both the current and the spare block have run out.
+     */
+    void assignIds(Collection<Problem> problems) throws SQLException {
+        boolean spareTaken = false;
+        synchronized (idLock) {
+            int count = problems.size();
+            if (idEnd - nextId < count) {
+                if (spareEnd - spareId < count) {
+                    int size = Math.max(idBlock, count);
+                    nextId = target.reserveIds(size);
+                    idEnd = nextId + size;
+                } else {
+                    nextId = spareId;
+                    idEnd = spareEnd;
+                    spareId = 0;
+                    spareEnd = 0;
+                    try {
+                        // Before any id is used: a restart must not hand out this block again
+                        saveSpareIds();
+                    } catch (IOException e) {
+                        idEnd = nextId;
+                        throw new SQLException("Failed to update the reserved ids: " + e.getMessage(), e);
+                    }
+                    spareTaken = true;
+                }
+            }
+            for (Problem problem : problems) {
+                problem.setId(nextId++);
+            }
+        }
+        if (spareTaken) {
+            // Wakes the replay thread to reserve the next spare block
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+
+    long lastSeq() {
+        synchronized (appendLock) {
+            return nextSeq - 1;
+        }
+    }
+
+    synchronized int backlog() {
+        return pending.size();
+    }
+
+    /**
+     * The entries not yet replayed, oldest first.
+     */
+    synchronized List<MutationLog.Entry> unreplayed() {
+        return new ArrayList<>(pending);
+    }
+
+    /**
+     * Blocks until every record up to {@code seq} has been replayed (or rejected).
+     */
+    synchronized void awaitReplayed(long seq, long timeoutMillis) throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (replayedSeq < seq) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                throw new SQLException("Timed out waiting for " + pending.size() + " journaled writes to reach the database");
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted waiting for journaled writes", e);
+            }
+        }
+    }
+
+    /**
+     * Stops replay and closes the file. What was replayed but not yet checkpointed is
+     * replayed again on the next open.
+     */
+    void close() throws IOException {
+        closed = true;
+        synchronized (this) {
+            notifyAll();
+        }
+        if (replayer != null) {
+            replayer.interrupt();
+            try {
+                replayer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+    }
+
+    // Group fsync: the first waiter forces everything written so far; later ones ride along
+    private void awaitDurable(long end) throws IOException {
+        syncLock.lock();
+        try {
+            while (durableEnd < end) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = writtenEnd;
+                syncLock.unlock();
+                try {
+                    channel.force(false);
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    synced.signalAll();
+                }
+                durableEnd = Math.max(durableEnd, target);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        long checkpointOffset = 0;
+        long checkpointSeq = 0;
+        Path checkpoint = dir.resolve(CHECKPOINT_FILE);
+        if (Files.exists(checkpoint)) {
+            ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(checkpoint));
+            try {
+                long offset = data.getLong();
+                long seq = data.getLong();
+                if (data.getLong() == MutationLog.checksum(data.array(), 0, 16)) {
+                    checkpointOffset = offset;
+                    checkpointSeq = seq;
+                } else {
+                    System.err.println("Ignoring corrupt journal checkpoint; replaying the whole journal");
+                }
+            } catch (BufferUnderflowException e) {
+                System.err.println("Ignoring truncated journal checkpoint; replaying the whole journal");
+            }
+        }
+
+        ByteBuffer log = MutationLog.readAll(channel, "Journal");
+        long size = log.limit();
+
+        // After a crash between writing the checkpoint and truncating, the checkpoint can point past the end
+        long[] lastSeq = {checkpointSeq};
+        long recoveredFrom = checkpointSeq;
+        int position = MutationLog.scan(log, checkpointOffset <= size ? (int) checkpointOffset : 0, entry -> {
+            lastSeq[0] = Math.max(lastSeq[0], entry.seq());
+            if (entry.seq() > recoveredFrom) {
+                pending.addLast(entry);
+            }
+        });
+        if (position < size) {
+            System.err.println("Truncating " + (size - position) + " bytes of torn or corrupt journal data");
+            channel.truncate(position);
+            channel.force(false);
+        }
+
+        writtenEnd = position;
+        durableEnd = position;
+        nextSeq = lastSeq[0] + 1;
+        replayedSeq = pending.isEmpty() ? lastSeq[0] : pending.peekFirst().seq() - 1;
+        if (!pending.isEmpty()) {
+            System.out.println("Recovered " + pending.size() + " journaled writes to replay");
+        }
+    }
+
+    private void replayLoop() {
+        long backoff = RETRY_MIN_MS;
+        while (!closed) {
+            if (needsSpareIds() && !reserveSpareIds() && backlog() == 0) {
+                backoff = sleep(backoff);
+                continue;
+            }
+            List<MutationLog.Entry> batch = new ArrayList<>();
+            synchronized (this) {
+                while (pending.isEmpty() && !closed && !needsSpareIds()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                int rows = 0;
+                for (MutationLog.Entry entry : pending) {
+                    if (!batch.isEmpty() && rows + entry.mutation().size() > batchSize) {
+                        break;
+                    }
+                    batch.add(entry);
+                    rows += entry.mutation().size();
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            try {
+                try {
+                    target.apply(batch);
+                    markReplayed(batch);
+                } catch (RuntimeException e) {
+                    // Not the database: retrying the same entries would fail the same way forever
+                    replayOneByOne(batch);
+                }
+                backoff = RETRY_MIN_MS;
+                continue;
+            } catch (SQLException | IOException | RuntimeException e) {
+                System.err.println("Journal replay failed, retrying in " + backoff + " ms: " + e.getMessage());
+            }
+            backoff = sleep(backoff);
+        }
+    }
+
+    // Finds the entries that fail and sets them aside; an SQLException stops it for a retry
+    private void replayOneByOne(List<MutationLog.Entry> batch) throws SQLException, IOException {
+        for (MutationLog.Entry entry : batch) {
+            try {
+                target.apply(List.of(entry));
+            } catch (RuntimeException e) {
+                System.err.println("Rejecting journaled " + entry.mutation().op() + " #" + entry.seq() + ": " + e);
+                Files.write(dir.resolve(REJECTED_FILE), MutationLog.encode(entry.seq(), entry.mutation()),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                target.rejected(entry, e);
+            }
+            markReplayed(List.of(entry));
+        }
+    }
+
+    private boolean needsSpareIds() {
+        synchronized (idLock) {
+            return spareEnd == spareId;
+        }
+    }
+
+    // Returns false if the database could not be reached
+    private boolean reserveSpareIds() {
+        int first;
+        try {
+            first = target.reserveIds(idBlock);
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not reserve problem ids, retrying: " + e.getMessage());
+            return false;
+        }
+        synchronized (idLock) {
+            if (spareEnd != spareId) {
+                // A save ran out and reserved its own block meanwhile; this one goes unused
+                return true;
+            }
+            spareId = first;
+            spareEnd = first + idBlock;
+            try {
+                saveSpareIds();
+            } catch (IOException e) {
+                // Still usable in this run; a restart reserves another
+                System.err.println("Failed to save the reserved ids: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private void loadSpareIds() throws IOException {
+        Path file = dir.resolve(IDS_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            int first = data.getInt();
+            int end = data.getInt();
+            if (data.getLong() == MutationLog.checksum(data.array(), 0, 8)
+                    && (first > 0 && end > first || first == 0 && end == 0)) {
+                // 0, 0: the spare block was taken and no other was reserved yet
+                spareId = first;
+                spareEnd = end;
+                return;
+            }
+        } catch (BufferUnderflowException e) {
+            // Treated as corrupt below
+        }
+        System.err.println("Ignoring corrupt reserved ids file; reserving new ids");
+    }
+
+    // Forced to disk: after a crash, an older file could hand out a block that was already used
+    private void saveSpareIds() throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(16);
+        data.putInt(spareId).putInt(spareEnd);
+        data.putLong(MutationLog.checksum(data.array(), 0, 8));
+        Path temp = dir.resolve(IDS_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            data.flip();
+            while (data.hasRemaining()) {
+                out.write(data);
+            }
+            out.force(true);
+        }
+        Files.move(temp, dir.resolve(IDS_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void markReplayed(List<MutationLog.Entry> batch) throws IOException {
+        MutationLog.Entry last = batch.get(batch.size() - 1);
+        synchronized (this) {
+            for (int i = 0; i < batch.size(); i++) {
+                pending.pollFirst();
+            }
+            replayedSeq = last.seq();
+            notifyAll();
+        }
+
+        synchronized (appendLock) {
+            boolean drained;
+            synchronized (this) {
+                drained = pending.isEmpty();
+            }
+            if (drained && writtenEnd - base >= compactBytes) {
+                // Everything is in the database; start the file over
+                writeCheckpoint(0, last.seq());
+                channel.truncate(0);
+                channel.force(false);
+                base = writtenEnd;
+            } else {
+                writeCheckpoint(last.end() - base, last.seq());
+            }
+        }
+    }
+
+    private void writeCheckpoint(long offset, long seq) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(24);
+        data.putLong(offset).putLong(seq);
+        data.putLong(MutationLog.checksum(data.array(), 0, 16));
+        Path target = dir.resolve(CHECKPOINT_FILE);
+        Path temp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+        Files.write(temp, data.array());
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long sleep(long backoff) {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Math.min(RETRY_MAX_MS, backoff * 2);
+    }
+}
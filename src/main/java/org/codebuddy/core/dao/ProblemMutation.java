@@ -0,0 +1,38 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Problem;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One write to the problem set: problems to save or update, or ids to delete.
+ */
+public record ProblemMutation(Op op, List<Problem> problems, List<Integer> ids) {
+    public enum Op { SAVE, UPDATE, DELETE }
+
+    /**
+     * What a mutation changed. Saves only have {@code after}, deletes only {@code before};
+     * for updates both hold the same problems in the same order.
+     */
+    public record Result(Op op, List<Problem> before, List<Problem> after) {}
+
+    public static ProblemMutation save(Collection<Problem> problems) {
+        return new ProblemMutation(Op.SAVE, List.copyOf(problems), List.of());
+    }
+
+    public static ProblemMutation update(Collection<Problem> problems) {
+        return new ProblemMutation(Op.UPDATE, List.copyOf(problems), List.of());
+    }
+
+    public static ProblemMutation delete(Collection<Integer> problemIds) {
+        return new ProblemMutation(Op.DELETE, List.of(), List.copyOf(problemIds));
+    }
+
+    /**
+     * Rows touched: ids for deletes, problems otherwise.
+     */
+    public int size() {
+        return op == Op.DELETE ? ids.size() : problems.size();
+    }
+}
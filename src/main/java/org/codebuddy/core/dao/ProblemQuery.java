@@ -0,0 +1,142 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter, sort and limit criteria for {@link ProblemDao#findProblems(ProblemQuery)}.
+ * Null criteria are not applied. Date ranges are inclusive at the start and exclusive at the end;
+ * time ranges are inclusive at both ends.
+ */
+public record ProblemQuery(
+        Platform platform,
+        Difficulty difficulty,
+        LocalDateTime solvedFrom,
+        LocalDateTime solvedTo,
+        Integer minTimeTaken,
+        Integer maxTimeTaken,
+        SortField sortField,
+        boolean ascending,
+        int limit) {
+
+    public enum SortField {
+        SOLVED_DATE("solved_date"),
+        NAME("name"),
+        PLATFORM("platform"),
+        DIFFICULTY("difficulty"),
+        TIME_TAKEN("time_taken_min");
+
+        private final String column;
+
+        SortField(String column) {
+            this.column = column;
+        }
+
+        String getColumn() {
+            return column;
+        }
+    }
+
+    public ProblemQuery {
+        if (sortField == null) {
+            sortField = SortField.SOLVED_DATE;
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+    }
+
+    /**
+     * Every problem, newest first.
+     */
+    public static ProblemQuery all() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean hasLimit() {
+        return limit > 0;
+    }
+
+    /**
+     * Whether {@code problem} passes this query's filters, for rows that did not come from the database.
+     */
+    public boolean matches(Problem problem) {
+        LocalDateTime solved = problem.getSolvedDate();
+        return (platform == null || platform == problem.getPlatform())
+                && (difficulty == null || difficulty == problem.getDifficulty())
+                && (solvedFrom == null || !solved.isBefore(solvedFrom))
+                && (solvedTo == null || solved.isBefore(solvedTo))
+                && (minTimeTaken == null || problem.getTimeTakenMin() >= minTimeTaken)
+                && (maxTimeTaken == null || problem.getTimeTakenMin() <= maxTimeTaken);
+    }
+
+    public Builder toBuilder() {
+        return new Builder()
+                .platform(platform)
+                .difficulty(difficulty)
+                .solvedBetween(solvedFrom, solvedTo)
+                .timeTakenBetween(minTimeTaken, maxTimeTaken)
+                .sortBy(sortField, ascending)
+                .limit(limit);
+    }
+
+    public static class Builder {
+        private Platform platform;
+        private Difficulty difficulty;
+        private LocalDateTime solvedFrom;
+        private LocalDateTime solvedTo;
+        private Integer minTimeTaken;
+        private Integer maxTimeTaken;
+        private SortField sortField = SortField.SOLVED_DATE;
+        private boolean ascending = false;
+        private int limit = 0;
+
+        public Builder platform(Platform platform) {
+            this.platform = platform;
+            return this;
+        }
+
+        public Builder difficulty(Difficulty difficulty) {
+            this.difficulty = difficulty;
+            return this;
+        }
+
+        public Builder solvedBetween(LocalDateTime from, LocalDateTime to) {
+            this.solvedFrom = from;
+            this.solvedTo = to;
+            return this;
+        }
+
+        public Builder timeTakenBetween(Integer min, Integer max) {
+            this.minTimeTaken = min;
+            this.maxTimeTaken = max;
+            return this;
+        }
+
+        public Builder sortBy(SortField field, boolean ascending) {
+            this.sortField = field;
+            this.ascending = ascending;
+            return this;
+        }
+
+        /**
+         * Maximum number of rows to return; 0 means no limit.
+         */
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public ProblemQuery build() {
+            return new ProblemQuery(platform, difficulty, solvedFrom, solvedTo,
+                    minTimeTaken, maxTimeTaken, sortField, ascending, limit);
+        }
+    }
+}
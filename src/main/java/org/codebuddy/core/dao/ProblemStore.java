@@ -0,0 +1,85 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.models.ProblemAggregate;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where problems are kept. {@link ProblemDao} handles listeners, the write journal and
+ * id assignment, and leaves reading and writing rows to the store picked by
+ * {@code storage.backend}: {@code mysql} (default) or {@code file} for the embedded,
+ * single-user store. Returned problems are the caller's to keep and change.
+ */
+public interface ProblemStore {
+
+    /**
+     * Creates or upgrades whatever the store needs; safe to call more than once.
+     */
+    void initialize() throws SQLException;
+
+    /**
+     * Identifies the data this store holds, e.g. to tell snapshots of different databases apart.
+     */
+    String describe();
+
+    /**
+     * Applies the mutations in order, all or nothing. Saves get new ids unless
+     * {@code keepIds} is set, in which case rows whose id already exists are skipped,
+     * so the same mutations can safely be applied twice. Updates and deletes of missing
+     * ids are skipped.
+     */
+    List<ProblemMutation.Result> apply(List<ProblemMutation> mutations, boolean keepIds) throws SQLException;
+
+    /**
+     * Reserves {@code count} consecutive ids that no other save to this store will use,
+     * and returns the first. Problems given these ids are saved with {@code keepIds}.
+     */
+    int reserveIds(int count) throws SQLException;
+
+    /**
+     * Every problem, newest first.
+     */
+    List<Problem> getAllProblems() throws SQLException;
+
+    int countProblems() throws SQLException;
+
+    /**
+     * Problems by id, in the order requested; missing ids are left out.
+     */
+    Map<Integer, Problem> findByIds(Collection<Integer> problemIds) throws SQLException;
+
+    List<Problem> findProblems(ProblemQuery query) throws SQLException;
+
+    /**
+     * One page of problems passing {@code filter}'s criteria, by solved date then id, descending,
+     * starting after {@code after} (null for the first page). The filter's sort and limit are ignored.
+     */
+    List<Problem> getProblemsPage(ProblemQuery filter, Problem after, int limit) throws SQLException;
+
+    int getProblemsSolvedToday() throws SQLException;
+
+    /**
+     * Consecutive days, ending today, with at least one problem solved.
+     */
+    int getCurrentStreak() throws SQLException;
+
+    /**
+     * Every tag in use, sorted.
+     */
+    List<String> getAllTags() throws SQLException;
+
+    /**
+     * Solved count and time sum per day, platform and difficulty, oldest day first.
+     */
+    List<DailyStat> getDailyStats() throws SQLException;
+
+    /**
+     * Per-platform, per-difficulty and per-day groups.
+     */
+    List<ProblemAggregate> getAggregates() throws SQLException;
+}
@@ -0,0 +1,208 @@
+package org.codebuddy.core.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Applies versioned schema migrations in order and records them in schema_version.
+ * Applied migrations are skipped, so a warm start costs a single query.
+ * Never edit a migration that has shipped; add a new one instead.
+ */
+public class SchemaMigrator {
+    // MySQL error codes
+    private static final int ER_NO_SUCH_TABLE = 1146;
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    /**
+     * A migration step that needs Java, run after the statements. It is not part of the
+     * checksum, so like the statements it must not change once shipped.
+     */
+    @FunctionalInterface
+    interface Step {
+        void run(Connection conn) throws SQLException;
+    }
+
+    record Migration(int version, String description, List<String> statements, Step step) {
+        Migration(int version, String description, List<String> statements) {
+            this(version, description, statements, null);
+        }
+
+        Migration(int version, String description, Step step) {
+            this(version, description, List.of(), step);
+        }
+
+        long checksum() {
+            CRC32 crc = new CRC32();
+            for (String statement : statements) {
+                crc.update(statement.getBytes(StandardCharsets.UTF_8));
+            }
+            return crc.getValue();
+        }
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create problems table", List.of("""
+                CREATE TABLE IF NOT EXISTS problems (
+                    problem_id INT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(255) NOT NULL,
+                    platform VARCHAR(50) NOT NULL,
+                    difficulty VARCHAR(20) NOT NULL,
+                    time_taken_min INT,
+                    solved_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    notes TEXT,
+                    link VARCHAR(500)
+                )
+                """)),
+            new Migration(2, "Index problems for keyset pagination and filters", List.of(
+                    "CREATE INDEX idx_problems_solved ON problems (solved_date, problem_id)",
+                    "CREATE INDEX idx_problems_platform_difficulty ON problems (platform, difficulty, solved_date)",
+                    "CREATE INDEX idx_problems_difficulty ON problems (difficulty, solved_date)",
+                    "CREATE INDEX idx_problems_time ON problems (time_taken_min)")),
+            new Migration(3, "Add sample problems to an empty database", List.of("""
+                INSERT INTO problems (name, platform, difficulty, time_taken_min, solved_date, notes, link)
+                SELECT * FROM (
+                    SELECT 'Two Sum' AS name, 'LEETCODE' AS platform, 'EASY' AS difficulty, 15 AS time_taken_min,
+                           NOW() AS solved_date, 'Classic hashmap problem' AS notes, 'https://leetcode.com/problems/two-sum/' AS link
+                    UNION ALL
+                    SELECT 'Median of Two Sorted Arrays', 'LEETCODE', 'HARD', 60, NOW(), 'Binary search required', 'https://leetcode.com/problems/median-of-two-sorted-arrays/'
+                    UNION ALL
+                    SELECT 'Chef and Strings', 'CODECHEF', 'MEDIUM', 25, NOW(), 'String manipulation', 'https://www.codechef.com/problems/STRINGS'
+                ) AS samples
+                WHERE NOT EXISTS (SELECT 1 FROM problems)
+                """)),
+            new Migration(4, "Create and populate daily stats rollup", List.of("""
+                CREATE TABLE IF NOT EXISTS problem_daily_stats (
+                    solved_day DATE NOT NULL,
+                    platform VARCHAR(50) NOT NULL,
+                    difficulty VARCHAR(20) NOT NULL,
+                    solved_count INT NOT NULL,
+                    time_sum BIGINT NOT NULL,
+                    PRIMARY KEY (solved_day, platform, difficulty)
+                )
+                """,
+                    "DELETE FROM problem_daily_stats",
+                    """
+                INSERT INTO problem_daily_stats (solved_day, platform, difficulty, solved_count, time_sum)
+                SELECT DATE(solved_date), platform, difficulty, COUNT(*), COALESCE(SUM(time_taken_min), 0)
+                FROM problems
+                GROUP BY DATE(solved_date), platform, difficulty
+                """)),
+            new Migration(5, "Create topic tags", List.of("""
+                CREATE TABLE IF NOT EXISTS tags (
+                    tag_id INT AUTO_INCREMENT PRIMARY KEY,
+                    name VARCHAR(100) NOT NULL,
+                    UNIQUE KEY uk_tags_name (name)
+                )
+                """, """
+                CREATE TABLE IF NOT EXISTS problem_tags (
+                    problem_id INT NOT NULL,
+                    tag_id INT NOT NULL,
+                    PRIMARY KEY (problem_id, tag_id),
+                    KEY idx_problem_tags_tag (tag_id, problem_id),
+                    FOREIGN KEY (problem_id) REFERENCES problems (problem_id) ON DELETE CASCADE,
+                    FOREIGN KEY (tag_id) REFERENCES tags (tag_id) ON DELETE CASCADE
+                )
+                """)),
+            new Migration(6, "Create problem id sequence", List.of("""
+                CREATE TABLE IF NOT EXISTS problem_id_sequence (
+                    id TINYINT PRIMARY KEY,
+                    next_id INT NOT NULL
+                )
+                """, """
+                INSERT IGNORE INTO problem_id_sequence (id, next_id)
+                SELECT 1, COALESCE(MAX(problem_id), 0) + 1 FROM problems
+                """)),
+            // V4 grouped the raw strings, so legacy spellings got rollup rows the write path never adjusts
+            new Migration(7, "Rebuild daily stats rollup with normalized platform and difficulty",
+                    DailyStatsDao::rebuild)
+    );
+
+    /**
+     * Brings the schema up to the latest version. Returns the number of migrations applied.
+     */
+    public int migrate() throws SQLException {
+        try (Connection conn = DatabaseManager.getConnection()) {
+            Map<Integer, Long> applied = loadAppliedVersions(conn);
+            int count = 0;
+
+            for (Migration migration : MIGRATIONS) {
+                Long checksum = applied.get(migration.version());
+                if (checksum != null) {
+                    if (checksum != migration.checksum()) {
+                        throw new SQLException("Migration V" + migration.version() + " (" + migration.description() +
+                                ") was changed after it was applied");
+                    }
+                    continue;
+                }
+                apply(conn, migration);
+                count++;
+            }
+
+            if (count > 0) {
+                System.out.println("Applied " + count + " schema migration(s)");
+            }
+            return count;
+        }
+    }
+
+    private Map<Integer, Long> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_NO_SUCH_TABLE) {
+                throw e;
+            }
+            // First run against this database
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("""
+                    CREATE TABLE schema_version (
+                        version INT PRIMARY KEY,
+                        description VARCHAR(255) NOT NULL,
+                        checksum BIGINT NOT NULL,
+                        applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
+            }
+        }
+        return applied;
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : migration.statements()) {
+                try {
+                    stmt.executeUpdate(statement);
+                } catch (SQLException e) {
+                    // Databases created before migrations existed may already have these indexes
+                    if (e.getErrorCode() != ER_DUP_KEYNAME) {
+                        throw new SQLException("Migration V" + migration.version() + " failed: " + e.getMessage(), e);
+                    }
+                }
+            }
+        }
+        if (migration.step() != null) {
+            try {
+                migration.step().run(conn);
+            } catch (SQLException e) {
+                throw new SQLException("Migration V" + migration.version() + " failed: " + e.getMessage(), e);
+            }
+        }
+
+        String sql = "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, migration.version());
+            stmt.setString(2, migration.description());
+            stmt.setLong(3, migration.checksum());
+            stmt.executeUpdate();
+        }
+        System.out.println("Applied migration V" + migration.version() + ": " + migration.description());
+    }
+}
@@ -0,0 +1,210 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Problem;
+import java.sql.*;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Access to the tags and problem_tags tables. Tags are stored once by name and linked
+ * to problems many-to-many; {@link MySqlProblemStore} reads and writes them with the problem rows.
+ */
+public class TagDao {
+    // Length of tags.name
+    public static final int MAX_TAG_LENGTH = 100;
+    // Above this many problems, read every link in one pass instead of by id
+    private static final int FULL_SCAN_THRESHOLD = 2_000;
+
+    public List<String> getAllTags() throws SQLException {
+        return ProblemDao.readStore().getAllTags();
+    }
+
+    /**
+     * Fills in the tags of problems just read from the problems table.
+     */
+    static void attach(Connection conn, Collection<Problem> problems, int chunkSize) throws SQLException {
+        if (problems.isEmpty()) {
+            return;
+        }
+        Map<Integer, Set<String>> tagsById = new HashMap<>();
+        for (Problem problem : problems) {
+            tagsById.put(problem.getId(), new TreeSet<>());
+        }
+
+        if (problems.size() > FULL_SCAN_THRESHOLD) {
+            String sql = "SELECT pt.problem_id, t.name FROM problem_tags pt JOIN tags t ON t.tag_id = pt.tag_id";
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                collect(rs, tagsById);
+            }
+        } else {
+            List<Integer> ids = new ArrayList<>(tagsById.keySet());
+            for (int start = 0; start < ids.size(); start += chunkSize) {
+                List<Integer> chunk = ids.subList(start, Math.min(ids.size(), start + chunkSize));
+                String sql = "SELECT pt.problem_id, t.name FROM problem_tags pt JOIN tags t ON t.tag_id = pt.tag_id " +
+                        "WHERE pt.problem_id IN (" + placeholders(chunk.size()) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        stmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        collect(rs, tagsById);
+                    }
+                }
+            }
+        }
+
+        for (Problem problem : problems) {
+            problem.setTags(tagsById.get(problem.getId()));
+        }
+    }
+
+    /**
+     * Links each problem to its tags, creating tag rows as needed. With {@code replace},
+     * existing links are dropped first. Runs in the caller's transaction. Afterwards each
+     * problem carries the tag names as stored, which may differ from the ones given (a
+     * "café" linked to an existing "cafe" reads back as "cafe").
+     */
+    static void write(Connection conn, Collection<Problem> problems, boolean replace, int batchSize) throws SQLException {
+        if (replace) {
+            try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM problem_tags WHERE problem_id = ?")) {
+                int pending = 0;
+                for (Problem problem : problems) {
+                    stmt.setInt(1, problem.getId());
+                    stmt.addBatch();
+                    if (++pending == batchSize) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    stmt.executeBatch();
+                }
+            }
+        }
+
+        Set<String> names = new TreeSet<>();
+        for (Problem problem : problems) {
+            names.addAll(problem.getTags());
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        checkLengths(names);
+        Map<Integer, String> storedNames = new HashMap<>();
+        Map<String, Integer> tagIds = ensureTags(conn, new ArrayList<>(names), batchSize, storedNames);
+
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO problem_tags (problem_id, tag_id) VALUES (?, ?)")) {
+            int pending = 0;
+            for (Problem problem : problems) {
+                // Tags the collation treats as equal share a row and are linked once
+                Set<Integer> linked = new LinkedHashSet<>();
+                for (String tag : problem.getTags()) {
+                    linked.add(tagIds.get(tag));
+                }
+                List<String> stored = new ArrayList<>(linked.size());
+                for (int tagId : linked) {
+                    stored.add(storedNames.get(tagId));
+                    stmt.setInt(1, problem.getId());
+                    stmt.setInt(2, tagId);
+                    stmt.addBatch();
+                    if (++pending == batchSize) {
+                        stmt.executeBatch();
+                        pending = 0;
+                    }
+                }
+                problem.setTags(stored);
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Rejects tags that don't fit the column, which INSERT IGNORE would otherwise cut short.
+     */
+    static void checkLengths(Collection<String> tags) throws SQLDataException {
+        for (String tag : tags) {
+            if (tag.codePointCount(0, tag.length()) > MAX_TAG_LENGTH) {
+                throw new SQLDataException("Tag is longer than " + MAX_TAG_LENGTH + " characters: " + tag);
+            }
+        }
+    }
+
+    /**
+     * Tag ids by name, creating missing tags. The map is keyed by the names as stored and
+     * compares like the column's case- and accent-insensitive collation, so "Café" finds a
+     * stored "cafe". Fills {@code storedNames} with the stored name of each id.
+     */
+    private static Map<String, Integer> ensureTags(Connection conn, List<String> names, int batchSize,
+                                                   Map<Integer, String> storedNames) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("INSERT IGNORE INTO tags (name) VALUES (?)")) {
+            for (String name : names) {
+                stmt.setString(1, name);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        Map<String, Integer> ids = new TreeMap<>(collator);
+        for (int start = 0; start < names.size(); start += batchSize) {
+            List<String> chunk = names.subList(start, Math.min(names.size(), start + batchSize));
+            String sql = "SELECT tag_id, name FROM tags WHERE name IN (" + placeholders(chunk.size()) + ")";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    stmt.setString(i + 1, chunk.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.put(rs.getString("name"), rs.getInt("tag_id"));
+                        storedNames.put(rs.getInt("tag_id"), rs.getString("name"));
+                    }
+                }
+            }
+        }
+
+        // Where Java's collation differs from MySQL's, let MySQL match the name
+        for (String name : names) {
+            if (ids.containsKey(name)) {
+                continue;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT tag_id, name FROM tags WHERE name = ?")) {
+                stmt.setString(1, name);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        throw new SQLDataException("Tag could not be stored: " + name);
+                    }
+                    ids.put(name, rs.getInt("tag_id"));
+                    storedNames.put(rs.getInt("tag_id"), rs.getString("name"));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void collect(ResultSet rs, Map<Integer, Set<String>> tagsById) throws SQLException {
+        while (rs.next()) {
+            Set<String> tags = tagsById.get(rs.getInt("problem_id"));
+            if (tags != null) {
+                tags.add(rs.getString("name"));
+            }
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
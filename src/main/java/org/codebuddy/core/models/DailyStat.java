@@ -0,0 +1,9 @@
+package org.codebuddy.core.models;
+
+import java.time.LocalDate;
+
+/**
+ * Rolled-up totals for all problems solved on one day with a given platform and difficulty.
+ */
+public record DailyStat(LocalDate day, Platform platform, Difficulty difficulty, int solvedCount, long timeSum) {
+}
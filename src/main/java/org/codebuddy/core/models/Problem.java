@@ -2,7 +2,12 @@ package org.codebuddy.core.models;
 
 import java.time.LocalDateTime;
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Represents a competitive programming problem solved by a user.
@@ -16,6 +21,7 @@ public class Problem implements Serializable {
     private LocalDateTime solvedDate;
     private String notes;
     private String link;
+    private Set<String> tags = new TreeSet<>();
 
     public Problem() {
         // No-argument constructor for placeholder rows
@@ -32,6 +38,12 @@ public class Problem implements Serializable {
         this.link = link;
     }
 
+    public Problem(Problem other) {
+        this(other.id, other.name, other.platform, other.difficulty, other.timeTakenMin,
+             other.solvedDate, other.notes, other.link);
+        this.tags = new TreeSet<>(other.tags);
+    }
+
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
     public String getName() { return name; }
@@ -48,6 +60,25 @@ public class Problem implements Serializable {
     public void setNotes(String notes) { this.notes = notes; }
     public String getLink() { return link; }
     public void setLink(String link) { this.link = link; }
+    public Set<String> getTags() { return Collections.unmodifiableSet(tags); }
+
+    /**
+     * Replaces the tags. Tags are trimmed and lower-cased; blanks are dropped.
+     */
+    public void setTags(Collection<String> tags) {
+        Set<String> normalized = new TreeSet<>();
+        for (String tag : tags) {
+            String value = normalizeTag(tag);
+            if (!value.isEmpty()) {
+                normalized.add(value);
+            }
+        }
+        this.tags = normalized;
+    }
+
+    public static String normalizeTag(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -61,12 +92,13 @@ public class Problem implements Serializable {
                 difficulty == problem.difficulty &&
                 Objects.equals(solvedDate, problem.solvedDate) &&
                 Objects.equals(notes, problem.notes) &&
-                Objects.equals(link, problem.link);
+                Objects.equals(link, problem.link) &&
+                Objects.equals(tags, problem.tags);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, platform, difficulty, timeTakenMin, solvedDate, notes, link);
+        return Objects.hash(id, name, platform, difficulty, timeTakenMin, solvedDate, notes, link, tags);
     }
 
     @Override
@@ -80,6 +112,7 @@ public class Problem implements Serializable {
                 ", solvedDate=" + solvedDate +
                 ", notes='" + notes + '\'' +
                 ", link='" + link + '\'' +
+                ", tags=" + tags +
                 '}';
     }
 }
\ No newline at end of file
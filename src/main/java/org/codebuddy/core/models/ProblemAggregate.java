@@ -0,0 +1,16 @@
+package org.codebuddy.core.models;
+
+import java.time.LocalDate;
+
+/**
+ * One group from an aggregate query over the problems table. Exactly one of
+ * platform, difficulty or day is set, depending on {@link #kind()}.
+ */
+public record ProblemAggregate(Kind kind, Platform platform, Difficulty difficulty, LocalDate day,
+                               int solvedCount, long timeSum, int minTime, int maxTime) {
+    public enum Kind {
+        PLATFORM,
+        DIFFICULTY,
+        DAY
+    }
+}
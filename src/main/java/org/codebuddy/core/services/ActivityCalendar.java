@@ -0,0 +1,127 @@
+package org.codebuddy.core.services;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Per-day solve counts indexed by epoch day, with a bitset of active days.
+ * Streaks and window counts are answered with word-level bit scans instead of walking dates.
+ * Days before 1970-01-01 are not tracked.
+ */
+public class ActivityCalendar {
+    private final BitSet activeDays = new BitSet();
+    private int[] counts = new int[0];
+
+    public synchronized void add(LocalDate day, int solved) {
+        int index = index(day);
+        if (index < 0 || solved == 0) return;
+        ensureCapacity(index);
+        counts[index] = Math.max(0, counts[index] + solved);
+        activeDays.set(index, counts[index] > 0);
+    }
+
+    public void remove(LocalDate day, int solved) {
+        add(day, -solved);
+    }
+
+    public synchronized void clear() {
+        activeDays.clear();
+        counts = new int[0];
+    }
+
+    public synchronized int countOn(LocalDate day) {
+        int index = index(day);
+        return index >= 0 && index < counts.length ? counts[index] : 0;
+    }
+
+    /**
+     * Consecutive active days ending at {@code today}; 0 if nothing was solved today.
+     */
+    public synchronized int currentStreak(LocalDate today) {
+        return runEndingAt(activeDays, index(today));
+    }
+
+    public synchronized int maxStreak() {
+        return longestRun(activeDays);
+    }
+
+    /**
+     * Length of the run of set bits ending at {@code index}, for a bitset indexed by epoch day.
+     */
+    static int runEndingAt(BitSet days, int index) {
+        if (index < 0 || !days.get(index)) return 0;
+        return index - days.previousClearBit(index);
+    }
+
+    static int longestRun(BitSet days) {
+        int best = 0;
+        int start = days.nextSetBit(0);
+        while (start >= 0) {
+            int end = days.nextClearBit(start);
+            best = Math.max(best, end - start);
+            start = days.nextSetBit(end);
+        }
+        return best;
+    }
+
+    /**
+     * Number of days in [from, to] with at least one solve.
+     */
+    public synchronized int activeDaysBetween(LocalDate from, LocalDate to) {
+        int start = Math.max(0, index(from));
+        int end = index(to) + 1;
+        if (end <= start) return 0;
+        return activeDays.get(start, end).cardinality();
+    }
+
+    /**
+     * Problems solved in [from, to].
+     */
+    public synchronized int solvedBetween(LocalDate from, LocalDate to) {
+        int start = Math.max(0, index(from));
+        int end = Math.min(counts.length, index(to) + 1);
+        int total = 0;
+        // Skip straight to active days
+        for (int i = activeDays.nextSetBit(start); i >= 0 && i < end; i = activeDays.nextSetBit(i + 1)) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Solve count per day in [from, to], one entry per day starting at {@code from}.
+     */
+    public synchronized int[] countsBetween(LocalDate from, LocalDate to) {
+        int start = index(from);
+        int[] result = new int[Math.max(0, index(to) - start + 1)];
+        for (int i = activeDays.nextSetBit(Math.max(0, start)); i >= 0 && i - start < result.length;
+             i = activeDays.nextSetBit(i + 1)) {
+            result[i - start] = counts[i];
+        }
+        return result;
+    }
+
+    /**
+     * The first day with a solve, or null if there is none.
+     */
+    public synchronized LocalDate firstActiveDay() {
+        int first = activeDays.nextSetBit(0);
+        return first < 0 ? null : LocalDate.ofEpochDay(first);
+    }
+
+    public synchronized int totalActiveDays() {
+        return activeDays.cardinality();
+    }
+
+    static int index(LocalDate day) {
+        long epochDay = day.toEpochDay();
+        return epochDay > Integer.MAX_VALUE ? -1 : (int) epochDay;
+    }
+
+    private void ensureCapacity(int index) {
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length + counts.length / 2));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.dao.DailyStatsDao;
+import org.codebuddy.core.dao.ProblemChangeListener;
+import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Problem;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Shared in-memory activity calendar, loaded once from the daily rollup and
+ * kept current through ProblemDao change events.
+ */
+public class ActivityService implements ProblemChangeListener {
+    private static ActivityService instance;
+
+    private final ActivityCalendar calendar = new ActivityCalendar();
+    private final DailyStatsDao dailyStatsDao = new DailyStatsDao();
+    private boolean loaded = false;
+
+    private ActivityService() {}
+
+    public static synchronized ActivityService getInstance() {
+        if (instance == null) {
+            instance = new ActivityService();
+        }
+        return instance;
+    }
+
+    /**
+     * The loaded calendar. Loads it from the database on first use.
+     */
+    public synchronized ActivityCalendar getCalendar() throws SQLException {
+        if (!loaded) {
+            // Loaded with writes held off, so none is missed or counted twice
+            try {
+                ProblemDao.loadAndListen(this, () -> {
+                    for (DailyStat stat : dailyStatsDao.getDailyStats()) {
+                        calendar.add(stat.day(), stat.solvedCount());
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                calendar.clear();
+                throw e;
+            }
+            loaded = true;
+        }
+        return calendar;
+    }
+
+    public int getCurrentStreak() throws SQLException {
+        return getCalendar().currentStreak(LocalDate.now());
+    }
+
+    public int getMaxStreak() throws SQLException {
+        return getCalendar().maxStreak();
+    }
+
+    public int getProblemsSolvedToday() throws SQLException {
+        return getCalendar().countOn(LocalDate.now());
+    }
+
+    @Override
+    public void problemsSaved(List<Problem> saved) {
+        for (Problem p : saved) {
+            calendar.add(p.getSolvedDate().toLocalDate(), 1);
+        }
+    }
+
+    @Override
+    public void problemsUpdated(List<Problem> before, List<Problem> after) {
+        for (int i = 0; i < before.size(); i++) {
+            calendar.remove(before.get(i).getSolvedDate().toLocalDate(), 1);
+            calendar.add(after.get(i).getSolvedDate().toLocalDate(), 1);
+        }
+    }
+
+    @Override
+    public void problemsDeleted(List<Problem> deleted) {
+        for (Problem p : deleted) {
+            calendar.remove(p.getSolvedDate().toLocalDate(), 1);
+        }
+    }
+}
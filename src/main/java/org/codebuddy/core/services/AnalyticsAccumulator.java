@@ -0,0 +1,137 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.models.ProblemAggregate;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Collects every analytics figure in a single pass, using counters indexed by enum ordinal
+ * and a bitset of active epoch days. Not thread-safe, but partial results from separate
+ * threads can be combined with {@link #merge}, so it works as a parallel stream collector.
+ */
+public class AnalyticsAccumulator {
+    private static final Platform[] PLATFORMS = Platform.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final int[] platformCounts = new int[PLATFORMS.length];
+    private final int[] difficultyCounts = new int[DIFFICULTIES.length];
+    private final BitSet activeDays = new BitSet();
+    private int total;
+    private long timeSum;
+    // Only known when fed individual problems; the daily rollup has no extremes
+    private int minTime = Integer.MAX_VALUE;
+    private int maxTime = Integer.MIN_VALUE;
+
+    public void accept(Problem problem) {
+        int time = problem.getTimeTakenMin();
+        add(problem.getPlatform(), problem.getDifficulty(), problem.getSolvedDate().toLocalDate(), 1, time);
+        minTime = Math.min(minTime, time);
+        maxTime = Math.max(maxTime, time);
+    }
+
+    /**
+     * Column scan over rows {@code from} (inclusive) to {@code to} (exclusive) of a columnar store.
+     * Reads primitive columns only; call it inside {@link ProblemColumns#read}.
+     */
+    public void acceptRows(ProblemColumns columns, int from, int to) {
+        for (int row = from; row < to; row++) {
+            int time = columns.timeTakenAt(row);
+            platformCounts[columns.platformOrdinalAt(row)]++;
+            difficultyCounts[columns.difficultyOrdinalAt(row)]++;
+            total++;
+            timeSum += time;
+            int dayIndex = columns.solvedEpochDayAt(row);
+            if (dayIndex >= 0) {
+                activeDays.set(dayIndex);
+            }
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+        }
+    }
+
+    public void accept(DailyStat stat) {
+        add(stat.platform(), stat.difficulty(), stat.day(), stat.solvedCount(), stat.timeSum());
+    }
+
+    /**
+     * Adds one database-side group. Totals, time sums and extremes are taken from the
+     * platform groups only, so a full set of groups is counted exactly once.
+     */
+    public void accept(ProblemAggregate aggregate) {
+        switch (aggregate.kind()) {
+            case PLATFORM -> {
+                platformCounts[aggregate.platform().ordinal()] += aggregate.solvedCount();
+                total += aggregate.solvedCount();
+                timeSum += aggregate.timeSum();
+                minTime = Math.min(minTime, aggregate.minTime());
+                maxTime = Math.max(maxTime, aggregate.maxTime());
+            }
+            case DIFFICULTY -> difficultyCounts[aggregate.difficulty().ordinal()] += aggregate.solvedCount();
+            case DAY -> {
+                int dayIndex = ActivityCalendar.index(aggregate.day());
+                if (dayIndex >= 0 && aggregate.solvedCount() > 0) {
+                    activeDays.set(dayIndex);
+                }
+            }
+        }
+    }
+
+    private void add(Platform platform, Difficulty difficulty, LocalDate day, int count, long time) {
+        platformCounts[platform.ordinal()] += count;
+        difficultyCounts[difficulty.ordinal()] += count;
+        total += count;
+        timeSum += time;
+        int dayIndex = ActivityCalendar.index(day);
+        if (dayIndex >= 0 && count > 0) {
+            activeDays.set(dayIndex);
+        }
+    }
+
+    /**
+     * Folds another accumulator into this one. The result is the same as if every row had
+     * been accepted here, in any order.
+     */
+    public AnalyticsAccumulator merge(AnalyticsAccumulator other) {
+        for (int i = 0; i < platformCounts.length; i++) {
+            platformCounts[i] += other.platformCounts[i];
+        }
+        for (int i = 0; i < difficultyCounts.length; i++) {
+            difficultyCounts[i] += other.difficultyCounts[i];
+        }
+        activeDays.or(other.activeDays);
+        total += other.total;
+        timeSum += other.timeSum;
+        minTime = Math.min(minTime, other.minTime);
+        maxTime = Math.max(maxTime, other.maxTime);
+        return this;
+    }
+
+    public AnalyticsSnapshot toSnapshot(LocalDate today) {
+        Map<Platform, Integer> platforms = new EnumMap<>(Platform.class);
+        for (int i = 0; i < platformCounts.length; i++) {
+            if (platformCounts[i] > 0) platforms.put(PLATFORMS[i], platformCounts[i]);
+        }
+        Map<Difficulty, Integer> difficulties = new EnumMap<>(Difficulty.class);
+        for (int i = 0; i < difficultyCounts.length; i++) {
+            if (difficultyCounts[i] > 0) difficulties.put(DIFFICULTIES[i], difficultyCounts[i]);
+        }
+
+        return new AnalyticsSnapshot(
+                total,
+                timeSum,
+                ActivityCalendar.runEndingAt(activeDays, ActivityCalendar.index(today)),
+                ActivityCalendar.longestRun(activeDays),
+                minTime <= maxTime ? OptionalInt.of(minTime) : OptionalInt.empty(),
+                minTime <= maxTime ? OptionalInt.of(maxTime) : OptionalInt.empty(),
+                platforms,
+                difficulties);
+    }
+}
@@ -1,76 +1,121 @@
 package org.codebuddy.core.services;
 
-import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.dao.AnalyticsDao;
+import org.codebuddy.core.dao.DailyStatsDao;
+import org.codebuddy.core.dao.DatabaseManager;
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.ProblemAggregate;
 import org.codebuddy.core.models.Problem;
 import java.sql.SQLException;
-import java.util.*;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.stream.IntStream;
 
 public class AnalyticsService {
-    private final ProblemDao problemDao = new ProblemDao();
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 50_000;
 
-    public Map<String, Object> getAnalytics(int userId) throws SQLException {
-        List<Problem> problems = problemDao.getAllProblemsForUser(userId);
-        Map<String, Object> analytics = new HashMap<>();
-        
-        // Total problems
-        analytics.put("totalProblems", problems.size());
-        
-        // Current and max streak
-        analytics.put("currentStreak", problemDao.getCurrentStreak(userId));
-        analytics.put("maxStreak", calculateMaxStreak(problems));
-        
-        // Platform distribution
-        Map<String, Integer> platformDist = new HashMap<>();
-        for (Problem p : problems) {
-            String platform = p.getPlatform().getDisplayName();
-            platformDist.put(platform, platformDist.getOrDefault(platform, 0) + 1);
-        }
-        analytics.put("platformDistribution", platformDist);
-        
-        // Difficulty distribution
-        Map<String, Integer> difficultyDist = new HashMap<>();
-        for (Problem p : problems) {
-            String difficulty = p.getDifficulty().getDisplayName();
-            difficultyDist.put(difficulty, difficultyDist.getOrDefault(difficulty, 0) + 1);
-        }
-        analytics.put("difficultyDistribution", difficultyDist);
-        
-        // Average time
-        if (!problems.isEmpty()) {
-            double avgTime = problems.stream().mapToInt(Problem::getTimeTakenMin).average().orElse(0.0);
-            analytics.put("averageTime", avgTime);
+    /**
+     * Where analytics are computed. All engines give the same figures, except that
+     * ROLLUP can't report minimum and maximum solve time.
+     */
+    public enum Engine {
+        /** Sum the maintained daily rollup table. */
+        ROLLUP,
+        /** Scan the shared in-memory columnar copy of every problem. */
+        MEMORY,
+        /** Let MySQL group the problems table, in one round trip. */
+        PUSHDOWN
+    }
+
+    private final DailyStatsDao dailyStatsDao = new DailyStatsDao();
+    private final AnalyticsDao analyticsDao = new AnalyticsDao();
+    private final int parallelThreshold =
+            DatabaseManager.getIntSetting("analytics.parallelThreshold", DEFAULT_PARALLEL_THRESHOLD);
+
+    /**
+     * Computes analytics with the engine named by {@code analytics.engine} in config.properties.
+     */
+    public AnalyticsSnapshot getAnalytics(int userId) throws SQLException {
+        return getAnalytics(userId, getConfiguredEngine());
+    }
+
+    public AnalyticsSnapshot getAnalytics(int userId, Engine engine) throws SQLException {
+        AnalyticsAccumulator accumulator = new AnalyticsAccumulator();
+        switch (engine) {
+            case MEMORY:
+                return summarize(ProblemColumnsService.getInstance().getColumns());
+            case PUSHDOWN:
+                for (ProblemAggregate aggregate : analyticsDao.getAggregates()) {
+                    accumulator.accept(aggregate);
+                }
+                break;
+            case ROLLUP:
+            default:
+                // Read the daily rollup rather than every problem
+                for (DailyStat stat : dailyStatsDao.getDailyStats()) {
+                    accumulator.accept(stat);
+                }
+                break;
         }
-        
-        return analytics;
+        return accumulator.toSnapshot(LocalDate.now());
     }
-    
-    private int calculateMaxStreak(List<Problem> problems) {
-        if (problems.isEmpty()) return 0;
-        
-        Set<String> uniqueDates = new HashSet<>();
-        for (Problem p : problems) {
-            uniqueDates.add(p.getSolvedDate().toLocalDate().toString());
+
+    public Engine getConfiguredEngine() {
+        String name = DatabaseManager.getSetting("analytics.engine", Engine.ROLLUP.name());
+        try {
+            return Engine.valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown analytics.engine '" + name + "', using " + Engine.ROLLUP);
+            return Engine.ROLLUP;
         }
-        
-        List<String> sortedDates = new ArrayList<>(uniqueDates);
-        Collections.sort(sortedDates);
-        
-        int maxStreak = 1;
-        int currentStreak = 1;
-        
-        for (int i = 1; i < sortedDates.size(); i++) {
-            String prevDate = sortedDates.get(i - 1);
-            String currDate = sortedDates.get(i);
-            
-            // Check if dates are consecutive
-            if (java.time.LocalDate.parse(currDate).minusDays(1).toString().equals(prevDate)) {
-                currentStreak++;
-                maxStreak = Math.max(maxStreak, currentStreak);
-            } else {
-                currentStreak = 1;
+    }
+
+    /**
+     * Computes analytics for problems already in memory. Collections at or above
+     * {@code analytics.parallelThreshold} are split across the common fork-join pool
+     * and the partial accumulators merged; smaller ones are summed on the calling thread.
+     */
+    public AnalyticsSnapshot summarize(Collection<Problem> problems) {
+        return summarize(problems, problems.size() >= parallelThreshold);
+    }
+
+    /**
+     * Computes analytics with a column scan. Large stores are scanned in slices on the
+     * common fork-join pool, like {@link #summarize(Collection)}.
+     */
+    public AnalyticsSnapshot summarize(ProblemColumns columns) {
+        AnalyticsAccumulator accumulator = columns.read(c -> {
+            int size = c.size();
+            if (size < parallelThreshold) {
+                AnalyticsAccumulator single = new AnalyticsAccumulator();
+                single.acceptRows(c, 0, size);
+                return single;
+            }
+            int slices = Runtime.getRuntime().availableProcessors() * 4;
+            int sliceSize = (size + slices - 1) / slices;
+            return IntStream.range(0, slices).parallel()
+                    .mapToObj(i -> {
+                        AnalyticsAccumulator slice = new AnalyticsAccumulator();
+                        slice.acceptRows(c, Math.min(size, i * sliceSize), Math.min(size, (i + 1) * sliceSize));
+                        return slice;
+                    })
+                    .reduce(AnalyticsAccumulator::merge)
+                    .orElseGet(AnalyticsAccumulator::new);
+        });
+        return accumulator.toSnapshot(LocalDate.now());
+    }
+
+    public AnalyticsSnapshot summarize(Collection<Problem> problems, boolean parallel) {
+        AnalyticsAccumulator accumulator;
+        if (parallel) {
+            accumulator = problems.parallelStream()
+                    .collect(AnalyticsAccumulator::new, AnalyticsAccumulator::accept, AnalyticsAccumulator::merge);
+        } else {
+            accumulator = new AnalyticsAccumulator();
+            for (Problem problem : problems) {
+                accumulator.accept(problem);
             }
         }
-        
-        return maxStreak;
+        return accumulator.toSnapshot(LocalDate.now());
     }
-}
\ No newline at end of file
+}
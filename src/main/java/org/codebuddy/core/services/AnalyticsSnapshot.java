@@ -0,0 +1,38 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Immutable analytics result. Distributions only contain platforms and difficulties with at least one problem.
+ * Minimum and maximum time are empty when there are no problems or the figures came from the daily rollup.
+ */
+public record AnalyticsSnapshot(
+        int totalProblems,
+        long totalTimeMin,
+        int currentStreak,
+        int maxStreak,
+        OptionalInt minTimeMin,
+        OptionalInt maxTimeMin,
+        Map<Platform, Integer> platformDistribution,
+        Map<Difficulty, Integer> difficultyDistribution) {
+
+    public AnalyticsSnapshot {
+        // EnumMap's copy constructor needs the key type, which an empty plain map can't give it
+        Map<Platform, Integer> platforms = new EnumMap<>(Platform.class);
+        platforms.putAll(platformDistribution);
+        platformDistribution = Collections.unmodifiableMap(platforms);
+        Map<Difficulty, Integer> difficulties = new EnumMap<>(Difficulty.class);
+        difficulties.putAll(difficultyDistribution);
+        difficultyDistribution = Collections.unmodifiableMap(difficulties);
+    }
+
+    public double averageTimeMin() {
+        return totalProblems == 0 ? 0.0 : (double) totalTimeMin / totalProblems;
+    }
+}
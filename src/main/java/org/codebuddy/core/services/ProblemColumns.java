@@ -0,0 +1,797 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Column-oriented problem store: one primitive array per field instead of one object per row.
+ * Solved dates are kept as epoch seconds of the local date-time (read as UTC), enums as
+ * ordinals, and notes, links and tags as codes into a shared dictionary, so repeated
+ * values are stored once. Names are nearly always unique and are kept as plain strings.
+ * <p>
+ * Rows are unordered: removing a row moves the last row into its slot. Row accessors,
+ * {@link Row} views and scans must be used inside {@link #read}, which blocks writers.
+ * <p>
+ * Each platform and difficulty keeps a posting list of its rows, so filtering on them
+ * only touches matching rows. Sort orders by {@link SortKey} are built on first use and
+ * then kept current through writes.
+ */
+public class ProblemColumns {
+    /**
+     * Columns rows can be sorted by. Each order is ascending by its column, then by solved
+     * date and id; descending walks it backwards.
+     */
+    public enum SortKey {
+        NAME, PLATFORM, DIFFICULTY, TIME_TAKEN, DATE;
+
+        /**
+         * The same order over Problem objects, ascending.
+         */
+        public Comparator<Problem> comparator() {
+            Comparator<Problem> byDate = Comparator.comparing(Problem::getSolvedDate).thenComparingInt(Problem::getId);
+            return switch (this) {
+                case NAME -> Comparator.comparing(Problem::getName, NAME_ORDER).thenComparing(byDate);
+                case PLATFORM -> Comparator.comparing(Problem::getPlatform).thenComparing(byDate);
+                case DIFFICULTY -> Comparator.comparing(Problem::getDifficulty).thenComparing(byDate);
+                case TIME_TAKEN -> Comparator.comparingInt(Problem::getTimeTakenMin).thenComparing(byDate);
+                case DATE -> byDate;
+            };
+        }
+    }
+
+    private static final Platform[] PLATFORMS = Platform.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    private static final int[] NO_TAGS = new int[0];
+    private static final int NO_ROW = -1;
+    private static final SortKey[] SORT_KEYS = SortKey.values();
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+    // Characters per name sort key, and the bits of the last one
+    private static final int NAME_CHARS = 3;
+    private static final long NAME_CHAR_MASK = 0x1FFFF;
+    // Tied runs up to this long are merge sorted rather than radix sorted deeper
+    private static final int SHORT_NAME_RUN = 32;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private StringDictionary strings = new StringDictionary();
+
+    private int size = 0;
+    private int[] ids;
+    private long[] solvedSeconds;
+    private int[] times;
+    private byte[] platforms;
+    private byte[] difficulties;
+    private String[] names;
+    private int[] notes;
+    private int[] links;
+    private int[][] tags;
+    // Row index by problem id; ids are dense auto-increment keys
+    private int[] rowById = new int[0];
+    // Rows per platform and difficulty ordinal, and each row's slot in its two lists
+    private RowList[] platformRows = newRowLists(PLATFORMS.length);
+    private RowList[] difficultyRows = newRowLists(DIFFICULTIES.length);
+    private int[] platformSlots;
+    private int[] difficultySlots;
+    // Sort orders by SortKey ordinal, null until first used; readers build them under orderLock
+    private final Object orderLock = new Object();
+    private RowOrder[] orders = new RowOrder[SORT_KEYS.length];
+
+    public ProblemColumns() {
+        this(1024);
+    }
+
+    public ProblemColumns(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        ids = new int[capacity];
+        solvedSeconds = new long[capacity];
+        times = new int[capacity];
+        platforms = new byte[capacity];
+        difficulties = new byte[capacity];
+        names = new String[capacity];
+        notes = new int[capacity];
+        links = new int[capacity];
+        tags = new int[capacity][];
+        platformSlots = new int[capacity];
+        difficultySlots = new int[capacity];
+    }
+
+    /**
+     * Adds the problem, or replaces the row with the same id.
+     */
+    public void put(Problem problem) {
+        putRow(problem.getId(), problem.getSolvedDate().toEpochSecond(ZoneOffset.UTC), problem.getTimeTakenMin(),
+                problem.getPlatform().ordinal(), problem.getDifficulty().ordinal(),
+                problem.getName(), problem.getNotes(), problem.getLink(), problem.getTags());
+    }
+
+    /**
+     * Field-by-field form of {@link #put}, for loaders that never build a Problem.
+     */
+    void putRow(int id, long solvedEpochSecond, int timeTakenMin, int platformOrdinal, int difficultyOrdinal,
+                String name, String note, String link, Collection<String> tagNames) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(id);
+            boolean reindex = row == NO_ROW;
+            // Bit per SortKey ordinal: orders the row moves in
+            int reorder = 0;
+            if (reindex) {
+                ensureCapacity(size + 1);
+                row = size++;
+                ids[row] = id;
+                mapId(id, row);
+                reorder = (1 << SORT_KEYS.length) - 1;
+            } else {
+                releaseStrings(row);
+                if (platforms[row] != platformOrdinal || difficulties[row] != difficultyOrdinal) {
+                    unindex(row);
+                    reindex = true;
+                }
+                for (SortKey key : SORT_KEYS) {
+                    if (orders[key.ordinal()] != null && sortKeyChanged(key, row, solvedEpochSecond, timeTakenMin,
+                            platformOrdinal, difficultyOrdinal, name)) {
+                        reorder |= 1 << key.ordinal();
+                    }
+                }
+            }
+            solvedSeconds[row] = solvedEpochSecond;
+            times[row] = timeTakenMin;
+            platforms[row] = (byte) platformOrdinal;
+            difficulties[row] = (byte) difficultyOrdinal;
+            names[row] = name;
+            notes[row] = strings.encode(note);
+            links[row] = strings.encode(link);
+            tags[row] = encodeTags(tagNames);
+            if (reindex) {
+                index(row);
+            }
+            for (SortKey key : SORT_KEYS) {
+                RowOrder order = orders[key.ordinal()];
+                if (order != null && (reorder & (1 << key.ordinal())) != 0) {
+                    if (row == size - 1 && order.size() < size) {
+                        order.insert(row);
+                    } else {
+                        order.update(row);
+                    }
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int problemId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(problemId);
+            if (row == NO_ROW) {
+                return;
+            }
+            releaseStrings(row);
+            unindex(row);
+            for (RowOrder order : orders) {
+                if (order != null) {
+                    order.remove(row);
+                }
+            }
+            int last = --size;
+            if (row != last) {
+                moveRow(last, row);
+            }
+            names[last] = null;
+            tags[last] = null;
+            rowById[problemId] = NO_ROW;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes over the contents of {@code other}, which must not be used afterwards.
+     */
+    public void replaceWith(ProblemColumns other) {
+        lock.writeLock().lock();
+        try {
+            size = other.size;
+            ids = other.ids;
+            solvedSeconds = other.solvedSeconds;
+            times = other.times;
+            platforms = other.platforms;
+            difficulties = other.difficulties;
+            names = other.names;
+            notes = other.notes;
+            links = other.links;
+            tags = other.tags;
+            rowById = other.rowById;
+            strings = other.strings;
+            platformRows = other.platformRows;
+            difficultyRows = other.difficultyRows;
+            platformSlots = other.platformSlots;
+            difficultySlots = other.difficultySlots;
+            orders = new RowOrder[SORT_KEYS.length];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(names, 0, size, null);
+            Arrays.fill(tags, 0, size, null);
+            size = 0;
+            rowById = new int[0];
+            strings.clear();
+            platformRows = newRowLists(PLATFORMS.length);
+            difficultyRows = newRowLists(DIFFICULTIES.length);
+            orders = new RowOrder[SORT_KEYS.length];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code reader} with writers blocked, so row indexes and views stay valid throughout.
+     */
+    public <T> T read(Function<ProblemColumns, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Row holding {@code problemId}, or -1.
+     */
+    public int rowOf(int problemId) {
+        return problemId >= 0 && problemId < rowById.length ? rowById[problemId] : NO_ROW;
+    }
+
+    public int idAt(int row) {
+        return ids[row];
+    }
+
+    public long solvedEpochSecondAt(int row) {
+        return solvedSeconds[row];
+    }
+
+    /**
+     * Solved day as an epoch day, matching {@link ActivityCalendar}'s indexing.
+     */
+    public int solvedEpochDayAt(int row) {
+        return (int) Math.floorDiv(solvedSeconds[row], 86_400L);
+    }
+
+    public LocalDateTime solvedDateAt(int row) {
+        return LocalDateTime.ofEpochSecond(solvedSeconds[row], 0, ZoneOffset.UTC);
+    }
+
+    public int timeTakenAt(int row) {
+        return times[row];
+    }
+
+    public int platformOrdinalAt(int row) {
+        return platforms[row];
+    }
+
+    public int difficultyOrdinalAt(int row) {
+        return difficulties[row];
+    }
+
+    public Platform platformAt(int row) {
+        return PLATFORMS[platforms[row]];
+    }
+
+    public Difficulty difficultyAt(int row) {
+        return DIFFICULTIES[difficulties[row]];
+    }
+
+    public String nameAt(int row) {
+        return names[row];
+    }
+
+    public String notesAt(int row) {
+        return strings.decode(notes[row]);
+    }
+
+    public String linkAt(int row) {
+        return strings.decode(links[row]);
+    }
+
+    public List<String> tagsAt(int row) {
+        List<String> result = new ArrayList<>(tags[row].length);
+        for (int code : tags[row]) {
+            result.add(strings.decode(code));
+        }
+        return result;
+    }
+
+    /**
+     * Rows with the given platform and difficulty, either null for any, in no particular order.
+     * With both set, the shorter posting list is walked and checked against the other column.
+     */
+    public int[] rowsMatching(Platform platform, Difficulty difficulty) {
+        if (platform == null && difficulty == null) {
+            int[] all = new int[size];
+            for (int row = 0; row < size; row++) {
+                all[row] = row;
+            }
+            return all;
+        }
+        if (difficulty == null) {
+            return platformRows[platform.ordinal()].toArray();
+        }
+        if (platform == null) {
+            return difficultyRows[difficulty.ordinal()].toArray();
+        }
+        RowList byPlatform = platformRows[platform.ordinal()];
+        RowList byDifficulty = difficultyRows[difficulty.ordinal()];
+        boolean platformShorter = byPlatform.size <= byDifficulty.size;
+        RowList shorter = platformShorter ? byPlatform : byDifficulty;
+        byte[] other = platformShorter ? difficulties : platforms;
+        byte wanted = (byte) (platformShorter ? difficulty.ordinal() : platform.ordinal());
+        int[] matches = new int[shorter.size];
+        int count = 0;
+        for (int i = 0; i < shorter.size; i++) {
+            int row = shorter.rows[i];
+            if (other[row] == wanted) {
+                matches[count++] = row;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Ids of the rows with the given platform and difficulty (either null for any) whose id
+     * is in {@code problemIds} (null for any), newest first.
+     */
+    public int[] selectIds(Platform platform, Difficulty difficulty, BitSet problemIds) {
+        return selectIds(platform, difficulty, problemIds, SortKey.DATE, false);
+    }
+
+    /**
+     * Like {@link #selectIds(Platform, Difficulty, BitSet)}, in the order of {@code key}.
+     */
+    public int[] selectIds(Platform platform, Difficulty difficulty, BitSet problemIds, SortKey key, boolean ascending) {
+        RowOrder order = order(key);
+        int[] result;
+        int count = 0;
+        if (platform == null && difficulty == null) {
+            result = new int[size];
+            for (int i = 0; i < size; i++) {
+                int id = ids[order.rowAt(ascending ? i : size - 1 - i)];
+                if (problemIds == null || problemIds.get(id)) {
+                    result[count++] = id;
+                }
+            }
+        } else {
+            // Mark each matching row's place in the order, then read the places back in order
+            int[] matches = rowsMatching(platform, difficulty);
+            BitSet places = new BitSet(size);
+            for (int row : matches) {
+                places.set(order.placeOf(row));
+            }
+            result = matches;
+            int place = ascending ? places.nextSetBit(0) : places.previousSetBit(size - 1);
+            while (place >= 0) {
+                int id = ids[order.rowAt(place)];
+                if (problemIds == null || problemIds.get(id)) {
+                    result[count++] = id;
+                }
+                place = ascending ? places.nextSetBit(place + 1) : places.previousSetBit(place - 1);
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Materializes a row as a standalone Problem.
+     */
+    public Problem toProblem(int row) {
+        Problem problem = new Problem(ids[row], nameAt(row), platformAt(row), difficultyAt(row),
+                times[row], solvedDateAt(row), notesAt(row), linkAt(row));
+        problem.setTags(tagsAt(row));
+        return problem;
+    }
+
+    /**
+     * A reusable view positioned at {@code row}; move it with {@link Row#moveTo}.
+     */
+    public Row row(int row) {
+        return new Row(this).moveTo(row);
+    }
+
+    /**
+     * Flyweight over one row: reads straight from the columns, so one instance can walk
+     * the whole store without allocating per row.
+     */
+    public static final class Row {
+        private final ProblemColumns columns;
+        private int row;
+
+        private Row(ProblemColumns columns) {
+            this.columns = columns;
+        }
+
+        public Row moveTo(int row) {
+            if (row < 0 || row >= columns.size) {
+                throw new IndexOutOfBoundsException("Row " + row + " of " + columns.size);
+            }
+            this.row = row;
+            return this;
+        }
+
+        public int index() { return row; }
+        public int getId() { return columns.idAt(row); }
+        public String getName() { return columns.nameAt(row); }
+        public Platform getPlatform() { return columns.platformAt(row); }
+        public Difficulty getDifficulty() { return columns.difficultyAt(row); }
+        public int getTimeTakenMin() { return columns.timeTakenAt(row); }
+        public LocalDateTime getSolvedDate() { return columns.solvedDateAt(row); }
+        public String getNotes() { return columns.notesAt(row); }
+        public String getLink() { return columns.linkAt(row); }
+        public List<String> getTags() { return columns.tagsAt(row); }
+
+        public Problem toProblem() {
+            return columns.toProblem(row);
+        }
+    }
+
+    private int[] encodeTags(Collection<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return NO_TAGS;
+        }
+        int[] codes = new int[tagNames.size()];
+        int i = 0;
+        for (String tag : tagNames) {
+            codes[i++] = strings.encode(tag);
+        }
+        return codes;
+    }
+
+    private void index(int row) {
+        platformSlots[row] = platformRows[platforms[row]].add(row);
+        difficultySlots[row] = difficultyRows[difficulties[row]].add(row);
+    }
+
+    private void unindex(int row) {
+        int moved = platformRows[platforms[row]].removeAt(platformSlots[row]);
+        if (moved != NO_ROW) {
+            platformSlots[moved] = platformSlots[row];
+        }
+        moved = difficultyRows[difficulties[row]].removeAt(difficultySlots[row]);
+        if (moved != NO_ROW) {
+            difficultySlots[moved] = difficultySlots[row];
+        }
+    }
+
+    private RowOrder order(SortKey key) {
+        synchronized (orderLock) {
+            RowOrder order = orders[key.ordinal()];
+            if (order == null) {
+                order = buildOrder(key);
+                orders[key.ordinal()] = order;
+            }
+            return order;
+        }
+    }
+
+    /**
+     * Sorts all rows by {@code key} with primitive sorts: dates and times by radix sort,
+     * platforms and difficulties by counting sort and names by radix sort on a few
+     * characters at a time. Every order but the date order starts from the date order, and
+     * the sorts are stable, so ties stay in date order.
+     */
+    private RowOrder buildOrder(SortKey key) {
+        RowOrder.RowComparator comparator = (a, b) -> compareRows(key, a, b);
+        if (key == SortKey.DATE) {
+            int[] byId = new int[size];
+            int count = 0;
+            for (int row : rowById) {
+                if (row != NO_ROW) {
+                    byId[count++] = row;
+                }
+            }
+            long oldest = Long.MAX_VALUE;
+            for (int row = 0; row < size; row++) {
+                oldest = Math.min(oldest, solvedSeconds[row]);
+            }
+            long[] keys = new long[size];
+            for (int row = 0; row < size; row++) {
+                keys[row] = solvedSeconds[row] - oldest;
+            }
+            return new RowOrder(RowOrder.radixSort(byId, keys), comparator);
+        }
+        RowOrder dates = order(SortKey.DATE);
+        int[] byDate = new int[size];
+        for (int place = 0; place < size; place++) {
+            byDate[place] = dates.rowAt(place);
+        }
+        int[] sorted = switch (key) {
+            case PLATFORM -> RowOrder.countingSort(byDate, platforms, PLATFORMS.length);
+            case DIFFICULTY -> RowOrder.countingSort(byDate, difficulties, DIFFICULTIES.length);
+            case TIME_TAKEN -> {
+                long least = Long.MAX_VALUE;
+                for (int row = 0; row < size; row++) {
+                    least = Math.min(least, times[row]);
+                }
+                long[] keys = new long[size];
+                for (int row = 0; row < size; row++) {
+                    keys[row] = times[row] - least;
+                }
+                yield RowOrder.radixSort(byDate, keys);
+            }
+            case NAME -> sortByName(byDate);
+            case DATE -> byDate;
+        };
+        return new RowOrder(sorted, comparator);
+    }
+
+    /**
+     * Radix sorts rows by name {@value #NAME_CHARS} characters at a time, going deeper only
+     * within runs that still tie, so names sharing a long prefix aren't left to a comparison
+     * sort. Short runs, and the run of null and empty names, are merge sorted on whole names.
+     */
+    private int[] sortByName(int[] byDate) {
+        long[] keys = new long[size];
+        for (int row = 0; row < size; row++) {
+            keys[row] = nameChars(names[row], 0);
+        }
+        int[] sorted = RowOrder.radixSort(byDate, keys);
+        RowOrder.RowComparator byName = (a, b) -> NAME_ORDER.compare(names[a], names[b]);
+        // Runs left to look at, as start, end and the depth their keys were read from
+        ArrayDeque<int[]> runs = new ArrayDeque<>();
+        runs.push(new int[]{0, sorted.length, 0});
+        while (!runs.isEmpty()) {
+            int[] run = runs.pop();
+            int depth = run[2];
+            for (int start = run[0], end; start < run[1]; start = end) {
+                long key = keys[sorted[start]];
+                end = start + 1;
+                while (end < run[1] && keys[sorted[end]] == key) {
+                    end++;
+                }
+                // Names that end within an equal key are equal, and stay in date order
+                boolean ended = (key & NAME_CHAR_MASK) == 0;
+                boolean nullOrEmpty = depth == 0 && key == 0;
+                if (end - start < 2 || (ended && !nullOrEmpty)) {
+                    continue;
+                }
+                int[] tied = Arrays.copyOfRange(sorted, start, end);
+                if (nullOrEmpty || tied.length <= SHORT_NAME_RUN) {
+                    tied = RowOrder.mergeSort(tied, byName);
+                } else {
+                    for (int row : tied) {
+                        keys[row] = nameChars(names[row], depth + NAME_CHARS);
+                    }
+                    tied = RowOrder.radixSort(tied, keys);
+                    runs.push(new int[]{start, end, depth + NAME_CHARS});
+                }
+                System.arraycopy(tied, 0, sorted, start, tied.length);
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * {@value #NAME_CHARS} characters from {@code from} case-folded the way
+     * {@link String#CASE_INSENSITIVE_ORDER} compares them, 17 bits each so a missing
+     * character sorts first.
+     */
+    private static long nameChars(String name, int from) {
+        long key = 0;
+        for (int i = from; i < from + NAME_CHARS; i++) {
+            int folded = name != null && i < name.length()
+                    ? Character.toLowerCase(Character.toUpperCase(name.charAt(i))) + 1
+                    : 0;
+            key = (key << 17) | folded;
+        }
+        return key;
+    }
+
+    private int compareRows(SortKey key, int a, int b) {
+        int result = switch (key) {
+            case NAME -> NAME_ORDER.compare(names[a], names[b]);
+            case PLATFORM -> Byte.compare(platforms[a], platforms[b]);
+            case DIFFICULTY -> Byte.compare(difficulties[a], difficulties[b]);
+            case TIME_TAKEN -> Integer.compare(times[a], times[b]);
+            case DATE -> 0;
+        };
+        if (result == 0) {
+            result = Long.compare(solvedSeconds[a], solvedSeconds[b]);
+        }
+        return result != 0 ? result : Integer.compare(ids[a], ids[b]);
+    }
+
+    /**
+     * Whether writing these values to {@code row} moves it in the order for {@code key}.
+     */
+    private boolean sortKeyChanged(SortKey key, int row, long solvedEpochSecond, int timeTakenMin,
+                                   int platformOrdinal, int difficultyOrdinal, String name) {
+        if (solvedSeconds[row] != solvedEpochSecond) {
+            return true;
+        }
+        return switch (key) {
+            case NAME -> NAME_ORDER.compare(names[row], name) != 0;
+            case PLATFORM -> platforms[row] != platformOrdinal;
+            case DIFFICULTY -> difficulties[row] != difficultyOrdinal;
+            case TIME_TAKEN -> times[row] != timeTakenMin;
+            case DATE -> false;
+        };
+    }
+
+    private void releaseStrings(int row) {
+        strings.release(notes[row]);
+        strings.release(links[row]);
+        for (int code : tags[row]) {
+            strings.release(code);
+        }
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        solvedSeconds[to] = solvedSeconds[from];
+        times[to] = times[from];
+        platforms[to] = platforms[from];
+        difficulties[to] = difficulties[from];
+        names[to] = names[from];
+        notes[to] = notes[from];
+        links[to] = links[from];
+        tags[to] = tags[from];
+        rowById[ids[to]] = to;
+        platformSlots[to] = platformSlots[from];
+        difficultySlots[to] = difficultySlots[from];
+        platformRows[platforms[to]].rows[platformSlots[to]] = to;
+        difficultyRows[difficulties[to]].rows[difficultySlots[to]] = to;
+        for (RowOrder order : orders) {
+            if (order != null) {
+                order.move(from, to);
+            }
+        }
+    }
+
+    private void mapId(int problemId, int row) {
+        if (problemId >= rowById.length) {
+            int oldLength = rowById.length;
+            rowById = Arrays.copyOf(rowById, Math.max(problemId + 1, oldLength * 3 / 2 + 16));
+            Arrays.fill(rowById, oldLength, rowById.length, NO_ROW);
+        }
+        rowById[problemId] = row;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(needed, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        solvedSeconds = Arrays.copyOf(solvedSeconds, capacity);
+        times = Arrays.copyOf(times, capacity);
+        platforms = Arrays.copyOf(platforms, capacity);
+        difficulties = Arrays.copyOf(difficulties, capacity);
+        names = Arrays.copyOf(names, capacity);
+        notes = Arrays.copyOf(notes, capacity);
+        links = Arrays.copyOf(links, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+        platformSlots = Arrays.copyOf(platformSlots, capacity);
+        difficultySlots = Arrays.copyOf(difficultySlots, capacity);
+    }
+
+    private static RowList[] newRowLists(int count) {
+        RowList[] lists = new RowList[count];
+        for (int i = 0; i < count; i++) {
+            lists[i] = new RowList();
+        }
+        return lists;
+    }
+
+    /**
+     * Unordered list of rows. Removing one moves the last entry into its slot.
+     */
+    private static class RowList {
+        private int[] rows = new int[16];
+        private int size = 0;
+
+        /**
+         * Appends the row and returns its slot.
+         */
+        int add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size] = row;
+            return size++;
+        }
+
+        /**
+         * Removes the entry in {@code slot} and returns the row moved into it, or -1.
+         */
+        int removeAt(int slot) {
+            int last = rows[--size];
+            if (slot == size) {
+                return NO_ROW;
+            }
+            rows[slot] = last;
+            return last;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+
+    /**
+     * Reference-counted string table. Code 0 is null; freed codes are reused.
+     */
+    private static class StringDictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] values = new String[64];
+        private int[] refCounts = new int[64];
+        private int[] freeCodes = new int[16];
+        private int freeCount = 0;
+        private int next = 1;
+
+        int encode(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = freeCount > 0 ? freeCodes[--freeCount] : next++;
+                if (code >= values.length) {
+                    values = Arrays.copyOf(values, values.length * 2);
+                    refCounts = Arrays.copyOf(refCounts, refCounts.length * 2);
+                }
+                values[code] = value;
+                codes.put(value, code);
+            }
+            refCounts[code]++;
+            return code;
+        }
+
+        String decode(int code) {
+            return values[code];
+        }
+
+        void release(int code) {
+            if (code == 0 || --refCounts[code] > 0) {
+                return;
+            }
+            codes.remove(values[code]);
+            values[code] = null;
+            if (freeCount == freeCodes.length) {
+                freeCodes = Arrays.copyOf(freeCodes, freeCount * 2);
+            }
+            freeCodes[freeCount++] = code;
+        }
+
+        void clear() {
+            codes.clear();
+            Arrays.fill(values, null);
+            Arrays.fill(refCounts, 0);
+            freeCount = 0;
+            next = 1;
+        }
+    }
+}
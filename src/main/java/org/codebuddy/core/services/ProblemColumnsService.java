@@ -0,0 +1,187 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.dao.DataAccessException;
+import org.codebuddy.core.dao.DatabaseManager;
+import org.codebuddy.core.dao.ProblemChangeListener;
+import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.models.Problem;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared {@link ProblemColumns} copy of the problem table, filled once by streaming it
+ * and then kept current through ProblemDao change events.
+ * <p>
+ * The copy is also saved as a {@link ProblemSnapshot} a few seconds after writes and on
+ * shutdown. {@link #warmStart} loads that snapshot so data can be shown before MySQL is
+ * up; {@link #reconcile} then replaces it with the database's current contents.
+ */
+public class ProblemColumnsService implements ProblemChangeListener {
+    private static final int DEFAULT_WRITE_DELAY_MS = 5_000;
+
+    private static ProblemColumnsService instance;
+
+    private final ProblemColumns columns = new ProblemColumns();
+    private final ProblemDao problemDao = new ProblemDao();
+    private final ProblemSnapshot snapshot = ProblemSnapshot.getDefault();
+    private final ScheduledExecutorService snapshotWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "codebuddy-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+    // Volatile so getColumnsIfLoaded can check them without waiting for a load in progress
+    private volatile boolean loaded = false;
+    private volatile boolean fromSnapshot = false;
+    // Not the service's monitor: listeners run while writes are held, and a load holding the
+    // monitor may be waiting for them
+    private final Object scheduleLock = new Object();
+    private ScheduledFuture<?> pendingWrite;
+
+    private ProblemColumnsService() {}
+
+    public static synchronized ProblemColumnsService getInstance() {
+        if (instance == null) {
+            instance = new ProblemColumnsService();
+        }
+        return instance;
+    }
+
+    /**
+     * The loaded store. Loads it from the database on first use, unless a snapshot was loaded.
+     */
+    public synchronized ProblemColumns getColumns() throws SQLException {
+        if (!loaded && !fromSnapshot) {
+            // Writes are held off while loading, so none is missed or applied twice
+            try {
+                ProblemDao.loadAndListen(this, () -> {
+                    try {
+                        problemDao.streamProblems().forEach(columns::put);
+                    } catch (DataAccessException e) {
+                        throw e.getCause();
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                columns.clear();
+                throw e;
+            }
+            loaded = true;
+        }
+        return columns;
+    }
+
+    /**
+     * The store if it has been loaded from the database or a snapshot, otherwise null.
+     * Never loads or waits.
+     */
+    public ProblemColumns getColumnsIfLoaded() {
+        return loaded || fromSnapshot ? columns : null;
+    }
+
+    /**
+     * Fills the store from the local snapshot, without touching the database.
+     * Returns the store, or null if there is no usable snapshot.
+     */
+    public synchronized ProblemColumns warmStart() {
+        if (loaded || fromSnapshot) {
+            return fromSnapshot ? columns : null;
+        }
+        ProblemColumns saved = snapshot.read();
+        if (saved == null) {
+            return null;
+        }
+        columns.replaceWith(saved);
+        ProblemDao.addChangeListener(this);
+        fromSnapshot = true;
+        System.err.println("Loaded " + columns.size() + " problems from snapshot " + snapshot.getPath());
+        return columns;
+    }
+
+    /**
+     * Replaces snapshot data with the database's current rows and saves a fresh snapshot.
+     * Does nothing if the store was loaded from the database already.
+     */
+    public void reconcile() throws SQLException {
+        synchronized (this) {
+            if (!fromSnapshot) {
+                getColumns();
+                return;
+            }
+        }
+        // Writes are held off until the fresh rows are published, so none is lost in between
+        ProblemDao.loadAndListen(this, () -> {
+            ProblemColumns fresh = new ProblemColumns(Math.max(1024, columns.size()));
+            try {
+                problemDao.streamProblems().forEach(fresh::put);
+            } catch (DataAccessException e) {
+                throw e.getCause();
+            }
+            // fresh goes out of scope here, so nothing else shares the arrays it hands over
+            columns.replaceWith(fresh);
+            loaded = true;
+            fromSnapshot = false;
+            return null;
+        });
+        scheduleSnapshot(0);
+    }
+
+    /**
+     * Writes the snapshot now, if the store holds database-confirmed rows. An unreconciled
+     * snapshot is left alone, so its age keeps counting towards {@code snapshot.maxAgeHours}.
+     */
+    public void saveSnapshot() {
+        synchronized (this) {
+            if (!loaded) {
+                return;
+            }
+        }
+        try {
+            snapshot.write(columns);
+        } catch (IOException e) {
+            System.err.println("Failed to write problem snapshot: " + e.getMessage());
+        }
+    }
+
+    private void scheduleSnapshot(long delayMillis) {
+        synchronized (scheduleLock) {
+            // Several writes in a row produce one snapshot
+            if (pendingWrite != null && !pendingWrite.isDone()) {
+                return;
+            }
+            pendingWrite = snapshotWriter.schedule(this::saveSnapshot, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void changed() {
+        scheduleSnapshot(DatabaseManager.getIntSetting("snapshot.writeDelayMs", DEFAULT_WRITE_DELAY_MS));
+    }
+
+    @Override
+    public void problemsSaved(List<Problem> saved) {
+        for (Problem p : saved) {
+            columns.put(p);
+        }
+        changed();
+    }
+
+    @Override
+    public void problemsUpdated(List<Problem> before, List<Problem> after) {
+        for (Problem p : after) {
+            columns.put(p);
+        }
+        changed();
+    }
+
+    @Override
+    public void problemsDeleted(List<Problem> deleted) {
+        for (Problem p : deleted) {
+            columns.remove(p.getId());
+        }
+        changed();
+    }
+}
@@ -0,0 +1,252 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.dao.DatabaseManager;
+import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary copy of the problem set on local disk, used to show data before MySQL is reachable.
+ * A fixed header (magic, format version, source database, creation time, row count,
+ * payload length and CRC-32) is followed by one record per row. Files are written to a
+ * temporary name and moved into place, one write at a time, and read through a read-only
+ * memory map.
+ * A snapshot from another database, older than {@code snapshot.maxAgeHours}, or failing
+ * any check is ignored.
+ */
+public class ProblemSnapshot {
+    private static final int MAGIC = 0x43425350; // "CBSP"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 48;
+    private static final int DEFAULT_MAX_AGE_HOURS = 168;
+
+    private final Path path;
+    private final long sourceId;
+    private final long maxAgeMillis;
+
+    public ProblemSnapshot(Path path, String source, long maxAgeMillis) {
+        this.path = path;
+        this.sourceId = checksum(source.getBytes(StandardCharsets.UTF_8));
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Snapshot at {@code snapshot.path} (default ~/.codebuddy/problems.snapshot) for the configured store.
+     */
+    public static ProblemSnapshot getDefault() {
+        String defaultPath = Paths.get(System.getProperty("user.home"), ".codebuddy", "problems.snapshot").toString();
+        return new ProblemSnapshot(
+                Paths.get(DatabaseManager.getSetting("snapshot.path", defaultPath)),
+                ProblemDao.getStore().describe(),
+                DatabaseManager.getIntSetting("snapshot.maxAgeHours", DEFAULT_MAX_AGE_HOURS) * 3_600_000L);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Synchronized: the writer thread and the shutdown hook share the temporary file.
+     */
+    public synchronized void write(ProblemColumns columns) throws IOException {
+        Path target = path.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            // Not closed: that would close the channel before the header is written
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+            int rows;
+            try {
+                rows = columns.read(c -> {
+                    try {
+                        writeRows(c, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return c.size();
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(sourceId)
+                    .putLong(System.currentTimeMillis())
+                    .putInt(rows)
+                    .putInt(0)
+                    .putLong(channel.position() - HEADER_SIZE)
+                    .putLong(crc.getValue())
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads the snapshot, or returns null if there is none or it can't be trusted.
+     */
+    public ProblemColumns read() {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                return reject("file is truncated");
+            }
+            if (fileSize > Integer.MAX_VALUE) {
+                return reject("file is too large to map");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+
+            if (buffer.getInt() != MAGIC) {
+                return reject("not a snapshot file");
+            }
+            if (buffer.getInt() != FORMAT_VERSION) {
+                return reject("unsupported format version");
+            }
+            if (buffer.getLong() != sourceId) {
+                return reject("taken from a different database");
+            }
+            long createdAt = buffer.getLong();
+            if (maxAgeMillis > 0 && System.currentTimeMillis() - createdAt > maxAgeMillis) {
+                return reject("older than snapshot.maxAgeHours");
+            }
+            int rows = buffer.getInt();
+            buffer.getInt(); // reserved
+            long payloadLength = buffer.getLong();
+            long expectedCrc = buffer.getLong();
+            if (rows < 0 || payloadLength != fileSize - HEADER_SIZE) {
+                return reject("header does not match file size");
+            }
+
+            ByteBuffer payload = buffer.slice(HEADER_SIZE, (int) payloadLength);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if (crc.getValue() != expectedCrc) {
+                return reject("checksum mismatch");
+            }
+            return readRows(payload, rows);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            // Includes BufferUnderflowException from a payload shorter than its rows claim
+            return reject(e.toString());
+        }
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private static void writeRows(ProblemColumns columns, DataOutputStream out) throws IOException {
+        for (int row = 0; row < columns.size(); row++) {
+            out.writeInt(columns.idAt(row));
+            out.writeLong(columns.solvedEpochSecondAt(row));
+            out.writeInt(columns.timeTakenAt(row));
+            out.writeByte(columns.platformOrdinalAt(row));
+            out.writeByte(columns.difficultyOrdinalAt(row));
+            writeString(out, columns.nameAt(row));
+            writeString(out, columns.notesAt(row));
+            writeString(out, columns.linkAt(row));
+            List<String> tags = columns.tagsAt(row);
+            out.writeShort(tags.size());
+            for (String tag : tags) {
+                writeString(out, tag);
+            }
+        }
+    }
+
+    private ProblemColumns readRows(ByteBuffer payload, int rows) {
+        int platformCount = Platform.values().length;
+        int difficultyCount = Difficulty.values().length;
+        ProblemColumns columns = new ProblemColumns(rows);
+        for (int i = 0; i < rows; i++) {
+            int id = payload.getInt();
+            long solved = payload.getLong();
+            int time = payload.getInt();
+            int platform = payload.get();
+            int difficulty = payload.get();
+            String name = readString(payload);
+            String notes = readString(payload);
+            String link = readString(payload);
+            int tagCount = Short.toUnsignedInt(payload.getShort());
+            List<String> tags = new ArrayList<>(tagCount);
+            for (int t = 0; t < tagCount; t++) {
+                tags.add(readString(payload));
+            }
+            // The CRC matched, so this only trips on a file from a build with different enums
+            if (platform < 0 || platform >= platformCount || difficulty < 0 || difficulty >= difficultyCount) {
+                return reject("unknown platform or difficulty in row " + i);
+            }
+            columns.putRow(id, solved, time, platform, difficulty, name, notes, link, tags);
+        }
+        if (payload.hasRemaining()) {
+            return reject("trailing bytes after " + rows + " rows");
+        }
+        return columns;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private ProblemColumns reject(String reason) {
+        System.err.println("Ignoring problem snapshot " + path + ": " + reason);
+        return null;
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,196 @@
+package org.codebuddy.core.services;
+
+import java.util.Arrays;
+
+/**
+ * One sort order over the rows of a {@link ProblemColumns}: the rows in order and each row's
+ * place in it. Built once with primitive sorts, then kept current as rows are added, moved
+ * and removed, which costs one array shift instead of a re-sort.
+ */
+final class RowOrder {
+
+    /**
+     * Compares two rows by position; must agree with the order the rows were sorted in.
+     */
+    interface RowComparator {
+        int compare(int rowA, int rowB);
+    }
+
+    private final RowComparator comparator;
+    private int[] rows;
+    private int[] places;
+    private int size;
+
+    /**
+     * @param sorted every row, already in order
+     */
+    RowOrder(int[] sorted, RowComparator comparator) {
+        this.comparator = comparator;
+        this.rows = sorted;
+        this.size = sorted.length;
+        this.places = new int[Math.max(16, sorted.length)];
+        for (int place = 0; place < size; place++) {
+            places[sorted[place]] = place;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int rowAt(int place) {
+        return rows[place];
+    }
+
+    int placeOf(int row) {
+        return places[row];
+    }
+
+    /**
+     * Adds a row in its sorted place.
+     */
+    void insert(int row) {
+        int low = search(row);
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size + (size >> 1) + 16);
+        }
+        if (row >= places.length) {
+            places = Arrays.copyOf(places, Math.max(row + 1, places.length + (places.length >> 1)));
+        }
+        System.arraycopy(rows, low, rows, low + 1, size - low);
+        rows[low] = row;
+        size++;
+        renumber(low, size);
+    }
+
+    void remove(int row) {
+        int place = places[row];
+        System.arraycopy(rows, place + 1, rows, place, size - place - 1);
+        size--;
+        renumber(place, size);
+    }
+
+    /**
+     * Moves a row whose values changed to its new place. Only the rows in between shift.
+     */
+    void update(int row) {
+        int from = places[row];
+        System.arraycopy(rows, from + 1, rows, from, size - from - 1);
+        size--;
+        int to = search(row);
+        System.arraycopy(rows, to, rows, to + 1, size - to);
+        rows[to] = row;
+        size++;
+        renumber(Math.min(from, to), Math.max(from, to) + 1);
+    }
+
+    /**
+     * Follows a row moved to another position.
+     */
+    void move(int from, int to) {
+        int place = places[from];
+        rows[place] = to;
+        places[to] = place;
+    }
+
+    private int search(int row) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(rows[mid], row) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void renumber(int from, int to) {
+        for (int place = from; place < to; place++) {
+            places[rows[place]] = place;
+        }
+    }
+
+    /**
+     * Stable LSD radix sort of {@code rows} by {@code keys[row]}, compared as unsigned.
+     * Byte positions where every key has the same value are skipped.
+     */
+    static int[] radixSort(int[] rows, long[] keys) {
+        if (rows.length == 0) {
+            return rows;
+        }
+        long all = 0;
+        for (int row : rows) {
+            all |= keys[row];
+        }
+        int[] from = rows.clone();
+        int[] to = new int[rows.length];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < 64 && (all >>> shift) != 0; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int row : from) {
+                counts[(int) ((keys[row] >>> shift) & 0xFF) + 1]++;
+            }
+            if (counts[(int) ((keys[from[0]] >>> shift) & 0xFF) + 1] == from.length) {
+                continue;
+            }
+            for (int i = 1; i < counts.length; i++) {
+                counts[i] += counts[i - 1];
+            }
+            for (int row : from) {
+                to[counts[(int) ((keys[row] >>> shift) & 0xFF)]++] = row;
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        return from;
+    }
+
+    /**
+     * Stable counting sort of {@code rows} by a small non-negative key such as an enum ordinal.
+     */
+    static int[] countingSort(int[] rows, byte[] keys, int keyCount) {
+        int[] starts = new int[keyCount + 1];
+        for (int row : rows) {
+            starts[keys[row] + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] sorted = new int[rows.length];
+        for (int row : rows) {
+            sorted[starts[keys[row]]++] = row;
+        }
+        return sorted;
+    }
+
+    /**
+     * Stable merge sort of {@code rows}, for keys that don't reduce to numbers.
+     */
+    static int[] mergeSort(int[] rows, RowComparator comparator) {
+        int[] from = rows.clone();
+        int[] to = new int[rows.length];
+        for (int width = 1; width < from.length; width *= 2) {
+            for (int start = 0; start < from.length; start += 2 * width) {
+                int mid = Math.min(start + width, from.length);
+                int end = Math.min(start + 2 * width, from.length);
+                int left = start;
+                int right = mid;
+                for (int out = start; out < end; out++) {
+                    if (left < mid && (right >= end || comparator.compare(from[left], from[right]) <= 0)) {
+                        to[out] = from[left++];
+                    } else {
+                        to[out] = from[right++];
+                    }
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        return from;
+    }
+}
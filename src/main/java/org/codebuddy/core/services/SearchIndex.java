@@ -0,0 +1,318 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Problem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over problem names and notes. Text is split into lower-case word tokens,
+ * each token keeps a sorted list of the problem ids using it in the name and in the notes,
+ * and every token is also indexed by its trigrams. A query term matches tokens equal to it,
+ * starting with it, or (three or more characters) containing it; all terms must match.
+ * Name matches rank above notes matches, and exact above prefix above substring.
+ */
+public class SearchIndex {
+    private static final int EXACT = 4;
+    private static final int PREFIX = 2;
+    private static final int SUBSTRING = 1;
+    // Name hits weigh this much more than notes hits
+    private static final int NAME_FACTOR = 3;
+
+    private final TreeMap<String, Postings> nameTokens = new TreeMap<>();
+    private final TreeMap<String, Postings> noteTokens = new TreeMap<>();
+    private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+    public record Hit(int problemId, int score) {}
+
+    /**
+     * Sorted, growable array of problem ids. Most tokens are rare, so this is far
+     * smaller than a bitset sized to the largest id.
+     */
+    private static class Postings {
+        private int[] ids = new int[2];
+        private int size = 0;
+
+        void add(int id) {
+            // New problems get the highest id, so this is almost always an append
+            int index = size > 0 && ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void orInto(BitSet target) {
+            for (int i = 0; i < size; i++) {
+                target.set(ids[i]);
+            }
+        }
+    }
+
+    public synchronized void add(Problem problem) {
+        for (String token : tokens(problem.getName())) {
+            post(nameTokens, token, problem.getId());
+        }
+        for (String token : tokens(problem.getNotes())) {
+            post(noteTokens, token, problem.getId());
+        }
+    }
+
+    public synchronized void remove(Problem problem) {
+        for (String token : tokens(problem.getName())) {
+            unpost(nameTokens, token, problem.getId());
+        }
+        for (String token : tokens(problem.getNotes())) {
+            unpost(noteTokens, token, problem.getId());
+        }
+    }
+
+    public synchronized void clear() {
+        nameTokens.clear();
+        noteTokens.clear();
+        trigrams.clear();
+    }
+
+    /**
+     * Best {@code limit} matches for {@code query}, highest score first, newer (higher) ids first on ties.
+     */
+    public synchronized List<Hit> search(String query, int limit) {
+        return search(query, limit, null);
+    }
+
+    /**
+     * Like {@link #search(String, int)}, but only among the ids in {@code allowed} (null for
+     * all), so filtering can't push matches out of the top {@code limit}.
+     */
+    public synchronized List<Hit> search(String query, int limit, BitSet allowed) {
+        Set<String> terms = tokens(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Match every term against the vocabulary once, then intersect
+        List<Map<String, Integer>> matchesPerTerm = new ArrayList<>();
+        BitSet candidates = null;
+        for (String term : terms) {
+            Map<String, Integer> matches = matchTokens(term);
+            BitSet termDocs = new BitSet();
+            for (String token : matches.keySet()) {
+                orInto(termDocs, nameTokens.get(token));
+                orInto(termDocs, noteTokens.get(token));
+            }
+            if (candidates == null) {
+                candidates = termDocs;
+                if (allowed != null) {
+                    candidates.and(allowed);
+                }
+            } else {
+                candidates.and(termDocs);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+            matchesPerTerm.add(matches);
+        }
+
+        // Score only the surviving documents, in arrays indexed by id
+        int[] scores = new int[candidates.length()];
+        int[] termScores = new int[scores.length];
+        for (Map<String, Integer> matches : matchesPerTerm) {
+            for (Map.Entry<String, Integer> match : matches.entrySet()) {
+                addScores(termScores, nameTokens.get(match.getKey()), candidates, match.getValue() * NAME_FACTOR);
+                addScores(termScores, noteTokens.get(match.getKey()), candidates, match.getValue());
+            }
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                scores[id] += termScores[id];
+                termScores[id] = 0;
+            }
+        }
+        return topHits(candidates, scores, limit);
+    }
+
+    /**
+     * Every token the trigram index points at; for tests, which check it against the vocabulary.
+     */
+    synchronized Set<String> trigramTokens() {
+        Set<String> tokens = new HashSet<>();
+        for (Set<String> withGram : trigrams.values()) {
+            tokens.addAll(withGram);
+        }
+        return tokens;
+    }
+
+    /**
+     * Lower-case word tokens of {@code text}, without duplicates.
+     */
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    // Vocabulary tokens matching the term, with the best match kind for each
+    private Map<String, Integer> matchTokens(String term) {
+        Map<String, Integer> matches = new HashMap<>();
+        for (TreeMap<String, Postings> tokens : List.of(nameTokens, noteTokens)) {
+            for (String token : tokens.subMap(term, true, term + Character.MAX_VALUE, false).keySet()) {
+                matches.put(token, token.equals(term) ? EXACT : PREFIX);
+            }
+        }
+        if (term.length() >= 3) {
+            Set<String> found = null;
+            for (String gram : trigramsOf(term)) {
+                Set<String> withGram = trigrams.get(gram);
+                if (withGram == null) {
+                    return matches;
+                }
+                if (found == null) {
+                    found = new HashSet<>(withGram);
+                } else {
+                    found.retainAll(withGram);
+                }
+            }
+            // Trigrams can co-occur without being adjacent, so confirm each candidate
+            for (String token : found) {
+                if (token.contains(term)) {
+                    matches.putIfAbsent(token, SUBSTRING);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void post(TreeMap<String, Postings> postings, String token, int id) {
+        Postings ids = postings.get(token);
+        if (ids == null) {
+            boolean known = nameTokens.containsKey(token) || noteTokens.containsKey(token);
+            ids = new Postings();
+            postings.put(token, ids);
+            if (!known) {
+                for (String gram : trigramsOf(token)) {
+                    trigrams.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+                }
+            }
+        }
+        ids.add(id);
+    }
+
+    private void unpost(TreeMap<String, Postings> postings, String token, int id) {
+        Postings ids = postings.get(token);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            postings.remove(token);
+            // Drop the token from the trigram index once neither field uses it
+            if (!nameTokens.containsKey(token) && !noteTokens.containsKey(token)) {
+                for (String gram : trigramsOf(token)) {
+                    Set<String> withGram = trigrams.get(gram);
+                    if (withGram != null && withGram.remove(token) && withGram.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<String> trigramsOf(String token) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            grams.add(token.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private static void orInto(BitSet target, Postings ids) {
+        if (ids != null) {
+            ids.orInto(target);
+        }
+    }
+
+    // Keeps the best match kind per term: a document scores its strongest hit, not every hit
+    private static void addScores(int[] termScores, Postings postings, BitSet candidates, int weight) {
+        if (postings == null) {
+            return;
+        }
+        for (int i = 0; i < postings.size; i++) {
+            int id = postings.ids[i];
+            if (candidates.get(id) && termScores[id] < weight) {
+                termScores[id] = weight;
+            }
+        }
+    }
+
+    /**
+     * Selects the best {@code limit} candidates without sorting them all: scores are small,
+     * so a histogram gives the lowest score that makes the cut.
+     */
+    private static List<Hit> topHits(BitSet candidates, int[] scores, int limit) {
+        int maxScore = 0;
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            maxScore = Math.max(maxScore, scores[id]);
+        }
+        int[] histogram = new int[maxScore + 1];
+        for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+            histogram[scores[id]]++;
+        }
+        int cutoff = maxScore;
+        int kept = histogram[maxScore];
+        while (cutoff > 0 && kept < limit) {
+            kept += histogram[--cutoff];
+        }
+
+        // Newest first, so ties at the cutoff go to higher ids
+        List<Hit> hits = new ArrayList<>(Math.min(limit, candidates.cardinality()));
+        int atCutoff = limit - (kept - histogram[cutoff]);
+        for (int id = candidates.previousSetBit(scores.length - 1); id >= 0; id = candidates.previousSetBit(id - 1)) {
+            int score = scores[id];
+            if (score > cutoff || (score == cutoff && atCutoff-- > 0)) {
+                hits.add(new Hit(id, score));
+            }
+        }
+        hits.sort((a, b) -> a.score() != b.score()
+                ? Integer.compare(b.score(), a.score())
+                : Integer.compare(b.problemId(), a.problemId()));
+        return hits;
+    }
+}
@@ -0,0 +1,90 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.dao.DataAccessException;
+import org.codebuddy.core.dao.ProblemChangeListener;
+import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.models.Problem;
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Shared {@link SearchIndex}, built once by streaming the problem table and then kept
+ * current through ProblemDao change events. Searches never touch the database.
+ */
+public class SearchService implements ProblemChangeListener {
+    private static SearchService instance;
+
+    private final SearchIndex index = new SearchIndex();
+    private final ProblemDao problemDao = new ProblemDao();
+    private boolean loaded = false;
+
+    private SearchService() {}
+
+    public static synchronized SearchService getInstance() {
+        if (instance == null) {
+            instance = new SearchService();
+        }
+        return instance;
+    }
+
+    /**
+     * The loaded index. Loads it from the database on first use.
+     */
+    public synchronized SearchIndex getIndex() throws SQLException {
+        if (!loaded) {
+            // Writes are held off while loading, so none is missed or applied twice
+            try {
+                ProblemDao.loadAndListen(this, () -> {
+                    try {
+                        problemDao.streamProblems().forEach(index::add);
+                    } catch (DataAccessException e) {
+                        throw e.getCause();
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                index.clear();
+                throw e;
+            }
+            loaded = true;
+        }
+        return index;
+    }
+
+    /**
+     * Ids of the best matches for {@code query}, best first.
+     */
+    public List<Integer> search(String query, int limit) throws SQLException {
+        return search(query, limit, null);
+    }
+
+    /**
+     * Ids of the best matches for {@code query} among {@code allowed} (null for all), best first.
+     */
+    public List<Integer> search(String query, int limit, BitSet allowed) throws SQLException {
+        return getIndex().search(query, limit, allowed).stream().map(SearchIndex.Hit::problemId).toList();
+    }
+
+    @Override
+    public void problemsSaved(List<Problem> saved) {
+        for (Problem p : saved) {
+            index.add(p);
+        }
+    }
+
+    @Override
+    public void problemsUpdated(List<Problem> before, List<Problem> after) {
+        for (int i = 0; i < before.size(); i++) {
+            index.remove(before.get(i));
+            index.add(after.get(i));
+        }
+    }
+
+    @Override
+    public void problemsDeleted(List<Problem> deleted) {
+        for (Problem p : deleted) {
+            index.remove(p);
+        }
+    }
+}
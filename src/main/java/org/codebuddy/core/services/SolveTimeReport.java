@@ -0,0 +1,39 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolling solve counts and solve-time distributions, overall and per platform and difficulty.
+ * Breakdown maps only contain entries with at least one problem; the histogram has every bin.
+ */
+public record SolveTimeReport(
+        int solvedLast7Days,
+        int solvedLast30Days,
+        int solvedLast90Days,
+        TimeSketch.Summary overall,
+        List<TimeBin> histogram,
+        Map<Platform, TimeSketch.Summary> byPlatform,
+        Map<Difficulty, TimeSketch.Summary> byDifficulty) {
+
+    /**
+     * Problems solved in {@code [fromMin, toMin)} minutes; the last bin's {@code toMin} is
+     * {@link Integer#MAX_VALUE}.
+     */
+    public record TimeBin(int fromMin, int toMin, long count) {}
+
+    public SolveTimeReport {
+        histogram = List.copyOf(histogram);
+        Map<Platform, TimeSketch.Summary> platforms = new EnumMap<>(Platform.class);
+        platforms.putAll(byPlatform);
+        byPlatform = Collections.unmodifiableMap(platforms);
+        Map<Difficulty, TimeSketch.Summary> difficulties = new EnumMap<>(Difficulty.class);
+        difficulties.putAll(byDifficulty);
+        byDifficulty = Collections.unmodifiableMap(difficulties);
+    }
+}
@@ -0,0 +1,149 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.dao.DataAccessException;
+import org.codebuddy.core.dao.ProblemChangeListener;
+import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps one {@link TimeSketch} per platform and difficulty pair, built once by streaming
+ * the problem table and then updated from ProblemDao change events. Reports merge those
+ * cells, so their cost depends on the number of buckets, not on the number of problems.
+ */
+public class SolveTimeService implements ProblemChangeListener {
+    private static final Platform[] PLATFORMS = Platform.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+    // Lower bounds of the solve-time histogram bins, in minutes
+    private static final int[] HISTOGRAM_BOUNDS = {0, 10, 20, 30, 45, 60, 90, 120, 180};
+
+    private static SolveTimeService instance;
+
+    private final TimeSketch[][] cells = new TimeSketch[PLATFORMS.length][DIFFICULTIES.length];
+    private final ProblemDao problemDao = new ProblemDao();
+    private boolean loaded = false;
+
+    private SolveTimeService() {
+        for (TimeSketch[] row : cells) {
+            for (int d = 0; d < row.length; d++) {
+                row[d] = new TimeSketch();
+            }
+        }
+    }
+
+    public static synchronized SolveTimeService getInstance() {
+        if (instance == null) {
+            instance = new SolveTimeService();
+        }
+        return instance;
+    }
+
+    public SolveTimeReport getReport() throws SQLException {
+        ensureLoaded();
+        ActivityCalendar calendar = ActivityService.getInstance().getCalendar();
+        LocalDate today = LocalDate.now();
+
+        TimeSketch overall = new TimeSketch();
+        Map<Platform, TimeSketch.Summary> byPlatform = new EnumMap<>(Platform.class);
+        Map<Difficulty, TimeSketch.Summary> byDifficulty = new EnumMap<>(Difficulty.class);
+
+        for (Platform platform : PLATFORMS) {
+            TimeSketch merged = new TimeSketch();
+            for (Difficulty difficulty : DIFFICULTIES) {
+                merged.merge(cell(platform, difficulty));
+            }
+            if (merged.count() > 0) {
+                byPlatform.put(platform, merged.summary());
+            }
+            overall.merge(merged);
+        }
+        for (Difficulty difficulty : DIFFICULTIES) {
+            TimeSketch merged = new TimeSketch();
+            for (Platform platform : PLATFORMS) {
+                merged.merge(cell(platform, difficulty));
+            }
+            if (merged.count() > 0) {
+                byDifficulty.put(difficulty, merged.summary());
+            }
+        }
+
+        long[] counts = overall.histogram(HISTOGRAM_BOUNDS);
+        List<SolveTimeReport.TimeBin> histogram = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            int upper = i + 1 < HISTOGRAM_BOUNDS.length ? HISTOGRAM_BOUNDS[i + 1] : Integer.MAX_VALUE;
+            histogram.add(new SolveTimeReport.TimeBin(HISTOGRAM_BOUNDS[i], upper, counts[i]));
+        }
+
+        return new SolveTimeReport(
+                calendar.solvedBetween(today.minusDays(6), today),
+                calendar.solvedBetween(today.minusDays(29), today),
+                calendar.solvedBetween(today.minusDays(89), today),
+                overall.summary(),
+                histogram,
+                byPlatform,
+                byDifficulty);
+    }
+
+    private synchronized void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        try {
+            // Constant memory: one page of problems at a time. Writes are held off meanwhile,
+            // so none is missed or counted twice.
+            ProblemDao.loadAndListen(this, () -> {
+                try {
+                    problemDao.streamProblems().forEach(p -> cell(p).add(p.getTimeTakenMin()));
+                } catch (DataAccessException e) {
+                    throw e.getCause();
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            for (TimeSketch[] row : cells) {
+                for (TimeSketch sketch : row) {
+                    sketch.clear();
+                }
+            }
+            throw e;
+        }
+        loaded = true;
+    }
+
+    private TimeSketch cell(Problem problem) {
+        return cell(problem.getPlatform(), problem.getDifficulty());
+    }
+
+    private TimeSketch cell(Platform platform, Difficulty difficulty) {
+        return cells[platform.ordinal()][difficulty.ordinal()];
+    }
+
+    @Override
+    public void problemsSaved(List<Problem> saved) {
+        for (Problem p : saved) {
+            cell(p).add(p.getTimeTakenMin());
+        }
+    }
+
+    @Override
+    public void problemsUpdated(List<Problem> before, List<Problem> after) {
+        for (int i = 0; i < before.size(); i++) {
+            cell(before.get(i)).remove(before.get(i).getTimeTakenMin());
+            cell(after.get(i)).add(after.get(i).getTimeTakenMin());
+        }
+    }
+
+    @Override
+    public void problemsDeleted(List<Problem> deleted) {
+        for (Problem p : deleted) {
+            cell(p).remove(p.getTimeTakenMin());
+        }
+    }
+}
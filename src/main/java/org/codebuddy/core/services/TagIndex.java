@@ -0,0 +1,176 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Problem;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Inverted index from tag to a bitset of problem ids. Problem ids are auto-increment and
+ * dense, so a plain bitset stays small. Tag filters and per-tag stats are answered by
+ * AND/OR over bitsets (tag, day and slow-solve sets) instead of scanning problems.
+ * Returned bitsets are copies.
+ */
+public class TagIndex {
+    private final Map<String, BitSet> postings = new HashMap<>();
+    private final Map<String, Long> timeSums = new HashMap<>();
+    private final NavigableMap<Long, BitSet> byDay = new TreeMap<>();
+    private final BitSet all = new BitSet();
+    private final BitSet slow = new BitSet();
+    private final Map<Difficulty, Integer> slowMinutes;
+
+    /**
+     * @param slowMinutes per difficulty, solves taking longer than this count as slow
+     */
+    public TagIndex(Map<Difficulty, Integer> slowMinutes) {
+        this.slowMinutes = new EnumMap<>(Difficulty.class);
+        this.slowMinutes.putAll(slowMinutes);
+    }
+
+    public synchronized void add(Problem problem) {
+        int id = problem.getId();
+        all.set(id);
+        byDay.computeIfAbsent(problem.getSolvedDate().toLocalDate().toEpochDay(), d -> new BitSet()).set(id);
+        slow.set(id, isSlow(problem));
+        for (String tag : problem.getTags()) {
+            postings.computeIfAbsent(tag, t -> new BitSet()).set(id);
+            timeSums.merge(tag, (long) problem.getTimeTakenMin(), Long::sum);
+        }
+    }
+
+    public synchronized void remove(Problem problem) {
+        int id = problem.getId();
+        all.clear(id);
+        slow.clear(id);
+        long day = problem.getSolvedDate().toLocalDate().toEpochDay();
+        BitSet dayIds = byDay.get(day);
+        if (dayIds != null) {
+            dayIds.clear(id);
+            if (dayIds.isEmpty()) {
+                byDay.remove(day);
+            }
+        }
+        for (String tag : problem.getTags()) {
+            BitSet ids = postings.get(tag);
+            if (ids == null || !ids.get(id)) {
+                continue;
+            }
+            ids.clear(id);
+            if (ids.isEmpty()) {
+                postings.remove(tag);
+                timeSums.remove(tag);
+            } else {
+                timeSums.merge(tag, (long) -problem.getTimeTakenMin(), Long::sum);
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        timeSums.clear();
+        byDay.clear();
+        all.clear();
+        slow.clear();
+    }
+
+    public synchronized Set<String> tags() {
+        return new TreeSet<>(postings.keySet());
+    }
+
+    /**
+     * Ids of problems carrying every one of {@code tags}; every indexed id if none are given.
+     */
+    public synchronized BitSet matchAll(Collection<String> tags) {
+        BitSet result = (BitSet) all.clone();
+        for (String tag : tags) {
+            BitSet ids = postings.get(Problem.normalizeTag(tag));
+            if (ids == null) {
+                return new BitSet();
+            }
+            result.and(ids);
+        }
+        return result;
+    }
+
+    /**
+     * Ids of problems carrying at least one of {@code tags}.
+     */
+    public synchronized BitSet matchAny(Collection<String> tags) {
+        BitSet result = new BitSet();
+        for (String tag : tags) {
+            BitSet ids = postings.get(Problem.normalizeTag(tag));
+            if (ids != null) {
+                result.or(ids);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Count and average time for {@code tag}, plus how many of its problems solved on or
+     * after {@code since} were slow. Null if the tag is not in use.
+     */
+    public synchronized TagStats stats(String tag, LocalDate since) {
+        String key = Problem.normalizeTag(tag);
+        BitSet ids = postings.get(key);
+        if (ids == null) {
+            return null;
+        }
+        return stats(key, ids, solvedSince(since));
+    }
+
+    /**
+     * Tags with at least {@code minRecent} problems since {@code since}, worst first:
+     * highest slow-solve rate, then highest average time.
+     */
+    public synchronized List<TagStats> weakestTags(LocalDate since, int minRecent, int limit) {
+        BitSet recent = solvedSince(since);
+        List<TagStats> candidates = new ArrayList<>();
+        for (Map.Entry<String, BitSet> entry : postings.entrySet()) {
+            TagStats stats = stats(entry.getKey(), entry.getValue(), recent);
+            if (stats.recentCount() >= Math.max(1, minRecent)) {
+                candidates.add(stats);
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(TagStats::recentSlowRate)
+                .thenComparingDouble(TagStats::averageTimeMin)
+                .reversed()
+                .thenComparing(TagStats::tag));
+        return candidates.size() > limit ? new ArrayList<>(candidates.subList(0, limit)) : candidates;
+    }
+
+    private TagStats stats(String tag, BitSet ids, BitSet recent) {
+        int count = ids.cardinality();
+        BitSet recentIds = (BitSet) ids.clone();
+        recentIds.and(recent);
+        int recentCount = recentIds.cardinality();
+        recentIds.and(slow);
+        return new TagStats(tag, count, (double) timeSums.getOrDefault(tag, 0L) / count,
+                recentCount, recentIds.cardinality());
+    }
+
+    private BitSet solvedSince(LocalDate since) {
+        BitSet result = new BitSet();
+        for (BitSet ids : byDay.tailMap(since.toEpochDay(), true).values()) {
+            result.or(ids);
+        }
+        return result;
+    }
+
+    private boolean isSlow(Problem problem) {
+        Integer limit = slowMinutes.get(problem.getDifficulty());
+        return limit != null && problem.getTimeTakenMin() > limit;
+    }
+}
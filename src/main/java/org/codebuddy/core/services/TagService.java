@@ -0,0 +1,114 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.dao.DataAccessException;
+import org.codebuddy.core.dao.DatabaseManager;
+import org.codebuddy.core.dao.ProblemChangeListener;
+import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Problem;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shared {@link TagIndex}, built once by streaming the problem table and then kept
+ * current through ProblemDao change events.
+ */
+public class TagService implements ProblemChangeListener {
+    private static final int DEFAULT_RECENT_DAYS = 30;
+    private static final int DEFAULT_MIN_RECENT = 3;
+    private static final Map<Difficulty, Integer> DEFAULT_SLOW_MINUTES = Map.of(
+            Difficulty.EASY, 20,
+            Difficulty.MEDIUM, 45,
+            Difficulty.HARD, 90);
+
+    private static TagService instance;
+
+    private final TagIndex index = new TagIndex(loadSlowMinutes());
+    private final ProblemDao problemDao = new ProblemDao();
+    private boolean loaded = false;
+
+    private TagService() {}
+
+    public static synchronized TagService getInstance() {
+        if (instance == null) {
+            instance = new TagService();
+        }
+        return instance;
+    }
+
+    /**
+     * The loaded index. Loads it from the database on first use.
+     */
+    public synchronized TagIndex getIndex() throws SQLException {
+        if (!loaded) {
+            // Writes are held off while loading, so none is missed or applied twice
+            try {
+                ProblemDao.loadAndListen(this, () -> {
+                    try {
+                        problemDao.streamProblems().forEach(index::add);
+                    } catch (DataAccessException e) {
+                        throw e.getCause();
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                index.clear();
+                throw e;
+            }
+            loaded = true;
+        }
+        return index;
+    }
+
+    /**
+     * Ids of problems matching {@code tags}: all of them when {@code matchAll}, otherwise any.
+     */
+    public BitSet filter(Collection<String> tags, boolean matchAll) throws SQLException {
+        return matchAll ? getIndex().matchAll(tags) : getIndex().matchAny(tags);
+    }
+
+    /**
+     * Tags with the highest share of slow solves over the last {@code tags.recentDays} days.
+     */
+    public List<TagStats> getWeakTopics(int limit) throws SQLException {
+        LocalDate since = LocalDate.now().minusDays(DatabaseManager.getIntSetting("tags.recentDays", DEFAULT_RECENT_DAYS) - 1L);
+        return getIndex().weakestTags(since, DatabaseManager.getIntSetting("tags.minRecent", DEFAULT_MIN_RECENT), limit);
+    }
+
+    private static Map<Difficulty, Integer> loadSlowMinutes() {
+        Map<Difficulty, Integer> minutes = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            String key = "tags.slowMinutes." + difficulty.name().toLowerCase(Locale.ROOT);
+            minutes.put(difficulty, DatabaseManager.getIntSetting(key, DEFAULT_SLOW_MINUTES.get(difficulty)));
+        }
+        return minutes;
+    }
+
+    @Override
+    public void problemsSaved(List<Problem> saved) {
+        for (Problem p : saved) {
+            index.add(p);
+        }
+    }
+
+    @Override
+    public void problemsUpdated(List<Problem> before, List<Problem> after) {
+        for (int i = 0; i < before.size(); i++) {
+            index.remove(before.get(i));
+            index.add(after.get(i));
+        }
+    }
+
+    @Override
+    public void problemsDeleted(List<Problem> deleted) {
+        for (Problem p : deleted) {
+            index.remove(p);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.codebuddy.core.services;
+
+/**
+ * Per-tag figures from {@link TagIndex}. "Recent" covers problems solved inside the
+ * window the stats were asked for; a solve is slow when it took longer than the
+ * configured target for its difficulty.
+ */
+public record TagStats(String tag, int count, double averageTimeMin, int recentCount, int recentSlowCount) {
+
+    public double recentSlowRate() {
+        return recentCount == 0 ? 0.0 : (double) recentSlowCount / recentCount;
+    }
+}
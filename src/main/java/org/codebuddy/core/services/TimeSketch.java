@@ -0,0 +1,163 @@
+package org.codebuddy.core.services;
+
+import java.util.Arrays;
+
+/**
+ * Streaming summary of solve times: a fixed-size histogram for quantiles plus
+ * Welford's running mean and variance. Values can be removed as well as added,
+ * and two sketches can be merged, so a sketch can track a changing problem set
+ * without ever revisiting rows.
+ * Times below 256 minutes are counted exactly; larger times fall into buckets
+ * eight per power of two, so quantiles there are within about 12.5%.
+ */
+public class TimeSketch {
+    private static final int EXACT_LIMIT = 256;
+    private static final int SUB_BUCKETS = 8;
+    private static final int EXACT_BITS = Integer.numberOfTrailingZeros(EXACT_LIMIT);
+    private static final int BUCKETS = EXACT_LIMIT + (Integer.SIZE - 1 - EXACT_BITS) * SUB_BUCKETS;
+
+    private final long[] buckets = new long[BUCKETS];
+    private long count;
+    private double mean;
+    private double m2;
+
+    public synchronized void add(int minutes) {
+        int value = Math.max(0, minutes);
+        buckets[bucketOf(value)]++;
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+    }
+
+    public synchronized void remove(int minutes) {
+        int value = Math.max(0, minutes);
+        int bucket = bucketOf(value);
+        if (count == 0 || buckets[bucket] == 0) {
+            return;
+        }
+        buckets[bucket]--;
+        if (--count == 0) {
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        // Welford's update run backwards
+        double previousMean = mean;
+        mean = (mean * (count + 1) - value) / count;
+        m2 = Math.max(0, m2 - (value - mean) * (value - previousMean));
+    }
+
+    /**
+     * Adds all of {@code other}'s values to this sketch.
+     */
+    public void merge(TimeSketch other) {
+        long otherCount;
+        double otherMean;
+        double otherM2;
+        long[] otherBuckets;
+        // Copy first so the two locks are never held together
+        synchronized (other) {
+            otherCount = other.count;
+            otherMean = other.mean;
+            otherM2 = other.m2;
+            otherBuckets = other.buckets.clone();
+        }
+        if (otherCount == 0) {
+            return;
+        }
+        synchronized (this) {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] += otherBuckets[i];
+            }
+            // Chan et al. pairwise combination
+            long combined = count + otherCount;
+            double delta = otherMean - mean;
+            mean += delta * otherCount / combined;
+            m2 += otherM2 + delta * delta * count * otherCount / combined;
+            count = combined;
+        }
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        mean = 0;
+        m2 = 0;
+    }
+
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * Value at quantile {@code q} (0..1), or 0 for an empty sketch. Walks the buckets, never the rows.
+     */
+    public synchronized int quantile(double q) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return valueOf(i);
+            }
+        }
+        return valueOf(BUCKETS - 1);
+    }
+
+    /**
+     * Counts per bin: bin {@code i} holds values from {@code bounds[i]} up to the next bound,
+     * the last bin everything from the last bound up. Above 256 minutes a bucket is counted
+     * in the bin holding its midpoint.
+     */
+    public synchronized long[] histogram(int[] bounds) {
+        long[] bins = new long[bounds.length];
+        int bin = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (buckets[i] == 0) {
+                continue;
+            }
+            int value = valueOf(i);
+            while (bin + 1 < bounds.length && value >= bounds[bin + 1]) {
+                bin++;
+            }
+            bins[bin] += buckets[i];
+        }
+        return bins;
+    }
+
+    public synchronized Summary summary() {
+        double variance = count > 1 ? m2 / (count - 1) : 0.0;
+        return new Summary(count, mean, Math.sqrt(variance), quantile(0.5), quantile(0.9), quantile(0.99));
+    }
+
+    /**
+     * Point-in-time view of a sketch. Percentiles are in minutes.
+     */
+    public record Summary(long count, double mean, double stdDev, int p50, int p90, int p99) {}
+
+    private static int bucketOf(int value) {
+        if (value < EXACT_LIMIT) {
+            return value;
+        }
+        int exponent = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value);
+        int subBucket = (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return EXACT_LIMIT + (exponent - EXACT_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    // Midpoint of the bucket's value range
+    private static int valueOf(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int offset = bucket - EXACT_LIMIT;
+        int exponent = offset / SUB_BUCKETS + EXACT_BITS;
+        int subBucket = offset % SUB_BUCKETS;
+        long low = (1L << exponent) + ((long) subBucket << (exponent - 3));
+        long width = 1L << (exponent - 3);
+        return (int) Math.min(Integer.MAX_VALUE, low + width / 2);
+    }
+}
@@ -1,30 +1,33 @@
 package org.codebuddy.gui;
 
-import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.dao.AsyncProblemDao;
 import org.codebuddy.core.models.*;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 
 public class AddProblemDialog extends JDialog {
-    private ProblemDao problemDao;
+    private AsyncProblemDao asyncDao;
     private int userId;
     private boolean success = false;
+    private Problem savedProblem;
     
     private JTextField nameField;
     private JComboBox<Platform> platformCombo;
     private JComboBox<Difficulty> difficultyCombo;
     private JTextField timeField;
+    private JTextField tagsField;
     private JTextArea notesArea;
     private JTextField linkField;
+    private JButton saveButton;
 
     public AddProblemDialog(JFrame parent, int userId) {
         super(parent, "Add New Problem", true);
-        this.problemDao = new ProblemDao();
+        this.asyncDao = new AsyncProblemDao();
         this.userId = userId;
         
         initializeComponents();
@@ -32,7 +35,7 @@ public class AddProblemDialog extends JDialog {
     }
 
     private void initializeComponents() {
-        setSize(400, 500);
+        setSize(420, 540);
         setLocationRelativeTo(getParent());
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 
@@ -40,6 +43,7 @@ public class AddProblemDialog extends JDialog {
         platformCombo = new JComboBox<>(Platform.values());
         difficultyCombo = new JComboBox<>(Difficulty.values());
         timeField = new JTextField(10);
+        tagsField = new JTextField(20);
         notesArea = new JTextArea(5, 20);
         notesArea.setLineWrap(true);
         notesArea.setWrapStyleWord(true);
@@ -78,14 +82,20 @@ public class AddProblemDialog extends JDialog {
         gbc.gridx = 1;
         formPanel.add(timeField, gbc);
 
-        // Link
+        // Tags
         gbc.gridx = 0; gbc.gridy = 4;
+        formPanel.add(new JLabel("Tags (comma separated):"), gbc);
+        gbc.gridx = 1;
+        formPanel.add(tagsField, gbc);
+
+        // Link
+        gbc.gridx = 0; gbc.gridy = 5;
         formPanel.add(new JLabel("Problem Link:"), gbc);
         gbc.gridx = 1;
         formPanel.add(linkField, gbc);
 
         // Notes
-        gbc.gridx = 0; gbc.gridy = 5;
+        gbc.gridx = 0; gbc.gridy = 6;
         gbc.anchor = GridBagConstraints.NORTHWEST;
         formPanel.add(new JLabel("Notes:"), gbc);
         gbc.gridx = 1;
@@ -96,7 +106,7 @@ public class AddProblemDialog extends JDialog {
 
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout());
-        JButton saveButton = new JButton("Save");
+        saveButton = new JButton("Save");
         JButton cancelButton = new JButton("Cancel");
         
         saveButton.addActionListener(new ActionListener() {
@@ -114,48 +124,58 @@ public class AddProblemDialog extends JDialog {
     }
 
     private void saveProblem() {
+        // Validate input
+        if (nameField.getText().trim().isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Problem name is required!", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        
+        int timeTaken;
         try {
-            // Validate input
-            if (nameField.getText().trim().isEmpty()) {
-                JOptionPane.showMessageDialog(this, "Problem name is required!", "Validation Error", JOptionPane.ERROR_MESSAGE);
-                return;
+            timeTaken = Integer.parseInt(timeField.getText().trim());
+            if (timeTaken <= 0) {
+                throw new NumberFormatException();
             }
-            
-            int timeTaken;
-            try {
-                timeTaken = Integer.parseInt(timeField.getText().trim());
-                if (timeTaken <= 0) {
-                    throw new NumberFormatException();
-                }
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(this, "Please enter a valid positive number for time taken!", "Validation Error", JOptionPane.ERROR_MESSAGE);
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid positive number for time taken!", "Validation Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        // Create problem object
+        Problem problem = new Problem();
+        problem.setName(nameField.getText().trim());
+        problem.setPlatform((Platform) platformCombo.getSelectedItem());
+        problem.setDifficulty((Difficulty) difficultyCombo.getSelectedItem());
+        problem.setTimeTakenMin(timeTaken);
+        problem.setSolvedDate(LocalDateTime.now());
+        problem.setNotes(notesArea.getText().trim());
+        problem.setLink(linkField.getText().trim());
+        problem.setTags(Arrays.asList(tagsField.getText().split(",")));
+
+        // Save to database off the event thread
+        saveButton.setEnabled(false);
+        asyncDao.saveProblem(problem).whenCompleteAsync((saved, error) -> {
+            saveButton.setEnabled(true);
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Error saving problem: " + AsyncProblemDao.rootCause(error).getMessage(), 
+                                            "Database Error", JOptionPane.ERROR_MESSAGE);
                 return;
             }
-
-            // Create problem object
-            Problem problem = new Problem();
-            problem.setName(nameField.getText().trim());
-            problem.setPlatform((Platform) platformCombo.getSelectedItem());
-            problem.setDifficulty((Difficulty) difficultyCombo.getSelectedItem());
-            problem.setTimeTakenMin(timeTaken);
-            problem.setSolvedDate(LocalDateTime.now());
-            problem.setNotes(notesArea.getText().trim());
-            problem.setLink(linkField.getText().trim());
-
-            // Save to database
-            problemDao.saveProblem(problem);
-            
             success = true;
+            savedProblem = saved;
             JOptionPane.showMessageDialog(this, "Problem saved successfully!");
             dispose();
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error saving problem: " + e.getMessage(), 
-                                        "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        }, SwingUtilities::invokeLater);
     }
 
     public boolean isSuccess() {
         return success;
     }
+
+    /**
+     * The problem as saved, with its new id; null unless {@link #isSuccess()}.
+     */
+    public Problem getSavedProblem() {
+        return savedProblem;
+    }
 }
@@ -1,84 +1,219 @@
 package org.codebuddy.gui;
 
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.services.ActivityCalendar;
+import org.codebuddy.core.services.AnalyticsSnapshot;
+import org.codebuddy.core.services.SolveTimeReport;
+import org.codebuddy.core.services.TagStats;
+import org.codebuddy.core.services.TimeSketch;
+
 import javax.swing.*;
 import java.awt.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Charts and figures for all solved problems. The dialog is kept and refilled with
+ * {@link #update} each time it is opened; charts whose data didn't change keep their images.
+ */
 public class AnalyticsDialog extends JDialog {
-    private Map<String, Object> analytics;
-
-    public AnalyticsDialog(JFrame parent, Map<String, Object> analytics) {
+    private static final String LAST_YEAR = "Last 12 months";
+
+    private final JPanel summaryPanel = new JPanel(new GridLayout(2, 4, 10, 4));
+    private final BarChartPanel platformChart = new BarChartPanel("Problems by Platform", new Color(0x4285F4));
+    private final BarChartPanel difficultyChart = new BarChartPanel("Problems by Difficulty", new Color(0xF4B400));
+    private final BarChartPanel timeChart = new BarChartPanel("Solve Time (min)", new Color(0x0F9D58));
+    private final CalendarHeatmapPanel heatmap = new CalendarHeatmapPanel();
+    private final JComboBox<String> yearCombo = new JComboBox<>();
+    private final JLabel heatmapTotal = new JLabel();
+    private final JPanel detailsPanel = new JPanel();
+    private ActivityCalendar calendar;
+
+    public AnalyticsDialog(JFrame parent) {
         super(parent, "Analytics Dashboard", true);
-        this.analytics = analytics;
-        
+
         initializeComponents();
         setupLayout();
     }
 
     private void initializeComponents() {
-        setSize(500, 400);
+        setSize(900, 750);
         setLocationRelativeTo(getParent());
-        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+        setDefaultCloseOperation(HIDE_ON_CLOSE);
+        detailsPanel.setLayout(new BoxLayout(detailsPanel, BoxLayout.Y_AXIS));
+        yearCombo.addActionListener(e -> showYear());
     }
 
-    @SuppressWarnings("unchecked")
     private void setupLayout() {
         setLayout(new BorderLayout());
 
-        JPanel contentPanel = new JPanel();
-        contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
-        contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        // Total Problems
-        Integer totalProblems = (Integer) analytics.get("totalProblems");
-        contentPanel.add(createStatLabel("Total Problems Solved: " + (totalProblems != null ? totalProblems : 0)));
-        contentPanel.add(Box.createVerticalStrut(10));
-
-        // Current Streak
-        Integer currentStreak = (Integer) analytics.get("currentStreak");
-        contentPanel.add(createStatLabel("Current Streak: " + (currentStreak != null ? currentStreak : 0) + " days"));
-        contentPanel.add(Box.createVerticalStrut(10));
-
-        // Max Streak
-        Integer maxStreak = (Integer) analytics.get("maxStreak");
-        contentPanel.add(createStatLabel("Maximum Streak: " + (maxStreak != null ? maxStreak : 0) + " days"));
-        contentPanel.add(Box.createVerticalStrut(15));
-
-        // Platform Distribution
-        contentPanel.add(createSectionLabel("Platform Distribution:"));
-        Map<String, Integer> platformStats = (Map<String, Integer>) analytics.get("platformDistribution");
-        if (platformStats != null) {
-            for (Map.Entry<String, Integer> entry : platformStats.entrySet()) {
-                contentPanel.add(createStatLabel("  " + entry.getKey() + ": " + entry.getValue() + " problems"));
-            }
+        summaryPanel.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        add(summaryPanel, BorderLayout.NORTH);
+
+        JPanel chartsPanel = new JPanel(new GridLayout(1, 3, 10, 0));
+        chartsPanel.add(platformChart);
+        chartsPanel.add(difficultyChart);
+        chartsPanel.add(timeChart);
+
+        JPanel heatmapHeader = new JPanel(new BorderLayout());
+        heatmapHeader.add(createSectionLabel("Activity"), BorderLayout.WEST);
+        JPanel heatmapControls = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        heatmapControls.add(heatmapTotal);
+        heatmapControls.add(yearCombo);
+        heatmapHeader.add(heatmapControls, BorderLayout.EAST);
+        JPanel heatmapPanel = new JPanel(new BorderLayout(0, 5));
+        heatmapPanel.add(heatmapHeader, BorderLayout.NORTH);
+        heatmapPanel.add(heatmap, BorderLayout.CENTER);
+
+        JScrollPane detailsScroll = new JScrollPane(detailsPanel);
+        detailsScroll.setPreferredSize(new Dimension(0, 180));
+        detailsScroll.setBorder(BorderFactory.createEmptyBorder());
+
+        JPanel lowerPanel = new JPanel(new BorderLayout(0, 10));
+        lowerPanel.add(heatmapPanel, BorderLayout.NORTH);
+        lowerPanel.add(detailsScroll, BorderLayout.CENTER);
+
+        JPanel contentPanel = new JPanel(new BorderLayout(0, 10));
+        contentPanel.setBorder(BorderFactory.createEmptyBorder(0, 20, 10, 20));
+        contentPanel.add(chartsPanel, BorderLayout.CENTER);
+        contentPanel.add(lowerPanel, BorderLayout.SOUTH);
+        add(contentPanel, BorderLayout.CENTER);
+
+        // Close button
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(e -> setVisible(false));
+        buttonPanel.add(closeButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Shows new figures. Charts are only redrawn where their data changed.
+     */
+    public void update(AnalyticsSnapshot analytics, SolveTimeReport solveTimes, List<TagStats> weakTopics,
+                       ActivityCalendar calendar) {
+        this.calendar = calendar;
+
+        summaryPanel.removeAll();
+        summaryPanel.add(createStatLabel("Total Problems Solved: " + analytics.totalProblems()));
+        summaryPanel.add(createStatLabel("Current Streak: " + analytics.currentStreak() + " days"));
+        summaryPanel.add(createStatLabel("Maximum Streak: " + analytics.maxStreak() + " days"));
+        summaryPanel.add(createStatLabel(analytics.totalProblems() > 0
+                ? "Average Time: " + String.format("%.1f", analytics.averageTimeMin()) + " min"
+                : "Average Time: -"));
+        summaryPanel.add(createStatLabel("Last 7 days: " + solveTimes.solvedLast7Days()));
+        summaryPanel.add(createStatLabel("Last 30 days: " + solveTimes.solvedLast30Days()));
+        summaryPanel.add(createStatLabel("Last 90 days: " + solveTimes.solvedLast90Days()));
+        summaryPanel.revalidate();
+
+        Platform[] platforms = Platform.values();
+        List<String> platformLabels = new ArrayList<>();
+        long[] platformCounts = new long[platforms.length];
+        for (Platform platform : platforms) {
+            platformCounts[platformLabels.size()] = analytics.platformDistribution().getOrDefault(platform, 0);
+            platformLabels.add(platform.getDisplayName());
         }
-        contentPanel.add(Box.createVerticalStrut(15));
-
-        // Difficulty Distribution
-        contentPanel.add(createSectionLabel("Difficulty Distribution:"));
-        Map<String, Integer> difficultyStats = (Map<String, Integer>) analytics.get("difficultyDistribution");
-        if (difficultyStats != null) {
-            for (Map.Entry<String, Integer> entry : difficultyStats.entrySet()) {
-                contentPanel.add(createStatLabel("  " + entry.getKey() + ": " + entry.getValue() + " problems"));
+        platformChart.setData(platformLabels, platformCounts);
+
+        Difficulty[] difficulties = Difficulty.values();
+        List<String> difficultyLabels = new ArrayList<>();
+        long[] difficultyCounts = new long[difficulties.length];
+        for (Difficulty difficulty : difficulties) {
+            difficultyCounts[difficultyLabels.size()] = analytics.difficultyDistribution().getOrDefault(difficulty, 0);
+            difficultyLabels.add(difficulty.getDisplayName());
+        }
+        difficultyChart.setData(difficultyLabels, difficultyCounts);
+
+        List<String> timeLabels = new ArrayList<>();
+        long[] timeCounts = new long[solveTimes.histogram().size()];
+        for (SolveTimeReport.TimeBin bin : solveTimes.histogram()) {
+            timeCounts[timeLabels.size()] = bin.count();
+            timeLabels.add(bin.toMin() == Integer.MAX_VALUE ? bin.fromMin() + "+" : bin.fromMin() + "-" + bin.toMin());
+        }
+        timeChart.setData(timeLabels, timeCounts);
+
+        updateYears();
+        updateDetails(solveTimes, weakTopics);
+    }
+
+    // Offers the last 12 months and every calendar year back to the first solve
+    private void updateYears() {
+        Object selected = yearCombo.getSelectedItem();
+        LocalDate firstDay = calendar.firstActiveDay();
+        int thisYear = LocalDate.now().getYear();
+        int firstYear = firstDay == null ? thisYear : Math.min(firstDay.getYear(), thisYear);
+        if (yearCombo.getItemCount() != thisYear - firstYear + 2) {
+            DefaultComboBoxModel<String> years = new DefaultComboBoxModel<>();
+            years.addElement(LAST_YEAR);
+            for (int year = thisYear; year >= firstYear; year--) {
+                years.addElement(Integer.toString(year));
             }
+            if (selected != null && years.getIndexOf(selected) >= 0) {
+                years.setSelectedItem(selected);
+            }
+            yearCombo.setModel(years);
         }
-        contentPanel.add(Box.createVerticalStrut(15));
+        showYear();
+    }
 
-        // Average Time
-        Double avgTime = (Double) analytics.get("averageTime");
-        if (avgTime != null) {
-            contentPanel.add(createStatLabel("Average Time per Problem: " + String.format("%.1f", avgTime) + " minutes"));
+    private void showYear() {
+        if (calendar == null || yearCombo.getSelectedItem() == null) {
+            return;
+        }
+        String selected = (String) yearCombo.getSelectedItem();
+        LocalDate from;
+        LocalDate to;
+        if (LAST_YEAR.equals(selected)) {
+            to = LocalDate.now();
+            from = to.minusWeeks(52).minusDays(to.getDayOfWeek().getValue() % 7);
+        } else {
+            from = LocalDate.of(Integer.parseInt(selected), 1, 1);
+            to = from.plusYears(1).minusDays(1);
         }
+        int[] counts = calendar.countsBetween(from, to);
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        heatmapTotal.setText(total + " problems");
+        heatmap.setData(from, counts);
+    }
 
-        JScrollPane scrollPane = new JScrollPane(contentPanel);
-        add(scrollPane, BorderLayout.CENTER);
+    private void updateDetails(SolveTimeReport solveTimes, List<TagStats> weakTopics) {
+        detailsPanel.removeAll();
 
-        // Close button
-        JPanel buttonPanel = new JPanel(new FlowLayout());
-        JButton closeButton = new JButton("Close");
-        closeButton.addActionListener(e -> dispose());
-        buttonPanel.add(closeButton);
-        add(buttonPanel, BorderLayout.SOUTH);
+        // Solve time percentiles
+        detailsPanel.add(createSectionLabel("Solve Time (p50 / p90 / p99):"));
+        if (solveTimes.overall().count() > 0) {
+            detailsPanel.add(createStatLabel("  All problems: " + formatTimes(solveTimes.overall())));
+        }
+        for (Map.Entry<Platform, TimeSketch.Summary> entry : solveTimes.byPlatform().entrySet()) {
+            detailsPanel.add(createStatLabel("  " + entry.getKey().getDisplayName() + ": " + formatTimes(entry.getValue())));
+        }
+        for (Map.Entry<Difficulty, TimeSketch.Summary> entry : solveTimes.byDifficulty().entrySet()) {
+            detailsPanel.add(createStatLabel("  " + entry.getKey().getDisplayName() + ": " + formatTimes(entry.getValue())));
+        }
+        detailsPanel.add(Box.createVerticalStrut(15));
+
+        // Tags with the most slow recent solves
+        detailsPanel.add(createSectionLabel("Weak Topics:"));
+        if (weakTopics.isEmpty()) {
+            detailsPanel.add(createStatLabel("  Not enough recent tagged problems yet"));
+        }
+        for (TagStats stats : weakTopics) {
+            detailsPanel.add(createStatLabel(String.format("  %s: %d of %d recent solves slow, avg %.1f min over %d problems",
+                    stats.tag(), stats.recentSlowCount(), stats.recentCount(), stats.averageTimeMin(), stats.count())));
+        }
+        detailsPanel.revalidate();
+        detailsPanel.repaint();
+    }
+
+    private String formatTimes(TimeSketch.Summary summary) {
+        return String.format("%d / %d / %d min (mean %.1f, sd %.1f)",
+                summary.p50(), summary.p90(), summary.p99(), summary.mean(), summary.stdDev());
     }
 
     private JLabel createSectionLabel(String text) {
@@ -0,0 +1,76 @@
+package org.codebuddy.gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vertical bars with a label under and the value over each bar.
+ */
+class BarChartPanel extends ChartPanel {
+    private final String title;
+    private final Color barColor;
+    private List<String> labels = List.of();
+    private long[] values = new long[0];
+
+    BarChartPanel(String title, Color barColor) {
+        this.title = title;
+        this.barColor = barColor;
+        setPreferredSize(new Dimension(280, 220));
+    }
+
+    /**
+     * Sets one bar per label; the chart is only redrawn if something changed.
+     */
+    void setData(List<String> labels, long[] values) {
+        if (labels.equals(this.labels) && Arrays.equals(values, this.values)) {
+            return;
+        }
+        this.labels = List.copyOf(labels);
+        this.values = values.clone();
+        invalidateChart();
+    }
+
+    @Override
+    protected void render(Graphics2D g, int width, int height) {
+        FontMetrics metrics = g.getFontMetrics();
+        int lineHeight = metrics.getHeight();
+        g.setColor(Color.DARK_GRAY);
+        g.drawString(title, PAD, PAD + metrics.getAscent());
+        if (values.length == 0) {
+            return;
+        }
+
+        // Room for the title and the value over the tallest bar above, labels below
+        int chartTop = PAD + 2 * lineHeight;
+        int baseline = height - PAD - lineHeight;
+        int chartHeight = baseline - chartTop;
+        if (chartHeight <= 0) {
+            return;
+        }
+        long max = 1;
+        for (long value : values) {
+            max = Math.max(max, value);
+        }
+        int slot = (width - 2 * PAD) / values.length;
+        int barWidth = Math.max(1, slot * 2 / 3);
+
+        for (int i = 0; i < values.length; i++) {
+            int barHeight = (int) (chartHeight * values[i] / max);
+            int center = PAD + i * slot + slot / 2;
+            g.setColor(barColor);
+            g.fillRect(center - barWidth / 2, baseline - barHeight, barWidth, barHeight);
+
+            g.setColor(Color.DARK_GRAY);
+            String value = Long.toString(values[i]);
+            g.drawString(value, center - metrics.stringWidth(value) / 2, baseline - barHeight - metrics.getDescent() - 1);
+            String label = labels.get(i);
+            g.drawString(label, center - metrics.stringWidth(label) / 2, baseline + metrics.getAscent() + 2);
+        }
+        g.setColor(Color.LIGHT_GRAY);
+        g.drawLine(PAD, baseline, width - PAD, baseline);
+    }
+}
@@ -0,0 +1,128 @@
+package org.codebuddy.gui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Solves per day as a grid of weeks, one column per week from Sunday to Saturday, shaded by
+ * count relative to the busiest day shown. Hovering over a day shows its count.
+ */
+class CalendarHeatmapPanel extends ChartPanel {
+    private static final Color[] LEVELS = {
+            new Color(0xEBEDF0), new Color(0x9BE9A8), new Color(0x40C463), new Color(0x30A14E), new Color(0x216E39)};
+    private static final String[] WEEKDAYS = {"", "Mon", "", "Wed", "", "Fri", ""};
+    private static final int GAP = 2;
+
+    private LocalDate first;
+    private int[] counts = new int[0];
+    // Grid position from the last render, for tooltips
+    private int gridLeft;
+    private int gridTop;
+    private int cellSize;
+
+    CalendarHeatmapPanel() {
+        setPreferredSize(new Dimension(860, 170));
+        setToolTipText("");
+    }
+
+    /**
+     * Shows {@code counts}, one per day starting at {@code first}; the chart is only redrawn
+     * if something changed.
+     */
+    void setData(LocalDate first, int[] counts) {
+        if (first.equals(this.first) && Arrays.equals(counts, this.counts)) {
+            return;
+        }
+        this.first = first;
+        this.counts = counts.clone();
+        invalidateChart();
+    }
+
+    @Override
+    protected void render(Graphics2D g, int width, int height) {
+        if (first == null) {
+            return;
+        }
+        FontMetrics metrics = g.getFontMetrics();
+        int lead = leadingBlanks();
+        int weeks = (lead + counts.length + 6) / 7;
+        gridLeft = PAD + metrics.stringWidth("Wed") + 4;
+        gridTop = PAD + metrics.getHeight();
+        int legendHeight = metrics.getHeight() + 4;
+        cellSize = Math.min((width - gridLeft - PAD) / weeks, (height - gridTop - PAD - legendHeight) / 7);
+        if (cellSize <= GAP) {
+            return;
+        }
+
+        int max = 1;
+        for (int count : counts) {
+            max = Math.max(max, count);
+        }
+        g.setColor(Color.DARK_GRAY);
+        for (int row = 0; row < 7; row++) {
+            g.drawString(WEEKDAYS[row], PAD, gridTop + row * cellSize + metrics.getAscent());
+        }
+        int lastMonth = -1;
+        for (int week = 0; week < weeks; week++) {
+            // Label a month over the first week that starts in it
+            LocalDate weekStart = first.plusDays(Math.max(0, week * 7 - lead));
+            if (weekStart.getMonthValue() != lastMonth && week < weeks - 1) {
+                lastMonth = weekStart.getMonthValue();
+                g.setColor(Color.DARK_GRAY);
+                g.drawString(weekStart.getMonth().getDisplayName(TextStyle.SHORT, Locale.getDefault()),
+                        gridLeft + week * cellSize, PAD + metrics.getAscent());
+            }
+        }
+        for (int day = 0; day < counts.length; day++) {
+            int cell = lead + day;
+            g.setColor(LEVELS[level(counts[day], max)]);
+            g.fillRect(gridLeft + cell / 7 * cellSize, gridTop + cell % 7 * cellSize, cellSize - GAP, cellSize - GAP);
+        }
+
+        // Legend, bottom right
+        int y = gridTop + 7 * cellSize + 4;
+        int x = gridLeft + weeks * cellSize - LEVELS.length * cellSize - metrics.stringWidth("More") - 4;
+        g.setColor(Color.DARK_GRAY);
+        g.drawString("Less", x - metrics.stringWidth("Less") - 4, y + metrics.getAscent());
+        for (int i = 0; i < LEVELS.length; i++) {
+            g.setColor(LEVELS[i]);
+            g.fillRect(x + i * cellSize, y + (metrics.getHeight() - cellSize) / 2, cellSize - GAP, cellSize - GAP);
+        }
+        g.setColor(Color.DARK_GRAY);
+        g.drawString("More", x + LEVELS.length * cellSize + 4, y + metrics.getAscent());
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        if (first == null || cellSize <= GAP || event.getX() < gridLeft || event.getY() < gridTop) {
+            return null;
+        }
+        int row = (event.getY() - gridTop) / cellSize;
+        int day = (event.getX() - gridLeft) / cellSize * 7 + row - leadingBlanks();
+        if (row >= 7 || day < 0 || day >= counts.length) {
+            return null;
+        }
+        int count = counts[day];
+        return (count == 0 ? "No" : Integer.toString(count)) + (count == 1 ? " problem on " : " problems on ")
+                + first.plusDays(day);
+    }
+
+    // Empty cells before the first day, so every column starts on a Sunday
+    private int leadingBlanks() {
+        return first.getDayOfWeek().getValue() % 7;
+    }
+
+    private static int level(int count, int max) {
+        if (count <= 0) {
+            return 0;
+        }
+        return 1 + (int) ((long) (count - 1) * (LEVELS.length - 1) / max);
+    }
+}
@@ -0,0 +1,64 @@
+package org.codebuddy.gui;
+
+import javax.swing.JPanel;
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * A chart drawn into an image that is kept between paints. The image is redrawn only after
+ * {@link #invalidateChart()} or when the panel is resized; any other repaint just copies it.
+ */
+abstract class ChartPanel extends JPanel {
+    protected static final int PAD = 8;
+
+    private BufferedImage image;
+
+    protected ChartPanel() {
+        setBackground(Color.WHITE);
+        setOpaque(true);
+    }
+
+    /**
+     * Draws the whole chart; the background is already filled.
+     */
+    protected abstract void render(Graphics2D g, int width, int height);
+
+    /**
+     * Drops the cached image, for when the chart's data has changed.
+     */
+    protected void invalidateChart() {
+        image = null;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        int width = getWidth();
+        int height = getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (image == null || image.getWidth() != width || image.getHeight() != height) {
+            GraphicsConfiguration config = getGraphicsConfiguration();
+            image = config != null
+                    ? config.createCompatibleImage(width, height)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D imageGraphics = image.createGraphics();
+            try {
+                imageGraphics.setColor(getBackground());
+                imageGraphics.fillRect(0, 0, width, height);
+                imageGraphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                imageGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                imageGraphics.setFont(getFont());
+                render(imageGraphics, width, height);
+            } finally {
+                imageGraphics.dispose();
+            }
+        }
+        g.drawImage(image, 0, 0, null);
+    }
+}
@@ -1,15 +1,14 @@
 package org.codebuddy.gui;
 
-import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.dao.AsyncProblemDao;
 import org.codebuddy.core.models.*;
 
 import javax.swing.*;
 import java.awt.*;
-import java.sql.SQLException;
-import java.util.List;
+import java.util.Arrays;
 
 public class EditProblemDialog extends JDialog {
-    private ProblemDao problemDao;
+    private AsyncProblemDao asyncDao;
     private Problem problem;
     private boolean success = false;
     
@@ -17,35 +16,35 @@ public class EditProblemDialog extends JDialog {
     private JComboBox<Platform> platformCombo;
     private JComboBox<Difficulty> difficultyCombo;
     private JTextField timeField;
+    private JTextField tagsField;
     private JTextArea notesArea;
     private JTextField linkField;
+    private JButton saveButton;
 
     public EditProblemDialog(JFrame parent, int problemId) {
         super(parent, "Edit Problem", true);
-        this.problemDao = new ProblemDao();
+        this.asyncDao = new AsyncProblemDao();
         
-        loadProblem(problemId);
         initializeComponents();
         setupLayout();
-        populateFields();
+        loadProblem(problemId);
     }
 
     private void loadProblem(int problemId) {
-        try {
-            List<Problem> problems = problemDao.getAllProblems();
-            for (Problem p : problems) {
-                if (p.getId() == problemId) {
-                    this.problem = p;
-                    break;
-                }
+        // Fields stay disabled until the row arrives
+        saveButton.setEnabled(false);
+        asyncDao.findById(problemId).whenCompleteAsync((found, error) -> {
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Error loading problem: " + AsyncProblemDao.rootCause(error).getMessage());
+                return;
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading problem: " + e.getMessage());
-        }
+            this.problem = found.orElse(null);
+            populateFields();
+        }, SwingUtilities::invokeLater);
     }
 
     private void initializeComponents() {
-        setSize(400, 500);
+        setSize(420, 540);
         setLocationRelativeTo(getParent());
         setDefaultCloseOperation(DISPOSE_ON_CLOSE);
 
@@ -53,6 +52,7 @@ public class EditProblemDialog extends JDialog {
         platformCombo = new JComboBox<>(Platform.values());
         difficultyCombo = new JComboBox<>(Difficulty.values());
         timeField = new JTextField(10);
+        tagsField = new JTextField(20);
         notesArea = new JTextArea(5, 20);
         notesArea.setLineWrap(true);
         notesArea.setWrapStyleWord(true);
@@ -91,14 +91,20 @@ public class EditProblemDialog extends JDialog {
         gbc.gridx = 1;
         formPanel.add(timeField, gbc);
 
-        // Link
+        // Tags
         gbc.gridx = 0; gbc.gridy = 4;
+        formPanel.add(new JLabel("Tags (comma separated):"), gbc);
+        gbc.gridx = 1;
+        formPanel.add(tagsField, gbc);
+
+        // Link
+        gbc.gridx = 0; gbc.gridy = 5;
         formPanel.add(new JLabel("Problem Link:"), gbc);
         gbc.gridx = 1;
         formPanel.add(linkField, gbc);
 
         // Notes
-        gbc.gridx = 0; gbc.gridy = 5;
+        gbc.gridx = 0; gbc.gridy = 6;
         gbc.anchor = GridBagConstraints.NORTHWEST;
         formPanel.add(new JLabel("Notes:"), gbc);
         gbc.gridx = 1;
@@ -109,7 +115,7 @@ public class EditProblemDialog extends JDialog {
 
         // Button panel
         JPanel buttonPanel = new JPanel(new FlowLayout());
-        JButton saveButton = new JButton("Update");
+        saveButton = new JButton("Update");
         JButton cancelButton = new JButton("Cancel");
         
         saveButton.addActionListener(e -> updateProblem());
@@ -128,47 +134,58 @@ public class EditProblemDialog extends JDialog {
             timeField.setText(String.valueOf(problem.getTimeTakenMin()));
             notesArea.setText(problem.getNotes());
             linkField.setText(problem.getLink());
+            tagsField.setText(String.join(", ", problem.getTags()));
+            saveButton.setEnabled(true);
         }
     }
 
     private void updateProblem() {
+        // Validate input
+        if (nameField.getText().trim().isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Problem name is required!");
+            return;
+        }
+        
+        int timeTaken;
         try {
-            // Validate input
-            if (nameField.getText().trim().isEmpty()) {
-                JOptionPane.showMessageDialog(this, "Problem name is required!");
-                return;
-            }
-            
-            int timeTaken;
-            try {
-                timeTaken = Integer.parseInt(timeField.getText().trim());
-                if (timeTaken <= 0) throw new NumberFormatException();
-            } catch (NumberFormatException e) {
-                JOptionPane.showMessageDialog(this, "Please enter a valid positive number for time taken!");
+            timeTaken = Integer.parseInt(timeField.getText().trim());
+            if (timeTaken <= 0) throw new NumberFormatException();
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Please enter a valid positive number for time taken!");
+            return;
+        }
+
+        // Update problem object
+        problem.setName(nameField.getText().trim());
+        problem.setPlatform((Platform) platformCombo.getSelectedItem());
+        problem.setDifficulty((Difficulty) difficultyCombo.getSelectedItem());
+        problem.setTimeTakenMin(timeTaken);
+        problem.setNotes(notesArea.getText().trim());
+        problem.setLink(linkField.getText().trim());
+        problem.setTags(Arrays.asList(tagsField.getText().split(",")));
+
+        // Update in database off the event thread
+        saveButton.setEnabled(false);
+        asyncDao.updateProblem(problem).whenCompleteAsync((updated, error) -> {
+            saveButton.setEnabled(true);
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Error updating problem: " + AsyncProblemDao.rootCause(error).getMessage());
                 return;
             }
-
-            // Update problem object
-            problem.setName(nameField.getText().trim());
-            problem.setPlatform((Platform) platformCombo.getSelectedItem());
-            problem.setDifficulty((Difficulty) difficultyCombo.getSelectedItem());
-            problem.setTimeTakenMin(timeTaken);
-            problem.setNotes(notesArea.getText().trim());
-            problem.setLink(linkField.getText().trim());
-
-            // Update in database
-            problemDao.updateProblem(problem);
-            
             success = true;
             JOptionPane.showMessageDialog(this, "Problem updated successfully!");
             dispose();
-            
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error updating problem: " + e.getMessage());
-        }
+        }, SwingUtilities::invokeLater);
     }
 
     public boolean isSuccess() {
         return success;
     }
+
+    /**
+     * The problem with the edits applied; only meaningful once {@link #isSuccess()}.
+     */
+    public Problem getProblem() {
+        return problem;
+    }
 }
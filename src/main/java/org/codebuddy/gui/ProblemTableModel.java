@@ -0,0 +1,269 @@
+package org.codebuddy.gui;
+
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.services.ProblemColumns;
+import org.codebuddy.core.services.ProblemColumns.SortKey;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Table rows as problem ids. A row is read only when the table asks for one of its cells,
+ * i.e. for visible rows: from the {@link ProblemColumns} store for an in-memory view, or
+ * from the problems loaded from the database. For database results, the next page is
+ * fetched from the {@link Pager} when the table reaches the last loaded rows.
+ */
+public class ProblemTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"ID", "Problem Name", "Platform", "Difficulty", "Time (min)", "Date", "Tags", "Notes"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    // Fetch the next page once a row this close to the end is shown
+    private static final int PREFETCH_ROWS = 100;
+    private static final Comparator<Problem> NEWEST_FIRST = SortKey.DATE.comparator().reversed();
+    // Sort key per column; ids and tags can't be sorted on
+    private static final SortKey[] SORT_KEYS = {null, SortKey.NAME, SortKey.PLATFORM, SortKey.DIFFICULTY, SortKey.TIME_TAKEN, SortKey.DATE, null, null};
+
+    /**
+     * Supplies further rows after the ones already shown; an empty page means there are no more.
+     */
+    public interface Pager {
+        CompletableFuture<List<Problem>> next();
+    }
+
+    private RowIds rows = new RowIds();
+    // Rows held as objects: database results and rows changed in this window
+    private final Map<Integer, Problem> loaded = new HashMap<>();
+    private ProblemColumns columns;
+    private Pager pager;
+    private boolean loading;
+    // Bumped by setRows so pages for an older selection are dropped
+    private int generation;
+    // The table asks for a row's cells one after another, so the last row read is kept
+    private Problem lastRead;
+    private SortKey sortKey;
+    private boolean ascending;
+    // Order of the rows, used to place added and edited problems
+    private Comparator<Problem> order = NEWEST_FIRST;
+
+    /**
+     * Replaces all rows with loaded problems. With a pager, more rows are appended as the
+     * table scrolls towards the end.
+     */
+    public void setRows(List<Problem> problems, Pager pager) {
+        reset(null, pager);
+        append(problems);
+        fireTableDataChanged();
+    }
+
+    /**
+     * Replaces all rows with a view of {@code columns}; rows are read from it as they are shown.
+     */
+    public void setRows(int[] problemIds, ProblemColumns columns) {
+        reset(columns, null);
+        rows = new RowIds(problemIds);
+        fireTableDataChanged();
+    }
+
+    /**
+     * The key for sorting by {@code column}, or null if it can't be sorted.
+     */
+    public static SortKey sortKeyFor(int column) {
+        return SORT_KEYS[column];
+    }
+
+    /**
+     * Records the order the rows are in, for placing added and edited problems and for the
+     * column headers; null for newest first. Doesn't reorder the current rows.
+     */
+    public void setSort(SortKey key, boolean ascending) {
+        this.sortKey = key;
+        this.ascending = ascending;
+        if (key == null) {
+            order = NEWEST_FIRST;
+        } else {
+            order = ascending ? key.comparator() : key.comparator().reversed();
+        }
+    }
+
+    public int idAt(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * The problem in {@code row}, or null if it has been deleted since the view was built.
+     */
+    public Problem problemAt(int row) {
+        int id = rows.get(row);
+        if (lastRead != null && lastRead.getId() == id) {
+            return lastRead;
+        }
+        Problem problem = loaded.get(id);
+        if (problem == null && columns != null) {
+            problem = columns.read(c -> {
+                int position = c.rowOf(id);
+                return position < 0 ? null : c.toProblem(position);
+            });
+        }
+        lastRead = problem;
+        return problem;
+    }
+
+    /**
+     * Inserts the problem in its place in the current order. A problem that would go after
+     * the last loaded row is left for the pager to fetch.
+     */
+    public void addProblem(Problem problem) {
+        int row = insertionPoint(problem);
+        if (row == rows.size() && pager != null) {
+            return;
+        }
+        insertAt(row, problem);
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Replaces the row showing the same problem, moving it if the edit changed its place in
+     * the current order; returns false if it isn't shown.
+     */
+    public boolean replaceProblem(Problem problem) {
+        int row = rows.indexOf(problem.getId());
+        if (row < 0) {
+            return false;
+        }
+        rows.remove(row);
+        lastRead = null;
+        int target = insertionPoint(problem);
+        insertAt(target, problem);
+        if (target == row) {
+            fireTableRowsUpdated(row, row);
+        } else {
+            fireTableRowsDeleted(row, row);
+            fireTableRowsInserted(target, target);
+        }
+        return true;
+    }
+
+    public void removeProblem(int problemId) {
+        int row = rows.indexOf(problemId);
+        if (row >= 0) {
+            rows.remove(row);
+            loaded.remove(problemId);
+            lastRead = null;
+            fireTableRowsDeleted(row, row);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        if (sortKey != null && SORT_KEYS[column] == sortKey) {
+            return COLUMNS[column] + (ascending ? " \u25B2" : " \u25BC");
+        }
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == 0 || column == 4 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (row >= rows.size() - PREFETCH_ROWS) {
+            fetchMore();
+        }
+        Problem problem = problemAt(row);
+        if (problem == null) {
+            return column == 0 ? rows.get(row) : null;
+        }
+        return switch (column) {
+            case 0 -> problem.getId();
+            case 1 -> problem.getName();
+            case 2 -> problem.getPlatform().getDisplayName();
+            case 3 -> problem.getDifficulty().getDisplayName();
+            case 4 -> problem.getTimeTakenMin();
+            case 5 -> problem.getSolvedDate().format(DATE_FORMAT);
+            case 6 -> String.join(", ", problem.getTags());
+            case 7 -> problem.getNotes();
+            default -> null;
+        };
+    }
+
+    private void reset(ProblemColumns columns, Pager pager) {
+        this.columns = columns;
+        this.pager = pager;
+        this.loading = false;
+        rows = new RowIds();
+        loaded.clear();
+        lastRead = null;
+        generation++;
+    }
+
+    private void append(List<Problem> problems) {
+        for (Problem problem : problems) {
+            rows.add(problem.getId());
+            loaded.put(problem.getId(), problem);
+        }
+    }
+
+    private int insertionPoint(Problem problem) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            Problem other = problemAt(mid);
+            if (other != null && order.compare(other, problem) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void insertAt(int row, Problem problem) {
+        rows.insert(row, problem.getId());
+        loaded.put(problem.getId(), problem);
+        lastRead = null;
+    }
+
+    private void fetchMore() {
+        if (pager == null || loading) {
+            return;
+        }
+        loading = true;
+        int requested = generation;
+        pager.next().whenCompleteAsync((page, error) -> {
+            if (requested != generation) {
+                return;
+            }
+            loading = false;
+            if (error != null) {
+                System.err.println("Error loading more problems: " + error.getMessage());
+                pager = null;
+                return;
+            }
+            if (page.isEmpty()) {
+                pager = null;
+                return;
+            }
+            int first = rows.size();
+            append(page);
+            fireTableRowsInserted(first, rows.size() - 1);
+        }, SwingUtilities::invokeLater);
+    }
+}
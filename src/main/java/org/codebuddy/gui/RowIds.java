@@ -0,0 +1,225 @@
+package org.codebuddy.gui;
+
+import java.util.Arrays;
+
+/**
+ * Problem ids in table order, held in chunks of at most {@value #CHUNK} so an insert or
+ * removal only shifts the ids of one chunk. A Fenwick tree over the chunk sizes finds the
+ * chunk holding a row, and each id's chunk is kept by id (ids are dense, as in
+ * {@code ProblemColumns}), so finding an id's row doesn't scan the table.
+ */
+final class RowIds {
+    static final int CHUNK = 1024;
+    private static final int NO_CHUNK = -1;
+
+    // Chunks by number; a chunk keeps its number when others are added or dropped
+    private int[][] chunks = new int[0][];
+    private int[] chunkSizes = new int[0];
+    private int chunkNumbers;
+    // Chunk numbers in table order, and each chunk's place in it
+    private int[] order = new int[0];
+    private int[] placeOf = new int[0];
+    private int places;
+    // Fenwick tree over the chunk sizes by place, 1-based
+    private int[] tree = new int[1];
+    private int[] chunkById = new int[0];
+    private int size;
+
+    RowIds() {
+    }
+
+    RowIds(int[] ids) {
+        for (int from = 0; from < ids.length; from += CHUNK) {
+            int count = Math.min(CHUNK, ids.length - from);
+            int chunk = newChunk(places);
+            System.arraycopy(ids, from, chunks[chunk], 0, count);
+            chunkSizes[chunk] = count;
+            for (int i = from; i < from + count; i++) {
+                point(ids[i], chunk);
+            }
+        }
+        size = ids.length;
+        rebuildTree();
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int row) {
+        long found = locate(row);
+        return chunks[order[(int) (found >>> 32)]][(int) found];
+    }
+
+    /**
+     * The row showing {@code id}, or -1 if it isn't listed.
+     */
+    int indexOf(int id) {
+        if (id < 0 || id >= chunkById.length || chunkById[id] == NO_CHUNK) {
+            return -1;
+        }
+        int chunk = chunkById[id];
+        int[] ids = chunks[chunk];
+        for (int offset = 0; offset < chunkSizes[chunk]; offset++) {
+            if (ids[offset] == id) {
+                return rowsBefore(placeOf[chunk]) + offset;
+            }
+        }
+        return -1;
+    }
+
+    void add(int id) {
+        insert(size, id);
+    }
+
+    void insert(int row, int id) {
+        if (places == 0) {
+            newChunk(0);
+            rebuildTree();
+        }
+        long found = locate(row);
+        int place = (int) (found >>> 32);
+        int offset = (int) found;
+        if (chunkSizes[order[place]] == CHUNK) {
+            split(place);
+            if (offset > CHUNK / 2) {
+                place++;
+                offset -= CHUNK / 2;
+            }
+        }
+        int chunk = order[place];
+        int[] ids = chunks[chunk];
+        System.arraycopy(ids, offset, ids, offset + 1, chunkSizes[chunk] - offset);
+        ids[offset] = id;
+        chunkSizes[chunk]++;
+        point(id, chunk);
+        addToTree(place, 1);
+        size++;
+    }
+
+    /**
+     * Removes the id in {@code row} and returns it.
+     */
+    int remove(int row) {
+        long found = locate(row);
+        int place = (int) (found >>> 32);
+        int offset = (int) found;
+        int chunk = order[place];
+        int[] ids = chunks[chunk];
+        int id = ids[offset];
+        System.arraycopy(ids, offset + 1, ids, offset, chunkSizes[chunk] - offset - 1);
+        chunkSizes[chunk]--;
+        chunkById[id] = NO_CHUNK;
+        size--;
+        if (chunkSizes[chunk] == 0) {
+            dropChunk(place);
+        } else {
+            addToTree(place, -1);
+        }
+        return id;
+    }
+
+    // The chunk place and offset of a row, packed as place << 32 | offset; the end of the list is past the last chunk's rows
+    private long locate(int row) {
+        if (row < 0 || row > size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+        if (row == size) {
+            int last = places - 1;
+            return ((long) last << 32) | chunkSizes[order[last]];
+        }
+        int place = 0;
+        int remaining = row;
+        for (int step = Integer.highestOneBit(places); step > 0; step >>= 1) {
+            int next = place + step;
+            if (next <= places && tree[next] <= remaining) {
+                place = next;
+                remaining -= tree[next];
+            }
+        }
+        return ((long) place << 32) | remaining;
+    }
+
+    private int rowsBefore(int place) {
+        int rows = 0;
+        for (int i = place; i > 0; i -= i & -i) {
+            rows += tree[i];
+        }
+        return rows;
+    }
+
+    private void addToTree(int place, int delta) {
+        for (int i = place + 1; i <= places; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private void rebuildTree() {
+        tree = new int[places + 1];
+        for (int place = 0; place < places; place++) {
+            int i = place + 1;
+            tree[i] += chunkSizes[order[place]];
+            int parent = i + (i & -i);
+            if (parent <= places) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    // Moves the upper half of a full chunk into a new chunk placed after it
+    private void split(int place) {
+        int full = order[place];
+        int half = newChunk(place + 1);
+        int moved = CHUNK - CHUNK / 2;
+        System.arraycopy(chunks[full], CHUNK / 2, chunks[half], 0, moved);
+        chunkSizes[full] = CHUNK / 2;
+        chunkSizes[half] = moved;
+        for (int i = 0; i < moved; i++) {
+            chunkById[chunks[half][i]] = half;
+        }
+        rebuildTree();
+    }
+
+    // Adds an empty chunk at a place; the tree must be rebuilt after
+    private int newChunk(int place) {
+        if (chunkNumbers == chunks.length) {
+            int capacity = chunkNumbers + (chunkNumbers >> 1) + 4;
+            chunks = Arrays.copyOf(chunks, capacity);
+            chunkSizes = Arrays.copyOf(chunkSizes, capacity);
+            placeOf = Arrays.copyOf(placeOf, capacity);
+        }
+        int chunk = chunkNumbers++;
+        chunks[chunk] = new int[CHUNK];
+        if (places == order.length) {
+            order = Arrays.copyOf(order, places + (places >> 1) + 4);
+        }
+        System.arraycopy(order, place, order, place + 1, places - place);
+        order[place] = chunk;
+        places++;
+        renumber(place);
+        return chunk;
+    }
+
+    private void dropChunk(int place) {
+        chunks[order[place]] = null;
+        System.arraycopy(order, place + 1, order, place, places - place - 1);
+        places--;
+        renumber(place);
+        rebuildTree();
+    }
+
+    private void renumber(int from) {
+        for (int place = from; place < places; place++) {
+            placeOf[order[place]] = place;
+        }
+    }
+
+    private void point(int id, int chunk) {
+        if (id >= chunkById.length) {
+            int length = chunkById.length;
+            chunkById = Arrays.copyOf(chunkById, Math.max(id + 1, length + (length >> 1) + 16));
+            Arrays.fill(chunkById, length, chunkById.length, NO_CHUNK);
+        }
+        chunkById[id] = chunk;
+    }
+}
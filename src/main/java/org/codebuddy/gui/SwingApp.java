@@ -1,28 +1,75 @@
 package org.codebuddy.gui;
 
-import org.codebuddy.core.dao.DatabaseManager;
+import org.codebuddy.core.dao.AsyncProblemDao;
+import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.services.ProblemColumns;
+import org.codebuddy.core.services.ProblemColumnsService;
 
 import javax.swing.*;
 import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class SwingApp {
     
     public static void main(String[] args) {
+        ProblemColumnsService columnsService = ProblemColumnsService.getInstance();
+        Runtime.getRuntime().addShutdownHook(new Thread(columnsService::saveSnapshot, "codebuddy-snapshot-shutdown"));
+
+        ProblemColumns snapshot = columnsService.warmStart();
+        if (snapshot != null) {
+            // Show the saved copy right away; connect and catch up in the background
+            CompletableFuture<Void> connected = CompletableFuture.runAsync(() -> {
+                try {
+                    ProblemDao.initializeStorage();
+                    columnsService.reconcile();
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                }
+            });
+            SwingUtilities.invokeLater(() -> {
+                SwingMainWindow window = new SwingMainWindow(snapshot);
+                window.setVisible(true);
+                connected.whenCompleteAsync((ignored, error) -> {
+                    if (error != null) {
+                        showDatabaseError(AsyncProblemDao.rootCause(error));
+                        return;
+                    }
+                    window.refresh();
+                }, SwingUtilities::invokeLater);
+            });
+            return;
+        }
+
         // Initialize database
         try {
-            DatabaseManager.initializeDatabase();
+            ProblemDao.initializeStorage();
         } catch (SQLException e) {
-            JOptionPane.showMessageDialog(null, 
-                "Failed to initialize database: " + e.getMessage() + 
-                "\n\nPlease ensure MySQL is running and accessible.", 
-                "Database Error", 
-                JOptionPane.ERROR_MESSAGE);
-            System.exit(1);
+            showDatabaseError(e);
         }
 
         // Launch main window
         SwingUtilities.invokeLater(() -> {
             new SwingMainWindow().setVisible(true);
         });
+
+        // Build the in-memory copy so there is a snapshot for the next launch
+        CompletableFuture.runAsync(() -> {
+            try {
+                columnsService.getColumns();
+                columnsService.saveSnapshot();
+            } catch (SQLException e) {
+                System.err.println("Failed to load problems for snapshot: " + e.getMessage());
+            }
+        });
+    }
+
+    private static void showDatabaseError(Throwable e) {
+        JOptionPane.showMessageDialog(null, 
+            "Failed to initialize database: " + e.getMessage() + 
+            "\n\nPlease ensure MySQL is running and accessible, or set storage.backend=file in config.properties.", 
+            "Database Error", 
+            JOptionPane.ERROR_MESSAGE);
+        System.exit(1);
     }
 }
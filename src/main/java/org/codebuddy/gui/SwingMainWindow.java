@@ -1,42 +1,128 @@
 package org.codebuddy.gui;
 
+import org.codebuddy.core.dao.AsyncProblemDao;
+import org.codebuddy.core.dao.CachingProblemDao;
+import org.codebuddy.core.dao.DatabaseManager;
+import org.codebuddy.core.dao.ProblemChangeListener;
 import org.codebuddy.core.dao.ProblemDao;
+import org.codebuddy.core.dao.ProblemQuery;
 import org.codebuddy.core.models.*;
+import org.codebuddy.core.services.ActivityCalendar;
+import org.codebuddy.core.services.ActivityService;
 import org.codebuddy.core.services.AnalyticsService;
+import org.codebuddy.core.services.AnalyticsSnapshot;
+import org.codebuddy.core.services.ProblemColumns;
+import org.codebuddy.core.services.ProblemColumns.SortKey;
+import org.codebuddy.core.services.ProblemColumnsService;
+import org.codebuddy.core.services.SolveTimeReport;
+import org.codebuddy.core.services.SearchService;
+import org.codebuddy.core.services.SolveTimeService;
+import org.codebuddy.core.services.TagService;
+import org.codebuddy.core.services.TagStats;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.TableColumn;
+import javax.swing.table.TableColumnModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class SwingMainWindow extends JFrame {
+    // Search results shown at most
+    private static final int SEARCH_LIMIT = 500;
+    private static final int DEFAULT_PAGE_SIZE = 500;
+    private static final int DEFAULT_FILTER_DELAY_MS = 150;
+
     private ProblemDao problemDao;
+    private AsyncProblemDao asyncDao;
     private AnalyticsService analyticsService;
-    private DefaultTableModel tableModel;
+    private ActivityService activityService;
+    private AnalyticsDialog analyticsDialog;
+    private ProblemTableModel tableModel;
     private JTable problemTable;
     private JComboBox<Platform> platformFilter;
     private JComboBox<Difficulty> difficultyFilter;
+    private JTextField searchField;
+    private JTextField tagFilter;
+    private JCheckBox matchAllTags;
     private JLabel statsLabel;
+    private CompletableFuture<?> pendingLoad;
+    // Filter edits in quick succession cause one reload
+    private Timer filterTimer;
+    // Clicked sort column, or null for newest first (search results: best match first)
+    private SortKey sortKey;
+    private boolean sortAscending;
+    // Last counters shown; adjusted in place after each add or delete
+    private StatusStats stats;
     
     // Simplified - no user management needed
     private final int currentUserId = 1;
 
     public SwingMainWindow() {
-        this.problemDao = new ProblemDao();
+        this(null);
+    }
+
+    /**
+     * @param snapshot rows to show until {@link #refresh()} is called, or null to load from the database now
+     */
+    public SwingMainWindow(ProblemColumns snapshot) {
+        this.problemDao = CachingProblemDao.getInstance();
+        this.asyncDao = new AsyncProblemDao();
         this.analyticsService = new AnalyticsService();
+        this.activityService = ActivityService.getInstance();
         
         initializeComponents();
         setupLayout();
+        ProblemDao.addChangeListener(new ProblemChangeListener() {
+            @Override
+            public void writeRejected(String description, String reason) {
+                SwingUtilities.invokeLater(() -> showRejectedWrite(description, reason));
+            }
+        });
+        if (snapshot != null) {
+            showSnapshot(snapshot);
+        } else {
+            refresh();
+        }
+    }
+
+    /**
+     * Reloads the table and stats from the database.
+     */
+    public void refresh() {
         loadProblems();
         updateStats();
     }
 
+    /**
+     * Adds, edits and deletes were shown as done when they were journaled, so one the
+     * database refused means the table is wrong: say so and reload it.
+     */
+    private void showRejectedWrite(String description, String reason) {
+        JOptionPane.showMessageDialog(this,
+                "The " + description + " could not be written to the database and was not kept:\n" + reason,
+                "Database Error", JOptionPane.ERROR_MESSAGE);
+        refresh();
+    }
+
+    // The snapshot is the shared in-memory copy, so this is the usual in-memory view
+    private void showSnapshot(ProblemColumns snapshot) {
+        loadProblems();
+        statsLabel.setText(String.format("Total Problems: %d | Showing saved copy, connecting to database...", snapshot.size()));
+    }
+
     private void initializeComponents() {
         setTitle("CodeBuddy - Competitive Practice Tracker");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -44,15 +130,10 @@ public class SwingMainWindow extends JFrame {
         setLocationRelativeTo(null);
 
         // Create table model
-        String[] columnNames = {"ID", "Problem Name", "Platform", "Difficulty", "Time (min)", "Date", "Notes"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false; // Make table read-only
-            }
-        };
+        tableModel = new ProblemTableModel();
         
         problemTable = new JTable(tableModel);
+        problemTable.getTableHeader().setToolTipText("Click a column to sort by it; click again to reverse");
         problemTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         
         // Create filters
@@ -68,6 +149,13 @@ public class SwingMainWindow extends JFrame {
             difficultyFilter.addItem(difficulty);
         }
         
+        searchField = new JTextField(15);
+        searchField.setToolTipText("Search problem names and notes");
+
+        tagFilter = new JTextField(12);
+        tagFilter.setToolTipText("Comma separated tags; press Enter to apply");
+        matchAllTags = new JCheckBox("Match all");
+
         // Stats label
         statsLabel = new JLabel("Loading stats...");
     }
@@ -77,10 +165,15 @@ public class SwingMainWindow extends JFrame {
 
         // Top panel with filters and buttons
         JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JLabel("Search:"));
+        topPanel.add(searchField);
         topPanel.add(new JLabel("Platform:"));
         topPanel.add(platformFilter);
         topPanel.add(new JLabel("Difficulty:"));
         topPanel.add(difficultyFilter);
+        topPanel.add(new JLabel("Tags:"));
+        topPanel.add(tagFilter);
+        topPanel.add(matchAllTags);
         
         JButton addButton = new JButton("Add Problem");
         JButton editButton = new JButton("Edit Problem");
@@ -114,68 +207,295 @@ public class SwingMainWindow extends JFrame {
             updateStats();
         });
         analyticsButton.addActionListener(e -> showAnalytics());
+        problemTable.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int column = problemTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    sortBy(problemTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
         
-        platformFilter.addActionListener(e -> loadProblems());
-        difficultyFilter.addActionListener(e -> loadProblems());
+        filterTimer = new Timer(DatabaseManager.getIntSetting("ui.filterDelayMs", DEFAULT_FILTER_DELAY_MS), e -> loadProblems());
+        filterTimer.setRepeats(false);
+        platformFilter.addActionListener(e -> filterTimer.restart());
+        difficultyFilter.addActionListener(e -> filterTimer.restart());
+        tagFilter.addActionListener(e -> filterTimer.restart());
+        matchAllTags.addActionListener(e -> filterTimer.restart());
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                filterTimer.restart();
+            }
+        });
     }
 
     private void loadProblems() {
-        try {
-            List<Problem> problems = problemDao.getAllProblemsForUser(currentUserId);
-            
-            // Apply filters
-            Platform selectedPlatform = (Platform) platformFilter.getSelectedItem();
-            Difficulty selectedDifficulty = (Difficulty) difficultyFilter.getSelectedItem();
-            
-            // Clear table
-            tableModel.setRowCount(0);
-            
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            
-            for (Problem problem : problems) {
-                if (selectedPlatform != null && !problem.getPlatform().equals(selectedPlatform)) {
-                    continue;
+        Platform platform = (Platform) platformFilter.getSelectedItem();
+        Difficulty difficulty = (Difficulty) difficultyFilter.getSelectedItem();
+        List<String> tags = selectedTags();
+        boolean matchAll = matchAllTags.isSelected();
+        String search = searchField.getText().trim();
+
+        // A newer filter selection makes any load still in flight pointless
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+        }
+
+        // Once the in-memory copy is loaded, filtering never touches the database: platform and
+        // difficulty come from its posting lists, tags and search text from their own indexes.
+        // Sorting needs the copy's sort orders, so a sorted view waits for it to load
+        ProblemColumnsService columnsService = ProblemColumnsService.getInstance();
+        ProblemColumns loadedColumns = columnsService.getColumnsIfLoaded();
+        SortKey key = sortKey;
+        boolean ascending = sortAscending;
+        if (loadedColumns != null || key != null) {
+            startLoad(asyncDao.submitRead(() -> {
+                ProblemColumns columns = loadedColumns != null ? loadedColumns : columnsService.getColumns();
+                BitSet matching = tags.isEmpty() ? null : TagService.getInstance().filter(tags, matchAll);
+                if (search.isEmpty()) {
+                    return new ColumnsView(columns, columns.read(c -> key == null
+                            ? c.selectIds(platform, difficulty, matching)
+                            : c.selectIds(platform, difficulty, matching, key, ascending)));
+                }
+                // Filter before ranking, so a common term can't crowd filtered matches out of the limit
+                BitSet allowed = matching;
+                if (platform != null || difficulty != null) {
+                    allowed = new BitSet();
+                    for (int id : columns.read(c -> c.selectIds(platform, difficulty, matching))) {
+                        allowed.set(id);
+                    }
+                }
+                List<Integer> ranked = SearchService.getInstance().search(search, SEARCH_LIMIT, allowed);
+                if (key != null) {
+                    BitSet found = new BitSet();
+                    ranked.forEach(found::set);
+                    return new ColumnsView(columns, columns.read(c -> c.selectIds(platform, difficulty, found, key, ascending)));
                 }
-                if (selectedDifficulty != null && !problem.getDifficulty().equals(selectedDifficulty)) {
-                    continue;
+                return new ColumnsView(columns, columns.read(c -> ranked.stream()
+                        .filter(id -> c.rowOf(id) >= 0)
+                        .mapToInt(Integer::intValue)
+                        .toArray()));
+            }), view -> tableModel.setRows(view.ids(), view.columns()));
+            return;
+        }
+
+        // Until then, platform and difficulty are filtered by the database. Without search text
+        // rows are read a page at a time as the table scrolls
+        ProblemQuery query = ProblemQuery.builder().platform(platform).difficulty(difficulty).build();
+        ProblemPager pager = search.isEmpty() ? new ProblemPager(query, tags, matchAll) : null;
+        startLoad(pager != null ? pager.next() : asyncDao.submitRead(() -> {
+            // Ranked ids come from the in-memory index; rows are then read by primary key, best
+            // first, until enough pass the platform and difficulty filters
+            BitSet matching = tags.isEmpty() ? null : TagService.getInstance().filter(tags, matchAll);
+            List<Integer> ranked = SearchService.getInstance().search(search, Integer.MAX_VALUE, matching);
+            List<Problem> problems = new ArrayList<>();
+            for (int start = 0; start < ranked.size() && problems.size() < SEARCH_LIMIT; start += SEARCH_LIMIT) {
+                List<Integer> chunk = ranked.subList(start, Math.min(ranked.size(), start + SEARCH_LIMIT));
+                for (Problem problem : problemDao.findByIds(chunk).values()) {
+                    if (query.matches(problem) && problems.size() < SEARCH_LIMIT) {
+                        problems.add(problem);
+                    }
+                }
+            }
+            return problems;
+        }), problems -> tableModel.setRows(problems, pager));
+    }
+
+    private record ColumnsView(ProblemColumns columns, int[] ids) {}
+
+    /**
+     * Sorts by the clicked column: ascending first, or newest first for dates, and reversed on
+     * a second click. Reuses the in-memory copy's cached sort orders.
+     */
+    private void sortBy(int column) {
+        SortKey key = ProblemTableModel.sortKeyFor(column);
+        if (key == null) {
+            return;
+        }
+        sortAscending = key == sortKey ? !sortAscending : key != SortKey.DATE;
+        sortKey = key;
+        tableModel.setSort(sortKey, sortAscending);
+        TableColumnModel headers = problemTable.getColumnModel();
+        for (int i = 0; i < headers.getColumnCount(); i++) {
+            TableColumn header = headers.getColumn(i);
+            header.setHeaderValue(tableModel.getColumnName(header.getModelIndex()));
+        }
+        problemTable.getTableHeader().repaint();
+        loadProblems();
+    }
+
+    private <T> void startLoad(CompletableFuture<T> load, Consumer<T> show) {
+        pendingLoad = load;
+        load.whenCompleteAsync((rows, error) -> {
+            if (load != pendingLoad) {
+                return;
+            }
+            pendingLoad = null;
+            if (error != null) {
+                Throwable cause = AsyncProblemDao.rootCause(error);
+                if (!(cause instanceof CancellationException)) {
+                    JOptionPane.showMessageDialog(this, "Error loading problems: " + cause.getMessage(),
+                                                "Database Error", JOptionPane.ERROR_MESSAGE);
                 }
-                
-                Object[] row = {
-                    problem.getId(),
-                    problem.getName(),
-                    problem.getPlatform().getDisplayName(),
-                    problem.getDifficulty().getDisplayName(),
-                    problem.getTimeTakenMin(),
-                    problem.getSolvedDate().format(formatter),
-                    problem.getNotes()
-                };
-                tableModel.addRow(row);
+                return;
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading problems: " + e.getMessage(), 
-                                        "Database Error", JOptionPane.ERROR_MESSAGE);
+            show.accept(rows);
+        }, SwingUtilities::invokeLater);
+    }
+
+    /**
+     * Keyset pages of problems passing the platform and difficulty filters, newest first,
+     * with the tag filter applied to each page.
+     */
+    private class ProblemPager implements ProblemTableModel.Pager {
+        private final ProblemQuery query;
+        private final List<String> tags;
+        private final boolean matchAll;
+        private final int pageSize = Math.max(1, DatabaseManager.getIntSetting("db.fetchSize", DEFAULT_PAGE_SIZE));
+        // Only touched by one page load at a time
+        private Problem last;
+        private BitSet matching;
+
+        ProblemPager(ProblemQuery query, List<String> tags, boolean matchAll) {
+            this.query = query;
+            this.tags = tags;
+            this.matchAll = matchAll;
+        }
+
+        @Override
+        public CompletableFuture<List<Problem>> next() {
+            return asyncDao.submitRead(() -> {
+                if (!tags.isEmpty() && matching == null) {
+                    matching = TagService.getInstance().filter(tags, matchAll);
+                }
+                // Keep reading until a page has a row passing the tag filter, or the rows run out
+                while (true) {
+                    List<Problem> page = problemDao.getProblemsPage(query, last, pageSize);
+                    if (page.isEmpty()) {
+                        return page;
+                    }
+                    last = page.get(page.size() - 1);
+                    if (matching == null) {
+                        return page;
+                    }
+                    List<Problem> kept = page.stream().filter(p -> matching.get(p.getId())).toList();
+                    if (!kept.isEmpty() || page.size() < pageSize) {
+                        return kept;
+                    }
+                }
+            });
         }
     }
 
+    private record StatusStats(int total, int today, int streak) {}
+
     private void updateStats() {
-        try {
-            int totalProblems = problemDao.getAllProblemsForUser(currentUserId).size();
-            int todayProblems = problemDao.getProblemsSolvedToday(currentUserId);
-            int currentStreak = problemDao.getCurrentStreak(currentUserId);
-            
-            statsLabel.setText(String.format("Total Problems: %d | Today: %d | Current Streak: %d days", 
-                              totalProblems, todayProblems, currentStreak));
-        } catch (SQLException e) {
-            statsLabel.setText("Error loading stats");
+        asyncDao.submit(() -> new StatusStats(
+                problemDao.countProblems(),
+                activityService.getProblemsSolvedToday(),
+                activityService.getCurrentStreak()))
+            .whenCompleteAsync((loaded, error) -> {
+                if (error != null) {
+                    stats = null;
+                    statsLabel.setText("Error loading stats");
+                    return;
+                }
+                showStats(loaded);
+            }, SwingUtilities::invokeLater);
+    }
+
+    private void showStats(StatusStats loaded) {
+        stats = loaded;
+        statsLabel.setText(String.format("Total Problems: %d | Today: %d | Current Streak: %d days", 
+                          loaded.total(), loaded.today(), loaded.streak()));
+    }
+
+    /**
+     * Adjusts the counters for one problem added ({@code delta} 1) or deleted (-1) without
+     * recounting. Only a change that could join or split a past run of days needs the calendar.
+     */
+    private void adjustStats(Problem problem, int delta) {
+        LocalDate today = LocalDate.now();
+        LocalDate day = problem.getSolvedDate().toLocalDate();
+        if (stats == null) {
+            updateStats();
+            return;
+        }
+        int total = stats.total() + delta;
+        if (day.equals(today)) {
+            int solvedToday = stats.today() + delta;
+            if (solvedToday == 0) {
+                showStats(new StatusStats(total, 0, 0));
+            } else if (stats.today() > 0) {
+                showStats(new StatusStats(total, solvedToday, stats.streak()));
+            } else {
+                // The first solve today extends whatever run ended yesterday
+                asyncDao.submit(() -> activityService.getCalendar().currentStreak(today.minusDays(1)) + 1)
+                    .whenCompleteAsync((streak, error) -> {
+                        if (error != null) {
+                            updateStats();
+                            return;
+                        }
+                        showStats(new StatusStats(total, solvedToday, streak));
+                    }, SwingUtilities::invokeLater);
+            }
+        } else if (delta < 0 && !day.isAfter(today.minusDays(stats.streak()))) {
+            // Older than the current run, so the streak is unaffected
+            showStats(new StatusStats(total, stats.today(), stats.streak()));
+        } else {
+            updateStats();
         }
     }
 
+    /**
+     * Whether the problem passes the current filters. Search text is left to the search
+     * index, so it only counts for problems already in the results.
+     */
+    private boolean isShown(Problem problem) {
+        Platform platform = (Platform) platformFilter.getSelectedItem();
+        Difficulty difficulty = (Difficulty) difficultyFilter.getSelectedItem();
+        if ((platform != null && platform != problem.getPlatform())
+                || (difficulty != null && difficulty != problem.getDifficulty())) {
+            return false;
+        }
+        List<String> tags = selectedTags();
+        if (tags.isEmpty()) {
+            return true;
+        }
+        return matchAllTags.isSelected()
+                ? problem.getTags().containsAll(tags)
+                : tags.stream().anyMatch(problem.getTags()::contains);
+    }
+
+    private List<String> selectedTags() {
+        return Arrays.stream(tagFilter.getText().split(","))
+                .map(Problem::normalizeTag)
+                .filter(tag -> !tag.isEmpty())
+                .toList();
+    }
+
     private void showAddProblemDialog() {
         AddProblemDialog dialog = new AddProblemDialog(this, currentUserId);
         dialog.setVisible(true);
         if (dialog.isSuccess()) {
-            loadProblems();
-            updateStats();
+            Problem saved = dialog.getSavedProblem();
+            // Search results are ranked by the index, so a new problem only shows up on the next search
+            if (searchField.getText().isBlank() && isShown(saved)) {
+                tableModel.addProblem(saved);
+            }
+            adjustStats(saved, 1);
         }
     }
 
@@ -187,12 +507,17 @@ public class SwingMainWindow extends JFrame {
             return;
         }
         
-        int problemId = (Integer) tableModel.getValueAt(selectedRow, 0);
+        int problemId = tableModel.idAt(selectedRow);
         EditProblemDialog dialog = new EditProblemDialog(this, problemId);
         dialog.setVisible(true);
         if (dialog.isSuccess()) {
-            loadProblems();
-            updateStats();
+            // The solved date can't be edited, so the row keeps its place and the counters stay
+            Problem updated = dialog.getProblem();
+            if (isShown(updated)) {
+                tableModel.replaceProblem(updated);
+            } else {
+                tableModel.removeProblem(updated.getId());
+            }
         }
     }
 
@@ -209,27 +534,44 @@ public class SwingMainWindow extends JFrame {
                                                  "Confirm Delete", 
                                                  JOptionPane.YES_NO_OPTION);
         if (result == JOptionPane.YES_OPTION) {
-            try {
-                int problemId = (Integer) tableModel.getValueAt(selectedRow, 0);
-                problemDao.deleteProblem(problemId);
-                loadProblems();
-                updateStats();
+            int problemId = tableModel.idAt(selectedRow);
+            Problem problem = tableModel.problemAt(selectedRow);
+            asyncDao.deleteProblem(problemId).whenCompleteAsync((ignored, error) -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this, "Error deleting problem: " + AsyncProblemDao.rootCause(error).getMessage(), 
+                                                "Database Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                tableModel.removeProblem(problemId);
+                if (problem != null) {
+                    adjustStats(problem, -1);
+                }
                 JOptionPane.showMessageDialog(this, "Problem deleted successfully!");
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Error deleting problem: " + e.getMessage(), 
-                                            "Database Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, SwingUtilities::invokeLater);
         }
     }
 
+    private record AnalyticsData(AnalyticsSnapshot snapshot, SolveTimeReport solveTimes, List<TagStats> weakTopics,
+                                 ActivityCalendar calendar) {}
+
     private void showAnalytics() {
-        try {
-            Map<String, Object> analytics = analyticsService.getAnalytics(currentUserId);
-            AnalyticsDialog dialog = new AnalyticsDialog(this, analytics);
-            dialog.setVisible(true);
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading analytics: " + e.getMessage(), 
-                                        "Database Error", JOptionPane.ERROR_MESSAGE);
-        }
+        asyncDao.submit(() -> new AnalyticsData(
+                analyticsService.getAnalytics(currentUserId),
+                SolveTimeService.getInstance().getReport(),
+                TagService.getInstance().getWeakTopics(5),
+                activityService.getCalendar()))
+            .whenCompleteAsync((data, error) -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this, "Error loading analytics: " + AsyncProblemDao.rootCause(error).getMessage(), 
+                                                "Database Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                // Reused so charts whose data is unchanged aren't redrawn
+                if (analyticsDialog == null) {
+                    analyticsDialog = new AnalyticsDialog(this);
+                }
+                analyticsDialog.update(data.snapshot(), data.solveTimes(), data.weakTopics(), data.calendar());
+                analyticsDialog.setVisible(true);
+            }, SwingUtilities::invokeLater);
     }
 }
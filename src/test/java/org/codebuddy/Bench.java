@@ -0,0 +1,64 @@
+package org.codebuddy;
+
+import java.util.Arrays;
+
+/**
+ * Timing helpers for the {@code *Benchmark} classes, which only run with {@code mvn test -Pbenchmark}.
+ * Sizes can be changed with system properties, e.g. {@code -Dbench.rows=100000}.
+ */
+public final class Bench {
+
+    private Bench() {}
+
+    @FunctionalInterface
+    public interface Work {
+        void run() throws Exception;
+    }
+
+    public static int size(String property, int defaultValue) {
+        return Integer.getInteger(property, defaultValue);
+    }
+
+    /**
+     * Median wall-clock time of {@code runs} runs in milliseconds, after {@code warmups} untimed ones.
+     */
+    public static double medianMillis(int warmups, int runs, Work work) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            work.run();
+        }
+        double[] times = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            times[i] = millis(work);
+        }
+        Arrays.sort(times);
+        return times[runs / 2];
+    }
+
+    public static double millis(Work work) throws Exception {
+        long start = System.nanoTime();
+        work.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+
+    /**
+     * Heap in use after a few collections, in bytes; only meaningful for large differences.
+     */
+    public static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    public static void report(String format, Object... args) {
+        System.out.printf(format + "%n", args);
+    }
+}
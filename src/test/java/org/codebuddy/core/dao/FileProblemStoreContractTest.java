@@ -0,0 +1,70 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FileProblemStoreContractTest extends ProblemStoreContractTest {
+    @TempDir
+    Path dir;
+
+    @Override
+    protected ProblemStore createStore() throws SQLException {
+        return TestStores.file(dir);
+    }
+
+    @AfterEach
+    void closeStore() throws IOException {
+        ((FileProblemStore) store).close();
+    }
+
+    @Test
+    void rowsSurviveReopening() throws Exception {
+        Problem problem = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, LocalDate.now(), "array");
+        store.apply(List.of(ProblemMutation.save(List.of(problem))), false);
+        ((FileProblemStore) store).close();
+
+        store = TestStores.file(dir);
+        assertEquals(List.of(problem), store.getAllProblems());
+    }
+
+    @Test
+    void writeAfterAnInterruptedWriteReopensTheFile() throws Exception {
+        Problem kept = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, LocalDate.now());
+        store.apply(List.of(ProblemMutation.save(List.of(kept))), false);
+
+        // An interrupt inside FileChannel I/O closes the channel for good
+        Thread.currentThread().interrupt();
+        Problem lost = problem("Lost", Platform.OTHER, Difficulty.HARD, 5, LocalDate.now());
+        try {
+            assertThrows(SQLException.class, () -> store.apply(List.of(ProblemMutation.save(List.of(lost))), false));
+        } finally {
+            Thread.interrupted();
+        }
+        assertEquals(List.of(kept), store.getAllProblems());
+
+        Problem later = problem("Chef and Strings", Platform.CODECHEF, Difficulty.MEDIUM, 25, LocalDate.now());
+        store.apply(List.of(ProblemMutation.save(List.of(later))), false);
+        ((FileProblemStore) store).close();
+        store = TestStores.file(dir);
+        assertEquals(List.of(later, kept), store.getAllProblems());
+    }
+
+    @Test
+    void secondStoreOnTheSameFileFailsAtOnce() {
+        SQLException e = assertThrows(SQLException.class, () -> TestStores.file(dir));
+        assertEquals(IOException.class, e.getCause().getClass());
+    }
+}
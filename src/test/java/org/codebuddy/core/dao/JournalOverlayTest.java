@@ -0,0 +1,260 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.models.ProblemAggregate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Reads through the overlay, with replay held back at random points, against a store the
+ * same writes went to directly.
+ */
+class JournalOverlayTest {
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final String[] TAGS = {"dp", "graphs", "math", "strings"};
+
+    @TempDir
+    Path dir;
+    @TempDir
+    Path referenceDir;
+
+    private FileProblemStore store;
+    private FileProblemStore reference;
+    private ProblemJournal journal;
+    private JournalOverlay overlay;
+    private final Semaphore permits = new Semaphore(0);
+    private final List<ProblemMutation.Result> withdrawn = new ArrayList<>();
+    private volatile long brokenSeq = -1;
+
+    @BeforeEach
+    void open() throws Exception {
+        store = TestStores.file(dir);
+        reference = TestStores.file(referenceDir);
+        overlay = new JournalOverlay(store, () -> journal.unreplayed());
+        journal = ProblemJournal.open(dir.resolve("journal"), new ProblemJournal.Target() {
+            @Override
+            public void apply(List<MutationLog.Entry> entries) throws SQLException {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted", e);
+                }
+                if (entries.stream().anyMatch(e -> e.seq() == brokenSeq)) {
+                    throw new IllegalStateException("Broken entry");
+                }
+                List<ProblemMutation> mutations = entries.stream().map(MutationLog.Entry::mutation).toList();
+                overlay.commit(() -> store.apply(mutations, true));
+            }
+
+            @Override
+            public int reserveIds(int count) throws SQLException {
+                return store.reserveIds(count);
+            }
+
+            @Override
+            public void rejected(MutationLog.Entry entry, Exception cause) {
+                try {
+                    withdrawn.addAll(overlay.withdraw(entry));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }, 4, 10, 1 << 20);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        journal.close();
+        store.close();
+        reference.close();
+    }
+
+    @Test
+    void readsMatchTheWritesAppliedDirectlyWhereverReplayHasGot() throws Exception {
+        Random random = new Random(3);
+        for (int step = 0; step < 300; step++) {
+            ProblemMutation mutation = randomMutation(random);
+            List<ProblemMutation.Result> preview = overlay.preview(mutation);
+            journal.append(mutation);
+            assertEquals(reference.apply(List.of(copy(mutation)), true), preview, "preview at step " + step);
+
+            if (random.nextInt(4) == 0) {
+                permits.release(1 + random.nextInt(3));
+            }
+            if (step % 10 == 0) {
+                assertSameReads(random);
+            }
+        }
+        permits.release(10_000);
+        journal.awaitReplayed(journal.lastSeq(), 10_000);
+        assertSameReads(random);
+        assertEquals(reference.getAllProblems(), store.getAllProblems());
+    }
+
+    @Test
+    void anEntrySetAsideLeavesTheViewAsTheWritesThatUndoIt() throws Exception {
+        Problem a = problem("A", Platform.LEETCODE, Difficulty.EASY, 10, TODAY, "dp");
+        Problem b = problem("B", Platform.CODECHEF, Difficulty.HARD, 30, TODAY);
+        journal.assignIds(List.of(a));
+        journal.append(ProblemMutation.save(List.of(a)));
+        Problem changes = problem("A2", Platform.CODEFORCES, Difficulty.MEDIUM, 20, TODAY, "graphs");
+        changes.setId(a.getId());
+        brokenSeq = journal.append(ProblemMutation.update(List.of(changes)));
+        journal.assignIds(List.of(b));
+        journal.append(ProblemMutation.save(List.of(b)));
+
+        Problem edited = ProblemDao.applyUpdate(a, changes);
+        assertEquals(Map.of(a.getId(), edited), overlay.findByIds(List.of(a.getId())));
+        assertEquals(List.of("graphs"), overlay.getAllTags());
+
+        permits.release(100);
+        journal.awaitReplayed(journal.lastSeq(), 10_000);
+
+        assertEquals(List.of(b, a), overlay.getAllProblems());
+        assertEquals(List.of(b, a), store.getAllProblems());
+        assertEquals(List.of(
+                new ProblemMutation.Result(ProblemMutation.Op.SAVE, List.of(), List.of()),
+                new ProblemMutation.Result(ProblemMutation.Op.UPDATE, List.of(edited), List.of(a)),
+                new ProblemMutation.Result(ProblemMutation.Op.DELETE, List.of(), List.of())), withdrawn);
+    }
+
+    private void assertSameReads(Random random) throws SQLException {
+        assertEquals(reference.getAllProblems(), overlay.getAllProblems());
+        assertEquals(reference.countProblems(), overlay.countProblems());
+
+        List<Integer> ids = new ArrayList<>();
+        for (Problem problem : reference.getAllProblems()) {
+            if (random.nextInt(3) == 0) {
+                ids.add(problem.getId());
+            }
+        }
+        ids.add(999_999);
+        assertEquals(reference.findByIds(ids), overlay.findByIds(ids));
+
+        for (ProblemQuery query : List.of(
+                ProblemQuery.all(),
+                ProblemQuery.builder().platform(Platform.LEETCODE).sortBy(ProblemQuery.SortField.NAME, true).limit(5).build(),
+                ProblemQuery.builder().difficulty(Difficulty.HARD).sortBy(ProblemQuery.SortField.TIME_TAKEN, false).build(),
+                ProblemQuery.builder().timeTakenBetween(10, 40).sortBy(ProblemQuery.SortField.PLATFORM, true).limit(3).build(),
+                ProblemQuery.builder().solvedBetween(TODAY.minusDays(2).atStartOfDay(), null)
+                        .sortBy(ProblemQuery.SortField.SOLVED_DATE, true).limit(4).build())) {
+            assertEquals(reference.findProblems(query), overlay.findProblems(query), query.toString());
+        }
+        for (ProblemQuery filter : List.of(ProblemQuery.all(), ProblemQuery.builder().platform(Platform.CODEFORCES).build())) {
+            assertEquals(pages(reference, filter), pages(overlay, filter), filter.toString());
+        }
+
+        assertEquals(reference.getProblemsSolvedToday(), overlay.getProblemsSolvedToday());
+        assertEquals(reference.getCurrentStreak(), overlay.getCurrentStreak());
+        assertEquals(reference.getAllTags(), overlay.getAllTags());
+        assertEquals(withoutEmptyGroups(reference.getDailyStats()), withoutEmptyGroups(overlay.getDailyStats()));
+        assertEquals(merged(reference.getAggregates()), merged(overlay.getAggregates()));
+    }
+
+    private static List<Problem> pages(ProblemStore from, ProblemQuery filter) throws SQLException {
+        List<Problem> rows = new ArrayList<>();
+        List<Problem> page;
+        Problem last = null;
+        do {
+            page = from.getProblemsPage(filter, last, 7);
+            rows.addAll(page);
+            last = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == 7);
+        return rows;
+    }
+
+    private ProblemMutation randomMutation(Random random) throws SQLException {
+        List<Integer> live = reference.getAllProblems().stream().map(Problem::getId).collect(Collectors.toList());
+        int action = live.isEmpty() ? 0 : random.nextInt(4);
+        if (action < 2) {
+            List<Problem> problems = new ArrayList<>();
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                problems.add(randomProblem(random));
+            }
+            journal.assignIds(problems);
+            return ProblemMutation.save(problems);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (int i = random.nextInt(2); i >= 0; i--) {
+            int id = random.nextInt(5) == 0 ? 999_999 : live.get(random.nextInt(live.size()));
+            if (!ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        if (action == 2) {
+            List<Problem> changes = new ArrayList<>();
+            for (int id : ids) {
+                Problem problem = randomProblem(random);
+                problem.setId(id);
+                changes.add(problem);
+            }
+            return ProblemMutation.update(changes);
+        }
+        return ProblemMutation.delete(ids);
+    }
+
+    private static Problem randomProblem(Random random) {
+        List<String> tags = new ArrayList<>();
+        for (String tag : TAGS) {
+            if (random.nextInt(3) == 0) {
+                tags.add(tag);
+            }
+        }
+        return problem("Problem " + random.nextInt(1_000), Platform.values()[random.nextInt(Platform.values().length)],
+                Difficulty.values()[random.nextInt(Difficulty.values().length)], 1 + random.nextInt(60),
+                TODAY.minusDays(random.nextInt(6)), tags.toArray(String[]::new));
+    }
+
+    private static Problem problem(String name, Platform platform, Difficulty difficulty, int minutes,
+                                   LocalDate solved, String... tags) {
+        Problem problem = new Problem(0, name, platform, difficulty, minutes, solved.atTime(12, 0), "", "");
+        problem.setTags(List.of(tags));
+        return problem;
+    }
+
+    // The journal and the reference get their own objects, as stores may keep the ones they are given
+    private static ProblemMutation copy(ProblemMutation mutation) {
+        return new ProblemMutation(mutation.op(), mutation.problems().stream().map(Problem::new).toList(), mutation.ids());
+    }
+
+    private static Set<DailyStat> withoutEmptyGroups(List<DailyStat> stats) {
+        return stats.stream().filter(s -> s.solvedCount() > 0).collect(Collectors.toSet());
+    }
+
+    // Groups that appear more than once added up, as readers do
+    private static Map<List<Object>, List<Long>> merged(List<ProblemAggregate> aggregates) {
+        Map<List<Object>, List<Long>> groups = new HashMap<>();
+        for (ProblemAggregate a : aggregates) {
+            List<Object> key = new ArrayList<>();
+            key.add(a.kind());
+            key.add(String.valueOf(a.platform()));
+            key.add(String.valueOf(a.difficulty()));
+            key.add(String.valueOf(a.day()));
+            groups.merge(key, List.of((long) a.solvedCount(), a.timeSum(), (long) a.minTime(), (long) a.maxTime()),
+                    (x, y) -> List.of(x.get(0) + y.get(0), x.get(1) + y.get(1),
+                            Math.min(x.get(2), y.get(2)), Math.max(x.get(3), y.get(3))));
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,40 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Skipped unless {@code -Ddb.url} names a scratch database; see {@link TestStores#emptyMySql()}.
+ */
+class MySqlProblemStoreContractTest extends ProblemStoreContractTest {
+    @Override
+    protected ProblemStore createStore() throws SQLException {
+        return TestStores.emptyMySql();
+    }
+
+    @Test
+    void writtenProblemsCarryTheStoredTagNames() throws SQLException {
+        Problem first = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, LocalDate.now(), "cafe");
+        store.apply(List.of(ProblemMutation.save(List.of(first))), false);
+
+        // The collation matches "café" to the stored "cafe"
+        Problem second = problem("Chef and Strings", Platform.CODECHEF, Difficulty.MEDIUM, 25, LocalDate.now(), "café", "strings");
+        ProblemMutation.Result saved = store.apply(List.of(ProblemMutation.save(List.of(second))), false).get(0);
+        assertEquals(Set.of("cafe", "strings"), saved.after().get(0).getTags());
+
+        Problem changes = new Problem(second);
+        changes.setTags(List.of("Café", "STRINGS"));
+        ProblemMutation.Result updated = store.apply(List.of(ProblemMutation.update(List.of(changes))), false).get(0);
+        assertEquals(Set.of("cafe", "strings"), updated.after().get(0).getTags());
+        assertEquals(updated.after().get(0), store.findByIds(List.of(second.getId())).get(second.getId()));
+    }
+}
@@ -0,0 +1,84 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.Bench;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rows per second through ProblemDao: one statement per row against the batched
+ * collection methods. Needs {@code -Ddb.url} naming a scratch database.
+ */
+class ProblemDaoBatchBenchmark {
+    private final ProblemDao dao = new ProblemDao();
+
+    @Test
+    void singleRowAgainstBatched() throws Exception {
+        TestStores.emptyMySql();
+        int rows = Bench.size("bench.rows", 2_000);
+        // Warms up the pool, the statement cache and the JIT
+        run(Math.min(rows, 200), false);
+        run(Math.min(rows, 200), true);
+
+        Bench.report("%-8s %14s %14s", "rows=" + rows, "single rows/s", "batched rows/s");
+        double[] single = run(rows, false);
+        double[] batched = run(rows, true);
+        String[] ops = {"save", "update", "delete"};
+        for (int i = 0; i < ops.length; i++) {
+            Bench.report("%-8s %14.0f %14.0f", ops[i], rows / single[i] * 1000, rows / batched[i] * 1000);
+        }
+    }
+
+    // Milliseconds to save, update and delete the rows
+    private double[] run(int rows, boolean batched) throws Exception {
+        List<Problem> problems = new ArrayList<>(rows);
+        LocalDateTime start = LocalDateTime.now().minusDays(rows);
+        for (int i = 0; i < rows; i++) {
+            problems.add(new Problem(0, "Bench " + i, Platform.values()[i % Platform.values().length],
+                    Difficulty.values()[i % Difficulty.values().length], 5 + i % 90, start.plusDays(i),
+                    "Notes " + i, "https://example.com/" + i));
+        }
+        List<Integer> ids = new ArrayList<>(rows);
+        double[] millis = new double[3];
+        millis[0] = Bench.millis(() -> {
+            if (batched) {
+                dao.saveProblems(problems);
+            } else {
+                for (Problem problem : problems) {
+                    dao.saveProblem(problem);
+                }
+            }
+        });
+        for (Problem problem : problems) {
+            problem.setTimeTakenMin(problem.getTimeTakenMin() + 1);
+            ids.add(problem.getId());
+        }
+        millis[1] = Bench.millis(() -> {
+            if (batched) {
+                dao.updateProblems(problems);
+            } else {
+                for (Problem problem : problems) {
+                    dao.updateProblem(problem);
+                }
+            }
+        });
+        millis[2] = Bench.millis(() -> {
+            if (batched) {
+                dao.deleteProblems(ids);
+            } else {
+                for (int id : ids) {
+                    dao.deleteProblem(id);
+                }
+            }
+        });
+        assertEquals(0, dao.countProblems());
+        return millis;
+    }
+}
@@ -0,0 +1,247 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProblemJournalTest {
+    private static final long WAIT_MS = 10_000;
+
+    @TempDir
+    Path dir;
+
+    private ProblemJournal journal;
+
+    @AfterEach
+    void closeJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void replaysEntriesInOrderInBatchesOfAtMostBatchSizeRows() throws Exception {
+        RecordingTarget target = new RecordingTarget(0);
+        journal = ProblemJournal.open(dir, target, 3, 10, 1 << 20);
+        for (int i = 0; i < 5; i++) {
+            journal.append(ProblemMutation.save(List.of(problem(i + 1))));
+        }
+        journal.append(ProblemMutation.delete(List.of(1, 2)));
+        assertEquals(6, journal.backlog());
+
+        target.allow(100);
+        journal.awaitReplayed(journal.lastSeq(), WAIT_MS);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), target.appliedSeqs());
+        for (List<MutationLog.Entry> batch : target.batches) {
+            int rows = batch.stream().mapToInt(e -> e.mutation().size()).sum();
+            assertTrue(batch.size() == 1 || rows <= 3, "batch of " + rows + " rows");
+        }
+        assertEquals(0, journal.backlog());
+    }
+
+    @Test
+    void reopeningReplaysOnlyWhatTheCheckpointHasNotCovered() throws Exception {
+        RecordingTarget first = new RecordingTarget(100);
+        journal = ProblemJournal.open(dir, first, 10, 10, 1 << 20);
+        journal.append(ProblemMutation.save(List.of(problem(1))));
+        journal.append(ProblemMutation.save(List.of(problem(2))));
+        journal.awaitReplayed(journal.lastSeq(), WAIT_MS);
+        journal.close();
+
+        RecordingTarget paused = new RecordingTarget(0);
+        journal = ProblemJournal.open(dir, paused, 10, 10, 1 << 20);
+        assertEquals(2, journal.lastSeq());
+        journal.append(ProblemMutation.save(List.of(problem(3))));
+        journal.append(ProblemMutation.delete(List.of(1)));
+        journal.close();
+
+        RecordingTarget last = new RecordingTarget(100);
+        journal = ProblemJournal.open(dir, last, 10, 10, 1 << 20);
+        journal.awaitReplayed(4, WAIT_MS);
+        assertEquals(List.of(3L, 4L), last.appliedSeqs());
+        assertEquals(5, journal.append(ProblemMutation.delete(List.of(2))));
+    }
+
+    @Test
+    void aTornRecordAtTheEndIsCutOff() throws Exception {
+        journal = ProblemJournal.open(dir, new RecordingTarget(0), 10, 10, 1 << 20);
+        journal.append(ProblemMutation.save(List.of(problem(1))));
+        journal.append(ProblemMutation.save(List.of(problem(2))));
+        journal.close();
+        Path log = dir.resolve("problems.journal");
+        long size = Files.size(log);
+        byte[] record = MutationLog.encode(3, ProblemMutation.save(List.of(problem(3))));
+        Files.write(log, Arrays.copyOf(record, record.length / 2), StandardOpenOption.APPEND);
+
+        RecordingTarget target = new RecordingTarget(100);
+        journal = ProblemJournal.open(dir, target, 10, 10, 1 << 20);
+        journal.awaitReplayed(2, WAIT_MS);
+
+        assertEquals(size, Files.size(log));
+        assertEquals(List.of(1L, 2L), target.appliedSeqs());
+        assertEquals(3, journal.append(ProblemMutation.save(List.of(problem(3)))));
+    }
+
+    @Test
+    void everySqlRefusalIsRetried() throws Exception {
+        RecordingTarget target = new RecordingTarget(100);
+        target.failures.set(2);
+        journal = ProblemJournal.open(dir, target, 10, 10, 1 << 20);
+        journal.append(ProblemMutation.save(List.of(problem(1))));
+        journal.awaitReplayed(1, WAIT_MS);
+
+        assertEquals(List.of(1L), target.appliedSeqs());
+        assertEquals(List.of(), target.rejected);
+        assertFalse(Files.exists(dir.resolve("problems.rejected")));
+    }
+
+    @Test
+    void anEntryFailingOtherwiseIsSetAsideAndTheRestReplayed() throws Exception {
+        RecordingTarget target = new RecordingTarget(0);
+        target.brokenSeq = 2;
+        journal = ProblemJournal.open(dir, target, 10, 10, 1 << 20);
+        for (int i = 1; i <= 3; i++) {
+            journal.append(ProblemMutation.save(List.of(problem(i))));
+        }
+        target.allow(100);
+        journal.awaitReplayed(3, WAIT_MS);
+
+        assertEquals(List.of(1L, 3L), target.appliedSeqs());
+        assertEquals(List.of(2L), target.rejected);
+        List<Long> setAside = new ArrayList<>();
+        MutationLog.scan(ByteBuffer.wrap(Files.readAllBytes(dir.resolve("problems.rejected"))), 0,
+                entry -> setAside.add(entry.seq()));
+        assertEquals(List.of(2L), setAside);
+
+        // Set aside for good: a restart doesn't replay it again
+        journal.close();
+        journal = ProblemJournal.open(dir, new RecordingTarget(0), 10, 10, 1 << 20);
+        assertFalse(journal.unreplayed().stream().anyMatch(e -> e.seq() <= 2), "replayed again");
+    }
+
+    @Test
+    void idsComeFromReservedBlocksAndTheSpareBlockSurvivesARestart() throws Exception {
+        RecordingTarget target = new RecordingTarget(100);
+        target.nextId.set(100);
+        journal = ProblemJournal.open(dir, target, 10, 10, 1 << 20);
+        awaitSpareIds(100);
+        List<Problem> first = List.of(problem(0), problem(0), problem(0));
+        journal.assignIds(first);
+        assertEquals(List.of(100, 101, 102), ids(first));
+
+        // Taking the spare block reserves the next one in the background
+        awaitSpareIds(110);
+        journal.close();
+
+        journal = ProblemJournal.open(dir, target, 10, 10, 1 << 20);
+        List<Problem> second = List.of(problem(0));
+        journal.assignIds(second);
+        // The rest of the block in use before the restart is dropped, as it may have been handed out
+        assertEquals(List.of(110), ids(second));
+
+        List<Problem> large = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            large.add(problem(0));
+        }
+        int reservedBefore = target.nextId.get();
+        journal.assignIds(large);
+        assertTrue(large.get(0).getId() >= reservedBefore, "ids from " + large.get(0).getId());
+        for (int i = 1; i < large.size(); i++) {
+            assertEquals(large.get(0).getId() + i, large.get(i).getId());
+        }
+    }
+
+    // Polls the spare ids file until it holds a block starting at first
+    private void awaitSpareIds(int first) throws Exception {
+        Path file = dir.resolve("problems.ids");
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (!(Files.exists(file) && Files.size(file) == 16 && ByteBuffer.wrap(Files.readAllBytes(file)).getInt() == first)) {
+            assertTrue(System.currentTimeMillis() < deadline, "no spare block from " + first);
+            Thread.sleep(10);
+        }
+    }
+
+    private static List<Integer> ids(List<Problem> problems) {
+        return problems.stream().map(Problem::getId).toList();
+    }
+
+    private static Problem problem(int id) {
+        return new Problem(id, "Problem " + id, Platform.LEETCODE, Difficulty.EASY, 10,
+                LocalDateTime.of(2024, 1, 1, 12, 0), "", "");
+    }
+
+    /**
+     * Records what is replayed. Each apply takes a permit, so a test can hold replay back.
+     */
+    private static class RecordingTarget implements ProblemJournal.Target {
+        final Semaphore permits;
+        final List<List<MutationLog.Entry>> batches = new ArrayList<>();
+        final List<Long> rejected = new ArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger nextId = new AtomicInteger(1);
+        volatile long brokenSeq = -1;
+
+        RecordingTarget(int permits) {
+            this.permits = new Semaphore(permits);
+        }
+
+        void allow(int applies) {
+            permits.release(applies);
+        }
+
+        @Override
+        public void apply(List<MutationLog.Entry> entries) throws SQLException {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted", e);
+            }
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new SQLIntegrityConstraintViolationException("Duplicate entry");
+            }
+            if (entries.stream().anyMatch(e -> e.seq() == brokenSeq)) {
+                throw new IllegalStateException("Broken entry");
+            }
+            synchronized (this) {
+                batches.add(List.copyOf(entries));
+            }
+        }
+
+        @Override
+        public int reserveIds(int count) {
+            return nextId.getAndAdd(count);
+        }
+
+        @Override
+        public synchronized void rejected(MutationLog.Entry entry, Exception cause) {
+            rejected.add(entry.seq());
+        }
+
+        synchronized List<Long> appliedSeqs() {
+            return batches.stream().flatMap(List::stream).map(MutationLog.Entry::seq).toList();
+        }
+    }
+}
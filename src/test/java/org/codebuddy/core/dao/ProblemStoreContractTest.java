@@ -0,0 +1,219 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * What every {@link ProblemStore} must do; each backend runs it through a subclass.
+ */
+abstract class ProblemStoreContractTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    protected ProblemStore store;
+
+    /**
+     * An initialized, empty store.
+     */
+    protected abstract ProblemStore createStore() throws Exception;
+
+    @BeforeEach
+    void setUpStore() throws Exception {
+        store = createStore();
+    }
+
+    @Test
+    void saveGivesNewIdsAndReadsBack() throws SQLException {
+        Problem a = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, TODAY.minusDays(2));
+        Problem b = problem("Chef and Strings", Platform.CODECHEF, Difficulty.MEDIUM, 25, TODAY.minusDays(1));
+        List<ProblemMutation.Result> results = store.apply(List.of(ProblemMutation.save(List.of(a, b))), false);
+
+        assertTrue(a.getId() > 0 && b.getId() > a.getId(), "ids " + a.getId() + ", " + b.getId());
+        assertEquals(List.of(a, b), results.get(0).after());
+        assertEquals(2, store.countProblems());
+        assertEquals(List.of(b, a), store.getAllProblems());
+        Map<Integer, Problem> found = store.findByIds(List.of(b.getId(), 999_999, a.getId()));
+        assertEquals(List.of(b.getId(), a.getId()), new ArrayList<>(found.keySet()));
+        assertEquals(a, found.get(a.getId()));
+    }
+
+    @Test
+    void keepIdsSkipsRowsAlreadySaved() throws SQLException {
+        Problem problem = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, TODAY);
+        problem.setId(store.reserveIds(1));
+        List<ProblemMutation> mutations = List.of(ProblemMutation.save(List.of(problem)));
+
+        assertEquals(List.of(problem), store.apply(mutations, true).get(0).after());
+        assertEquals(List.of(), store.apply(mutations, true).get(0).after());
+        assertEquals(1, store.countProblems());
+    }
+
+    @Test
+    void reservedIdsAreNeverHandedOutAgain() throws SQLException {
+        Problem saved = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, TODAY);
+        store.apply(List.of(ProblemMutation.save(List.of(saved))), false);
+        int first = store.reserveIds(5);
+        int next = store.reserveIds(1);
+
+        assertTrue(first > saved.getId(), "reserved " + first + " after id " + saved.getId());
+        assertTrue(next >= first + 5, "reserved " + next + " inside " + first + "..." + (first + 4));
+        Problem later = problem("Median of Two Sorted Arrays", Platform.LEETCODE, Difficulty.HARD, 60, TODAY);
+        store.apply(List.of(ProblemMutation.save(List.of(later))), false);
+        assertTrue(later.getId() > next, "saved with id " + later.getId() + " after reserving " + next);
+    }
+
+    @Test
+    void updateChangesEverythingButTheSolvedDate() throws SQLException {
+        Problem problem = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, TODAY.minusDays(3), "array");
+        store.apply(List.of(ProblemMutation.save(List.of(problem))), false);
+        Problem changes = problem("Two Sum II", Platform.CODEFORCES, Difficulty.MEDIUM, 20, TODAY, "hashing");
+        changes.setId(problem.getId());
+        Problem missing = problem("Gone", Platform.OTHER, Difficulty.HARD, 5, TODAY);
+        missing.setId(999_999);
+
+        ProblemMutation.Result result = store.apply(List.of(ProblemMutation.update(List.of(changes, missing))), false).get(0);
+
+        Problem expected = ProblemDao.applyUpdate(problem, changes);
+        assertEquals(List.of(problem), result.before());
+        assertEquals(List.of(expected), result.after());
+        assertEquals(expected, store.findByIds(List.of(problem.getId())).get(problem.getId()));
+        assertEquals(problem.getSolvedDate(), expected.getSolvedDate());
+    }
+
+    @Test
+    void deleteReturnsRemovedRowsAndSkipsMissingIds() throws SQLException {
+        Problem a = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, TODAY);
+        Problem b = problem("Chef and Strings", Platform.CODECHEF, Difficulty.MEDIUM, 25, TODAY);
+        store.apply(List.of(ProblemMutation.save(List.of(a, b))), false);
+
+        ProblemMutation.Result result = store.apply(List.of(ProblemMutation.delete(List.of(a.getId(), 999_999))), false).get(0);
+
+        assertEquals(List.of(a), result.before());
+        assertEquals(List.of(b), store.getAllProblems());
+    }
+
+    @Test
+    void findProblemsFiltersSortsAndLimits() throws SQLException {
+        List<Problem> problems = List.of(
+                problem("A", Platform.LEETCODE, Difficulty.EASY, 10, TODAY.minusDays(4)),
+                problem("B", Platform.LEETCODE, Difficulty.HARD, 50, TODAY.minusDays(3)),
+                problem("C", Platform.LEETCODE, Difficulty.HARD, 30, TODAY.minusDays(2)),
+                problem("D", Platform.CODEFORCES, Difficulty.HARD, 40, TODAY.minusDays(1)));
+        store.apply(List.of(ProblemMutation.save(problems)), false);
+
+        ProblemQuery hardLeetCode = ProblemQuery.builder()
+                .platform(Platform.LEETCODE)
+                .difficulty(Difficulty.HARD)
+                .sortBy(ProblemQuery.SortField.TIME_TAKEN, true)
+                .build();
+        assertEquals(List.of("C", "B"), names(store.findProblems(hardLeetCode)));
+
+        ProblemQuery slowestTwo = ProblemQuery.builder()
+                .timeTakenBetween(20, null)
+                .sortBy(ProblemQuery.SortField.TIME_TAKEN, false)
+                .limit(2)
+                .build();
+        assertEquals(List.of("B", "D"), names(store.findProblems(slowestTwo)));
+
+        ProblemQuery recent = ProblemQuery.builder()
+                .solvedBetween(TODAY.minusDays(3).atStartOfDay(), TODAY.minusDays(1).atStartOfDay())
+                .build();
+        assertEquals(List.of("C", "B"), names(store.findProblems(recent)));
+    }
+
+    @Test
+    void pagesVisitEveryRowOnceNewestFirst() throws SQLException {
+        List<Problem> problems = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            // Pairs share a solved date, so pages must break ties by id
+            problems.add(problem("P" + i, Platform.values()[i % Platform.values().length], Difficulty.MEDIUM, i + 1,
+                    TODAY.minusDays(i / 2)));
+        }
+        store.apply(List.of(ProblemMutation.save(problems)), false);
+
+        List<Problem> paged = new ArrayList<>();
+        Problem last = null;
+        List<Problem> page;
+        do {
+            page = store.getProblemsPage(ProblemQuery.all(), last, 5);
+            paged.addAll(page);
+            last = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == 5);
+        List<Problem> expected = new ArrayList<>(problems);
+        expected.sort(Comparator.comparing(Problem::getSolvedDate).thenComparingInt(Problem::getId).reversed());
+        assertEquals(expected, paged);
+
+        ProblemQuery codeChef = ProblemQuery.builder().platform(Platform.CODECHEF).build();
+        assertEquals(store.findProblems(codeChef), store.getProblemsPage(codeChef, null, 100));
+    }
+
+    @Test
+    void tagsAreStoredWithTheirProblems() throws SQLException {
+        Problem a = problem("Two Sum", Platform.LEETCODE, Difficulty.EASY, 10, TODAY, "Array", " Hash Map ");
+        Problem b = problem("Dijkstra", Platform.CODEFORCES, Difficulty.HARD, 50, TODAY, "graphs", "array");
+        store.apply(List.of(ProblemMutation.save(List.of(a, b))), false);
+
+        assertEquals(Set.of("array", "hash map"), store.findByIds(List.of(a.getId())).get(a.getId()).getTags());
+        assertEquals(List.of("array", "graphs", "hash map"), store.getAllTags());
+    }
+
+    @Test
+    void dailyStatsFollowEveryWrite() throws SQLException {
+        Problem a = problem("A", Platform.LEETCODE, Difficulty.EASY, 10, TODAY.minusDays(1));
+        Problem b = problem("B", Platform.LEETCODE, Difficulty.EASY, 20, TODAY.minusDays(1));
+        Problem c = problem("C", Platform.CODECHEF, Difficulty.HARD, 30, TODAY);
+        store.apply(List.of(ProblemMutation.save(List.of(a, b, c))), false);
+        Problem changes = problem("B", Platform.CODECHEF, Difficulty.HARD, 25, TODAY);
+        changes.setId(b.getId());
+        store.apply(List.of(ProblemMutation.update(List.of(changes)), ProblemMutation.delete(List.of(c.getId()))), false);
+
+        assertEquals(Set.of(
+                new DailyStat(TODAY.minusDays(1), Platform.LEETCODE, Difficulty.EASY, 1, 10),
+                new DailyStat(TODAY.minusDays(1), Platform.CODECHEF, Difficulty.HARD, 1, 25)),
+                withoutEmptyGroups(store.getDailyStats()));
+    }
+
+    @Test
+    void countsTodayAndTheCurrentStreak() throws SQLException {
+        store.apply(List.of(ProblemMutation.save(List.of(
+                problem("A", Platform.LEETCODE, Difficulty.EASY, 10, TODAY),
+                problem("B", Platform.LEETCODE, Difficulty.EASY, 10, TODAY),
+                problem("C", Platform.LEETCODE, Difficulty.EASY, 10, TODAY.minusDays(1)),
+                problem("D", Platform.LEETCODE, Difficulty.EASY, 10, TODAY.minusDays(3))))), false);
+
+        assertEquals(2, store.getProblemsSolvedToday());
+        assertEquals(2, store.getCurrentStreak());
+    }
+
+    protected static Problem problem(String name, Platform platform, Difficulty difficulty, int minutes,
+                                     LocalDate solved, String... tags) {
+        Problem problem = new Problem(0, name, platform, difficulty, minutes, solved.atTime(12, 0),
+                "Notes for " + name, "https://example.com/" + name.replace(' ', '-'));
+        problem.setTags(List.of(tags));
+        return problem;
+    }
+
+    private static List<String> names(List<Problem> problems) {
+        return problems.stream().map(Problem::getName).toList();
+    }
+
+    // A store may keep groups a write emptied; they carry no solves
+    private static Set<DailyStat> withoutEmptyGroups(List<DailyStat> stats) {
+        return stats.stream().filter(s -> s.solvedCount() > 0).collect(Collectors.toSet());
+    }
+}
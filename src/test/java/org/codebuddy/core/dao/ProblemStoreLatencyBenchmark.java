@@ -0,0 +1,129 @@
+package org.codebuddy.core.dao;
+
+import org.codebuddy.Bench;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Median latency of each store operation, file against MySQL, over {@code bench.rows}
+ * problems (default 10,000). The MySQL column needs {@code -Ddb.url} naming a scratch
+ * database and is left empty without it.
+ */
+class ProblemStoreLatencyBenchmark {
+    private static final int WARMUPS = 20;
+    private static final int RUNS = 101;
+
+    @TempDir
+    Path dir;
+
+    private FileProblemStore file;
+
+    @AfterEach
+    void closeFile() throws Exception {
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    @Test
+    void perOperationLatency() throws Exception {
+        int rows = Bench.size("bench.rows", 10_000);
+        file = TestStores.file(dir);
+        Map<String, Double> fileTimes = time(file, rows);
+        Map<String, Double> mySqlTimes = System.getProperty("db.url") != null ? time(TestStores.emptyMySql(), rows) : Map.of();
+
+        Bench.report("%-28s %12s %12s", "rows=" + rows, "file ms", "mysql ms");
+        for (Map.Entry<String, Double> op : fileTimes.entrySet()) {
+            Double mySql = mySqlTimes.get(op.getKey());
+            Bench.report("%-28s %12.3f %12s", op.getKey(), op.getValue(), mySql == null ? "-" : String.format("%.3f", mySql));
+        }
+    }
+
+    private static Map<String, Double> time(ProblemStore store, int rows) throws Exception {
+        Random random = new Random(17);
+        List<Problem> seed = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            seed.add(problem(random, i));
+        }
+        for (int from = 0; from < rows; from += 1_000) {
+            store.apply(List.of(ProblemMutation.save(seed.subList(from, Math.min(rows, from + 1_000)))), false);
+        }
+        assertEquals(rows, store.countProblems());
+        List<Integer> ids = seed.stream().map(Problem::getId).toList();
+        Problem middle = store.getProblemsPage(ProblemQuery.all(), null, rows / 2).get(rows / 2 - 1);
+        ProblemQuery filtered = ProblemQuery.builder()
+                .platform(Platform.LEETCODE)
+                .difficulty(Difficulty.HARD)
+                .sortBy(ProblemQuery.SortField.TIME_TAKEN, false)
+                .limit(50)
+                .build();
+
+        Map<String, Double> times = new LinkedHashMap<>();
+        ArrayDeque<Integer> saved = new ArrayDeque<>();
+        times.put("save 1 row", Bench.medianMillis(WARMUPS, RUNS, () -> {
+            Problem problem = problem(random, rows + saved.size());
+            store.apply(List.of(ProblemMutation.save(List.of(problem))), false);
+            saved.add(problem.getId());
+        }));
+        times.put("update 1 row", Bench.medianMillis(WARMUPS, RUNS, () -> {
+            Problem changes = problem(random, 0);
+            changes.setId(ids.get(random.nextInt(ids.size())));
+            store.apply(List.of(ProblemMutation.update(List.of(changes))), false);
+        }));
+        times.put("delete 1 row", Bench.medianMillis(WARMUPS, RUNS, () ->
+                store.apply(List.of(ProblemMutation.delete(List.of(saved.poll()))), false)));
+        times.put("save + delete 500 rows", Bench.medianMillis(2, 5, () -> {
+            List<Problem> batch = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                batch.add(problem(random, rows + i));
+            }
+            store.apply(List.of(ProblemMutation.save(batch)), false);
+            store.apply(List.of(ProblemMutation.delete(batch.stream().map(Problem::getId).toList())), false);
+        }));
+        times.put("findByIds 1 id", Bench.medianMillis(WARMUPS, RUNS, () ->
+                store.findByIds(List.of(ids.get(random.nextInt(ids.size()))))));
+        times.put("findByIds 50 ids", Bench.medianMillis(WARMUPS, RUNS, () -> {
+            List<Integer> some = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                some.add(ids.get(random.nextInt(ids.size())));
+            }
+            store.findByIds(some);
+        }));
+        times.put("findProblems filtered 50", Bench.medianMillis(WARMUPS, RUNS, () -> store.findProblems(filtered)));
+        times.put("first page of 50", Bench.medianMillis(WARMUPS, RUNS, () -> store.getProblemsPage(ProblemQuery.all(), null, 50)));
+        times.put("middle page of 50", Bench.medianMillis(WARMUPS, RUNS, () -> store.getProblemsPage(ProblemQuery.all(), middle, 50)));
+        times.put("countProblems", Bench.medianMillis(WARMUPS, RUNS, store::countProblems));
+        times.put("getProblemsSolvedToday", Bench.medianMillis(WARMUPS, RUNS, store::getProblemsSolvedToday));
+        times.put("getCurrentStreak", Bench.medianMillis(WARMUPS, RUNS, store::getCurrentStreak));
+        times.put("getAllTags", Bench.medianMillis(WARMUPS, RUNS, store::getAllTags));
+        times.put("getDailyStats", Bench.medianMillis(5, 21, store::getDailyStats));
+        times.put("getAggregates", Bench.medianMillis(5, 21, store::getAggregates));
+        times.put("getAllProblems", Bench.medianMillis(2, 5, store::getAllProblems));
+        return times;
+    }
+
+    // Spread over a year, with a few tags each
+    private static Problem problem(Random random, int n) {
+        Problem problem = new Problem(0, "Problem " + n, Platform.values()[random.nextInt(Platform.values().length)],
+                Difficulty.values()[random.nextInt(Difficulty.values().length)], 1 + random.nextInt(120),
+                LocalDate.now().minusDays(random.nextInt(365)).atTime(random.nextInt(24), random.nextInt(60)),
+                "Notes for problem " + n, "https://example.com/" + n);
+        problem.setTags(List.of("tag" + random.nextInt(40), "tag" + random.nextInt(40)));
+        return problem;
+    }
+}
@@ -0,0 +1,41 @@
+package org.codebuddy.core.dao;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Stores for tests. MySQL is only used when {@code -Ddb.url} names a scratch database,
+ * never the one in config.properties, because the tests empty it.
+ */
+public final class TestStores {
+
+    private TestStores() {}
+
+    public static FileProblemStore file(Path dir) throws SQLException {
+        FileProblemStore store = new FileProblemStore(dir.resolve("problems.db"));
+        store.initialize();
+        return store;
+    }
+
+    /**
+     * The MySQL store with every problem, tag and rollup row deleted; skips the test when no
+     * scratch database was given.
+     */
+    public static MySqlProblemStore emptyMySql() throws SQLException {
+        assumeTrue(System.getProperty("db.url") != null, "MySQL tests need -Ddb.url=<scratch database>");
+        MySqlProblemStore store = new MySqlProblemStore();
+        store.initialize();
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM problem_tags");
+            stmt.executeUpdate("DELETE FROM tags");
+            stmt.executeUpdate("DELETE FROM problems");
+            stmt.executeUpdate("DELETE FROM problem_daily_stats");
+        }
+        return store;
+    }
+}
@@ -0,0 +1,117 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.Bench;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The old analytics (a pass per figure, streaks over date strings) against the one-pass
+ * accumulator, over a list and over the columnar store, at 10k, 100k and 1M problems.
+ * {@code -Dbench.maxRows} stops the sizes early.
+ */
+class AnalyticsBenchmark {
+    private static final Platform[] PLATFORMS = Platform.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final AnalyticsService service = new AnalyticsService();
+
+    @Test
+    void oldMultiPassAgainstOnePass() throws Exception {
+        int maxRows = Bench.size("bench.maxRows", 1_000_000);
+        Bench.report("%-10s %12s %12s %12s %12s", "problems", "old ms", "list ms", "parallel ms", "columns ms");
+        for (int rows = 10_000; rows <= maxRows; rows *= 10) {
+            List<Problem> problems = problems(rows);
+            ProblemColumns columns = new ProblemColumns(rows);
+            for (Problem problem : problems) {
+                columns.put(problem);
+            }
+            AnalyticsSnapshot snapshot = service.summarize(problems, false);
+            assertEquals(snapshot.maxStreak(), oldAnalytics(problems).get("maxStreak"));
+            assertEquals(snapshot, service.summarize(columns));
+
+            Bench.report("%-10d %12.2f %12.2f %12.2f %12.2f", rows,
+                    Bench.medianMillis(3, 7, () -> oldAnalytics(problems)),
+                    Bench.medianMillis(3, 7, () -> service.summarize(problems, false)),
+                    Bench.medianMillis(3, 7, () -> service.summarize(problems, true)),
+                    Bench.medianMillis(3, 7, () -> service.summarize(columns)));
+        }
+    }
+
+    // Spread over rows / 5 days, so small sets have gaps, but no further back than ten years
+    private static List<Problem> problems(int rows) {
+        Random random = new Random(7);
+        LocalDate today = LocalDate.now();
+        int days = Math.min(rows / 5, 10 * 365);
+        List<Problem> problems = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            problems.add(new Problem(i + 1, "Problem " + i, PLATFORMS[random.nextInt(PLATFORMS.length)],
+                    DIFFICULTIES[random.nextInt(DIFFICULTIES.length)], random.nextInt(180),
+                    today.minusDays(random.nextInt(days)).atTime(random.nextInt(24), random.nextInt(60)),
+                    "", ""));
+        }
+        return problems;
+    }
+
+    // The in-memory part of the analytics before the one-pass rewrite; its current streak was a database query
+    private static Map<String, Object> oldAnalytics(List<Problem> problems) {
+        Map<String, Object> analytics = new HashMap<>();
+        analytics.put("totalProblems", problems.size());
+        analytics.put("maxStreak", oldMaxStreak(problems));
+
+        Map<String, Integer> platformDist = new HashMap<>();
+        for (Problem p : problems) {
+            String platform = p.getPlatform().getDisplayName();
+            platformDist.put(platform, platformDist.getOrDefault(platform, 0) + 1);
+        }
+        analytics.put("platformDistribution", platformDist);
+
+        Map<String, Integer> difficultyDist = new HashMap<>();
+        for (Problem p : problems) {
+            String difficulty = p.getDifficulty().getDisplayName();
+            difficultyDist.put(difficulty, difficultyDist.getOrDefault(difficulty, 0) + 1);
+        }
+        analytics.put("difficultyDistribution", difficultyDist);
+
+        if (!problems.isEmpty()) {
+            analytics.put("averageTime", problems.stream().mapToInt(Problem::getTimeTakenMin).average().orElse(0.0));
+        }
+        return analytics;
+    }
+
+    private static int oldMaxStreak(List<Problem> problems) {
+        if (problems.isEmpty()) return 0;
+
+        Set<String> uniqueDates = new HashSet<>();
+        for (Problem p : problems) {
+            uniqueDates.add(p.getSolvedDate().toLocalDate().toString());
+        }
+        List<String> sortedDates = new ArrayList<>(uniqueDates);
+        Collections.sort(sortedDates);
+
+        int maxStreak = 1;
+        int currentStreak = 1;
+        for (int i = 1; i < sortedDates.size(); i++) {
+            if (LocalDate.parse(sortedDates.get(i)).minusDays(1).toString().equals(sortedDates.get(i - 1))) {
+                currentStreak++;
+                maxStreak = Math.max(maxStreak, currentStreak);
+            } else {
+                currentStreak = 1;
+            }
+        }
+        return maxStreak;
+    }
+}
@@ -0,0 +1,204 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.dao.DatabaseManager;
+import org.codebuddy.core.dao.ProblemMutation;
+import org.codebuddy.core.dao.ProblemStore;
+import org.codebuddy.core.dao.SchemaMigrator;
+import org.codebuddy.core.dao.TestStores;
+import org.codebuddy.core.models.DailyStat;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.models.ProblemAggregate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every way of computing analytics must agree: the sequential and parallel passes, the
+ * maintained daily rollup and the store's own grouping of the raw rows.
+ */
+class AnalyticsParityTest {
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final Platform[] PLATFORMS = Platform.values();
+    private static final Difficulty[] DIFFICULTIES = Difficulty.values();
+
+    private final AnalyticsService service = new AnalyticsService();
+    private final Random random = new Random(42);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void parallelPassMatchesSequential() {
+        List<Problem> problems = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            problems.add(problem(i + 1, TODAY.minusDays(random.nextInt(400)).atTime(randomTime())));
+        }
+
+        assertEquals(service.summarize(problems, false), service.summarize(problems, true));
+    }
+
+    @Test
+    void fileRollupMatchesRawRows() throws SQLException {
+        checkRollup(TestStores.file(dir));
+    }
+
+    @Test
+    void mySqlRollupMatchesRawRows() throws SQLException {
+        checkRollup(TestStores.emptyMySql());
+    }
+
+    @Test
+    void mySqlRollupRebuildNormalizesLegacySpellings() throws SQLException {
+        ProblemStore store = TestStores.emptyMySql();
+        // Rows written before the enums, or by hand, with spellings only the parser understands
+        String[][] legacy = {
+                {"leetcode", "easy"}, {"LeetCode", "Easy"}, {"LEETCODE", "EASY"},
+                {"codeforces", "Hard"}, {"AtCoder", "medium"}, {"Other", "Insane"}};
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO problems " +
+                     "(name, platform, difficulty, time_taken_min, solved_date) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < legacy.length; i++) {
+                stmt.setString(1, "Legacy " + i);
+                stmt.setString(2, legacy[i][0]);
+                stmt.setString(3, legacy[i][1]);
+                stmt.setInt(4, 10 * (i + 1));
+                stmt.setTimestamp(5, Timestamp.valueOf(TODAY.minusDays(i % 2).atTime(9, 0)));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        // Run the reseed the way an upgraded database does
+        try (Connection conn = DatabaseManager.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM schema_version WHERE version = 7");
+        }
+        new SchemaMigrator().migrate();
+        assertParity(store);
+
+        // The write path adjusts the groups the reseed filled, so edits keep them in step
+        Map<String, Problem> byName = new TreeMap<>();
+        for (Problem problem : store.getAllProblems()) {
+            byName.put(problem.getName(), problem);
+        }
+        List<Problem> edited = new ArrayList<>();
+        for (String name : List.of("Legacy 1", "Legacy 4")) {
+            Problem problem = byName.get(name);
+            problem.setPlatform(Platform.CODECHEF);
+            problem.setTimeTakenMin(5);
+            edited.add(problem);
+        }
+        store.apply(List.of(ProblemMutation.update(edited),
+                ProblemMutation.delete(List.of(byName.get("Legacy 5").getId()))), false);
+        assertParity(store);
+    }
+
+    private void checkRollup(ProblemStore store) throws SQLException {
+        // Solves either side of midnight, month and year ends, and a run ending today
+        List<Problem> first = new ArrayList<>();
+        for (LocalDate day : List.of(TODAY, TODAY.minusDays(1), TODAY.minusDays(2),
+                LocalDate.of(2023, 12, 31), LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31))) {
+            first.add(problem(0, day.atTime(23, 59, 59)));
+            first.add(problem(0, day.plusDays(1).atStartOfDay()));
+            first.add(problem(0, day.atTime(randomTime())));
+        }
+        store.apply(List.of(ProblemMutation.save(first)), false);
+        assertParity(store);
+
+        // Edits move time and counts between platform and difficulty groups of the same day
+        List<Problem> edited = new ArrayList<>();
+        for (Problem problem : store.getAllProblems()) {
+            if (random.nextBoolean()) {
+                problem.setPlatform(PLATFORMS[random.nextInt(PLATFORMS.length)]);
+                problem.setDifficulty(DIFFICULTIES[random.nextInt(DIFFICULTIES.length)]);
+                problem.setTimeTakenMin(random.nextInt(200));
+                edited.add(problem);
+            }
+        }
+        store.apply(List.of(ProblemMutation.update(edited)), false);
+        assertParity(store);
+
+        // Deleting the only solve of a day must drop the day; deleting some of a day's must not
+        List<Integer> deleted = new ArrayList<>();
+        for (Problem problem : store.getAllProblems()) {
+            LocalDateTime solved = problem.getSolvedDate();
+            if (solved.toLocalTime().equals(LocalTime.MIDNIGHT) || solved.toLocalDate().equals(TODAY.minusDays(1))) {
+                deleted.add(problem.getId());
+            }
+        }
+        store.apply(List.of(ProblemMutation.delete(deleted)), false);
+        assertParity(store);
+
+        // Saving onto days that were emptied brings them back
+        store.apply(List.of(ProblemMutation.save(List.of(
+                problem(0, TODAY.minusDays(1).atTime(0, 0, 1)),
+                problem(0, LocalDate.of(2024, 1, 1).atTime(12, 0))))), false);
+        assertParity(store);
+    }
+
+    private void assertParity(ProblemStore store) throws SQLException {
+        List<Problem> rows = store.getAllProblems();
+
+        // Expected per-day counts straight from the rows, with days taken from Java's LocalDate
+        Map<LocalDate, Integer> expectedDays = new TreeMap<>();
+        for (Problem problem : rows) {
+            expectedDays.merge(problem.getSolvedDate().toLocalDate(), 1, Integer::sum);
+        }
+        Map<LocalDate, Integer> rollupDays = new TreeMap<>();
+        AnalyticsAccumulator rollup = new AnalyticsAccumulator();
+        for (DailyStat stat : store.getDailyStats()) {
+            rollupDays.merge(stat.day(), stat.solvedCount(), Integer::sum);
+            rollup.accept(stat);
+        }
+        Map<LocalDate, Integer> groupedDays = new TreeMap<>();
+        AnalyticsAccumulator grouped = new AnalyticsAccumulator();
+        for (ProblemAggregate aggregate : store.getAggregates()) {
+            if (aggregate.kind() == ProblemAggregate.Kind.DAY) {
+                groupedDays.put(aggregate.day(), aggregate.solvedCount());
+            }
+            grouped.accept(aggregate);
+        }
+        assertEquals(expectedDays, rollupDays, "rollup days");
+        assertEquals(expectedDays, groupedDays, "grouped days");
+
+        AnalyticsSnapshot scanned = service.summarize(rows, false);
+        assertEquals(scanned, service.summarize(rows, true), "parallel scan");
+        assertEquals(scanned, grouped.toSnapshot(TODAY), "store grouping");
+        // The rollup has no per-problem extremes
+        assertEquals(withoutExtremes(scanned), rollup.toSnapshot(TODAY), "rollup");
+    }
+
+    private static AnalyticsSnapshot withoutExtremes(AnalyticsSnapshot snapshot) {
+        return new AnalyticsSnapshot(snapshot.totalProblems(), snapshot.totalTimeMin(), snapshot.currentStreak(),
+                snapshot.maxStreak(), OptionalInt.empty(), OptionalInt.empty(),
+                snapshot.platformDistribution(), snapshot.difficultyDistribution());
+    }
+
+    private Problem problem(int id, LocalDateTime solved) {
+        return new Problem(id, "Problem " + random.nextInt(1_000), PLATFORMS[random.nextInt(PLATFORMS.length)],
+                DIFFICULTIES[random.nextInt(DIFFICULTIES.length)], random.nextInt(200), solved, "", "");
+    }
+
+    private LocalTime randomTime() {
+        return LocalTime.ofSecondOfDay(random.nextInt(24 * 60 * 60));
+    }
+}
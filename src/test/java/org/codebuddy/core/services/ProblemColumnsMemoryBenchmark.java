@@ -0,0 +1,83 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.Bench;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Heap held by {@code bench.rows} problems (default 1M) as a List of Problem objects, as
+ * loaded row by row, against the same rows in ProblemColumns, before and after its sort
+ * orders are built.
+ */
+class ProblemColumnsMemoryBenchmark {
+    private static final String[] TAGS = {
+            "array", "hash map", "two pointers", "graphs", "trees", "dp", "greedy", "math", "strings", "sorting",
+            "binary search", "heap", "stack", "bfs", "dfs", "union find", "trie", "bit manipulation", "geometry", "sliding window"};
+    private static final String[] NOTES = {
+            "", "", "", "Classic hashmap problem", "Binary search required", "Revisit", "Needed a hint", "Off by one"};
+
+    @Test
+    void listAgainstColumns() {
+        int rows = Bench.size("bench.rows", 1_000_000);
+        long empty = Bench.usedHeap();
+
+        List<Problem> list = problems(rows);
+        long listBytes = Bench.usedHeap() - empty;
+        assertEquals(rows, list.size());
+        list = null;
+
+        long before = Bench.usedHeap();
+        ProblemColumns columns = columns(rows);
+        long columnBytes = Bench.usedHeap() - before;
+        for (ProblemColumns.SortKey key : ProblemColumns.SortKey.values()) {
+            columns.read(c -> c.selectIds(null, null, null, key, true));
+        }
+        long sortedBytes = Bench.usedHeap() - before;
+        assertEquals(rows, columns.size());
+
+        Bench.report("rows=%d", rows);
+        Bench.report("%-30s %10s %12s", "", "MB", "bytes/row");
+        Bench.report("%-30s %10.1f %12d", "List<Problem>", listBytes / 1e6, listBytes / rows);
+        Bench.report("%-30s %10.1f %12d", "ProblemColumns", columnBytes / 1e6, columnBytes / rows);
+        Bench.report("%-30s %10.1f %12d", "ProblemColumns + sort orders", sortedBytes / 1e6, sortedBytes / rows);
+    }
+
+    // In its own method, so the list it is built from is garbage once it returns
+    private static ProblemColumns columns(int rows) {
+        ProblemColumns columns = new ProblemColumns();
+        for (Problem problem : problems(rows)) {
+            columns.put(problem);
+        }
+        return columns;
+    }
+
+    // Every string is a fresh instance, as read from a result set
+    static List<Problem> problems(int rows) {
+        Random random = new Random(5);
+        LocalDateTime start = LocalDateTime.of(2020, 1, 1, 0, 0);
+        List<Problem> problems = new ArrayList<>(rows);
+        for (int id = 1; id <= rows; id++) {
+            Problem problem = new Problem(id, "Problem " + id + " " + TAGS[random.nextInt(TAGS.length)],
+                    Platform.values()[random.nextInt(Platform.values().length)],
+                    Difficulty.values()[random.nextInt(Difficulty.values().length)], random.nextInt(180),
+                    start.plusMinutes(random.nextInt(3 * 365 * 24 * 60)),
+                    new String(NOTES[random.nextInt(NOTES.length)]), "https://example.com/problems/" + id);
+            List<String> tags = new ArrayList<>();
+            for (int i = random.nextInt(4); i > 0; i--) {
+                tags.add(new String(TAGS[random.nextInt(TAGS.length)]));
+            }
+            problem.setTags(tags);
+            problems.add(problem);
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,170 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.services.ProblemColumns.SortKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Every sort order, kept current through random puts, edits and removals, against a plain
+ * Comparator sort of the same problems.
+ */
+class ProblemColumnsOrderTest {
+    // Few distinct values per column, so ties fall through to date and id
+    private static final String[] NAMES = {"Two Sum", "two sum", "TWO SUM", "Twos", "apple", "Apple Pie", "b", "", null,
+            "Éclair", "éclair", "straße", "STRASSE", "zz", "Zebra"};
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void ordersMatchAComparatorSortAfterRandomWrites() {
+        Random random = new Random(11);
+        ProblemColumns columns = new ProblemColumns(16);
+        Map<Integer, Problem> expected = new TreeMap<>();
+        int nextId = 1;
+        for (; nextId <= 300; nextId++) {
+            put(columns, expected, randomProblem(random, nextId));
+        }
+        // Orders built now are kept current by the writes below rather than sorted afresh
+        assertOrders(columns, expected, random);
+
+        for (int step = 1; step <= 3_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 3 || expected.isEmpty()) {
+                put(columns, expected, randomProblem(random, nextId++));
+            } else if (action < 7) {
+                int id = randomId(random, expected);
+                Problem edited = random.nextBoolean() ? randomProblem(random, id) : nudged(random, expected.get(id));
+                put(columns, expected, edited);
+            } else {
+                int id = randomId(random, expected);
+                columns.remove(id);
+                expected.remove(id);
+            }
+            if (step % 100 == 0) {
+                assertOrders(columns, expected, random);
+            }
+        }
+        assertOrders(columns, expected, random);
+
+        // The same rows sorted from scratch agree too
+        ProblemColumns rebuilt = new ProblemColumns();
+        expected.values().forEach(rebuilt::put);
+        assertOrders(rebuilt, expected, random);
+    }
+
+    @Test
+    void nameOrderHoldsForNamesSharingLongPrefixes() {
+        Random random = new Random(13);
+        ProblemColumns columns = new ProblemColumns();
+        Map<Integer, Problem> expected = new TreeMap<>();
+        for (int id = 1; id <= 5_000; id++) {
+            Problem problem = randomProblem(random, id);
+            problem.setName(switch (random.nextInt(20)) {
+                case 0 -> null;
+                case 1 -> "";
+                case 2 -> "Problem";
+                default -> {
+                    String name = "Problem number " + random.nextInt(400) + (random.nextBoolean() ? " Ä" : " ä");
+                    yield random.nextBoolean() ? name : name.toUpperCase();
+                }
+            });
+            put(columns, expected, problem);
+        }
+        for (boolean ascending : new boolean[]{true, false}) {
+            Comparator<Problem> order = ascending ? SortKey.NAME.comparator() : SortKey.NAME.comparator().reversed();
+            assertEquals(sortedIds(expected, order, null, null, null),
+                    ids(columns.selectIds(null, null, null, SortKey.NAME, ascending)));
+        }
+    }
+
+    private static void assertOrders(ProblemColumns columns, Map<Integer, Problem> expected, Random random) {
+        BitSet someIds = new BitSet();
+        expected.keySet().forEach(id -> {
+            if (random.nextBoolean()) {
+                someIds.set(id);
+            }
+        });
+        for (SortKey key : SortKey.values()) {
+            for (boolean ascending : new boolean[]{true, false}) {
+                Comparator<Problem> order = ascending ? key.comparator() : key.comparator().reversed();
+                String label = key + (ascending ? " ascending" : " descending");
+                assertEquals(sortedIds(expected, order, null, null, null),
+                        ids(columns.selectIds(null, null, null, key, ascending)), label);
+                assertEquals(sortedIds(expected, order, null, null, someIds),
+                        ids(columns.selectIds(null, null, someIds, key, ascending)), label + " of some ids");
+                for (Platform platform : Platform.values()) {
+                    assertEquals(sortedIds(expected, order, platform, null, null),
+                            ids(columns.selectIds(platform, null, null, key, ascending)), label + " on " + platform);
+                }
+                Difficulty difficulty = Difficulty.values()[random.nextInt(Difficulty.values().length)];
+                Platform platform = Platform.values()[random.nextInt(Platform.values().length)];
+                assertEquals(sortedIds(expected, order, platform, difficulty, someIds),
+                        ids(columns.selectIds(platform, difficulty, someIds, key, ascending)),
+                        label + " on " + platform + " " + difficulty + " of some ids");
+            }
+        }
+    }
+
+    private static List<Integer> sortedIds(Map<Integer, Problem> problems, Comparator<Problem> order,
+                                           Platform platform, Difficulty difficulty, BitSet someIds) {
+        return problems.values().stream()
+                .filter(p -> platform == null || p.getPlatform() == platform)
+                .filter(p -> difficulty == null || p.getDifficulty() == difficulty)
+                .filter(p -> someIds == null || someIds.get(p.getId()))
+                .sorted(order)
+                .map(Problem::getId)
+                .toList();
+    }
+
+    private static List<Integer> ids(int[] ids) {
+        List<Integer> list = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private static void put(ProblemColumns columns, Map<Integer, Problem> expected, Problem problem) {
+        columns.put(problem);
+        expected.put(problem.getId(), problem);
+    }
+
+    private static int randomId(Random random, Map<Integer, Problem> problems) {
+        List<Integer> ids = new ArrayList<>(problems.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static Problem randomProblem(Random random, int id) {
+        Problem problem = new Problem(id, NAMES[random.nextInt(NAMES.length)],
+                Platform.values()[random.nextInt(Platform.values().length)],
+                Difficulty.values()[random.nextInt(Difficulty.values().length)], random.nextInt(6),
+                START.plusHours(random.nextInt(48)), "", "");
+        problem.setTags(List.of());
+        return problem;
+    }
+
+    // One column changed, so an edit may leave some orders untouched
+    private static Problem nudged(Random random, Problem problem) {
+        Problem edited = new Problem(problem);
+        switch (random.nextInt(5)) {
+            case 0 -> edited.setName(NAMES[random.nextInt(NAMES.length)]);
+            case 1 -> edited.setPlatform(Platform.values()[random.nextInt(Platform.values().length)]);
+            case 2 -> edited.setDifficulty(Difficulty.values()[random.nextInt(Difficulty.values().length)]);
+            case 3 -> edited.setTimeTakenMin(random.nextInt(6));
+            default -> edited.setSolvedDate(START.plusHours(random.nextInt(48)));
+        }
+        return edited;
+    }
+}
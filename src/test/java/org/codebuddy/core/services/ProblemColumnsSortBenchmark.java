@@ -0,0 +1,62 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.Bench;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.codebuddy.core.services.ProblemColumns.SortKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sorting {@code bench.rows} problems (default 1M) by each column: building a sort order on
+ * first use, re-sorting and filtering with it built, and an edit with every order built,
+ * against sorting the same problems, newest first, as a List with the key's Comparator.
+ */
+class ProblemColumnsSortBenchmark {
+
+    @Test
+    void sortTimes() throws Exception {
+        int rows = Bench.size("bench.rows", 1_000_000);
+        List<Problem> problems = ProblemColumnsMemoryBenchmark.problems(rows);
+        ProblemColumns columns = new ProblemColumns(rows);
+        problems.forEach(columns::put);
+        // Newest first, as the database returns them
+        List<Problem> loaded = new ArrayList<>(problems);
+        loaded.sort(SortKey.DATE.comparator().reversed());
+
+        Bench.report("rows=%d", rows);
+        Bench.report("%-12s %10s %10s %12s %14s", "key", "build ms", "sort ms", "filtered ms", "List.sort ms");
+        for (SortKey key : SortKey.values()) {
+            double build = Bench.millis(() -> columns.read(c -> c.selectIds(null, null, null, key, true)));
+            double sort = Bench.medianMillis(2, 7, () -> columns.read(c -> c.selectIds(null, null, null, key, false)));
+            double filtered = Bench.medianMillis(2, 7, () ->
+                    columns.read(c -> c.selectIds(Platform.LEETCODE, Difficulty.HARD, null, key, true)));
+            double listSort = Bench.medianMillis(1, 3, () -> new ArrayList<>(loaded).sort(key.comparator()));
+            Bench.report("%-12s %10.1f %10.1f %12.1f %14.1f", key, build, sort, filtered, listSort);
+        }
+
+        // Each edit changes every sort key, so the row moves in all five orders
+        Random random = new Random(9);
+        double edit = Bench.medianMillis(20, 101, () -> {
+            Problem edited = new Problem(problems.get(random.nextInt(rows)));
+            Problem other = problems.get(random.nextInt(rows));
+            edited.setName(other.getName());
+            edited.setPlatform(other.getPlatform());
+            edited.setDifficulty(other.getDifficulty());
+            edited.setTimeTakenMin(other.getTimeTakenMin());
+            edited.setSolvedDate(other.getSolvedDate());
+            columns.put(edited);
+        });
+        Iterator<Integer> removals = random.ints(1, rows + 1).distinct().limit(121).iterator();
+        double remove = Bench.medianMillis(20, 101, () -> columns.remove(removals.next()));
+        Bench.report("edit moving a row in all orders: %.2f ms; remove: %.2f ms", edit, remove);
+        assertEquals(rows - 121, columns.size());
+    }
+}
@@ -0,0 +1,160 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProblemSnapshotTest {
+    private static final String SOURCE = "jdbc:mysql://localhost:3306/codebuddy";
+    private static final long HOUR = 3_600_000L;
+    // Header field offsets
+    private static final int MAGIC = 0;
+    private static final int VERSION = 4;
+    private static final int CREATED_AT = 16;
+    private static final int ROWS = 24;
+    private static final int HEADER_SIZE = 48;
+
+    @TempDir
+    Path dir;
+
+    private Path path;
+    private ProblemSnapshot snapshot;
+    private List<Problem> problems;
+
+    @BeforeEach
+    void writeSnapshot() throws IOException {
+        path = dir.resolve("problems.snapshot");
+        snapshot = new ProblemSnapshot(path, SOURCE, HOUR);
+        problems = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            Problem problem = new Problem(id, "Problem " + id, Platform.values()[id % Platform.values().length],
+                    Difficulty.values()[id % Difficulty.values().length], id * 3,
+                    LocalDateTime.of(2024, 2, 29, 23, 59, 59).minusHours(id),
+                    id % 3 == 0 ? null : "Notes é中 " + id, id % 5 == 0 ? null : "https://example.com/" + id);
+            problem.setTags(id % 2 == 0 ? List.of("dp", "café") : List.of());
+            problems.add(problem);
+        }
+        snapshot.write(columns(problems));
+    }
+
+    @Test
+    void readsBackWhatWasWritten() throws IOException {
+        assertEquals(problems, rows(snapshot.read()));
+
+        // A rewrite replaces the file
+        problems.remove(0);
+        snapshot.write(columns(problems));
+        assertEquals(problems, rows(snapshot.read()));
+
+        snapshot.write(new ProblemColumns());
+        assertEquals(List.of(), rows(snapshot.read()));
+    }
+
+    @Test
+    void missingFileIsNotAnError() throws IOException {
+        snapshot.delete();
+        assertNull(snapshot.read());
+    }
+
+    @Test
+    void rejectsAnotherFileOrFormat() throws IOException {
+        edit(header -> header.putInt(MAGIC, 0x12345678));
+        assertNull(snapshot.read(), "bad magic");
+
+        writeSnapshot();
+        edit(header -> header.putInt(VERSION, 2));
+        assertNull(snapshot.read(), "bad version");
+    }
+
+    @Test
+    void rejectsAnotherDatabase() {
+        assertNull(new ProblemSnapshot(path, "file:/home/me/problems.db", HOUR).read());
+        assertNotNull(snapshot.read());
+    }
+
+    @Test
+    void rejectsStaleSnapshotsUnlessAgeIsUnlimited() throws IOException {
+        edit(header -> header.putLong(CREATED_AT, System.currentTimeMillis() - 2 * HOUR));
+        assertNull(snapshot.read());
+        assertEquals(problems, rows(new ProblemSnapshot(path, SOURCE, 0).read()));
+    }
+
+    @Test
+    void rejectsFilesWhoseSizeDisagreesWithTheHeader() throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length + 1));
+        assertNull(snapshot.read(), "extra byte");
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertNull(snapshot.read(), "missing byte");
+
+        Files.write(path, Arrays.copyOf(bytes, HEADER_SIZE - 1));
+        assertNull(snapshot.read(), "shorter than the header");
+    }
+
+    @Test
+    void rejectsCorruptPayload() throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[HEADER_SIZE + bytes.length / 2] ^= 0x01;
+        Files.write(path, bytes);
+        assertNull(snapshot.read());
+    }
+
+    @Test
+    void rejectsRowCountsThatDisagreeWithThePayload() throws IOException {
+        // The CRC covers the payload only, so these get past it
+        edit(header -> header.putInt(ROWS, problems.size() + 1));
+        assertNull(snapshot.read(), "payload ends early");
+
+        writeSnapshot();
+        edit(header -> header.putInt(ROWS, problems.size() - 1));
+        assertNull(snapshot.read(), "trailing bytes");
+
+        writeSnapshot();
+        edit(header -> header.putInt(ROWS, -1));
+        assertNull(snapshot.read(), "negative count");
+    }
+
+    private void edit(Consumer<ByteBuffer> change) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+        change.accept(bytes);
+        Files.write(path, bytes.array());
+    }
+
+    private static ProblemColumns columns(List<Problem> problems) {
+        ProblemColumns columns = new ProblemColumns();
+        for (Problem problem : problems) {
+            columns.put(problem);
+        }
+        return columns;
+    }
+
+    private static List<Problem> rows(ProblemColumns columns) {
+        assertNotNull(columns);
+        return columns.read(c -> {
+            List<Problem> rows = new ArrayList<>();
+            for (int row = 0; row < c.size(); row++) {
+                rows.add(c.toProblem(row));
+            }
+            rows.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+            return rows;
+        });
+    }
+}
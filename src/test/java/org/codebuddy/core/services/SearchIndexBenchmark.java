@@ -0,0 +1,54 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.Bench;
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Query time of the search index over {@code bench.rows} problems (default 500k), for the
+ * kinds of term it matches, with the window's unlimited ranking and with a top 50.
+ */
+class SearchIndexBenchmark {
+    private static final String[] WORDS = {
+            "two", "sum", "tree", "trees", "graph", "subgraph", "path", "paths", "shortest", "longest",
+            "max", "min", "array", "string", "substring", "palindrome", "matrix", "binary", "search", "sort",
+            "merge", "interval", "dp", "knapsack", "coin", "change", "island", "islands", "bfs", "dfs",
+            "heap", "stack", "queue", "window", "sliding", "prefix", "segment", "fenwick", "trie", "hash"};
+
+    @Test
+    void queryTimes() throws Exception {
+        int rows = Bench.size("bench.rows", 500_000);
+        Random random = new Random(3);
+        SearchIndex index = new SearchIndex();
+        LocalDateTime solved = LocalDateTime.of(2024, 1, 1, 12, 0);
+        double buildMillis = Bench.millis(() -> {
+            for (int id = 1; id <= rows; id++) {
+                index.add(new Problem(id, text(random, 3), Platform.LEETCODE, Difficulty.MEDIUM, 10,
+                        solved, text(random, 8), ""));
+            }
+        });
+        Bench.report("rows=%d, built in %.0f ms", rows, buildMillis);
+
+        Bench.report("%-22s %10s %14s %12s", "query", "matches", "all ranked ms", "top 50 ms");
+        for (String query : List.of("tree", "gra", "raph", "sub", "max path", "islands bfs", "zzz")) {
+            int matches = index.search(query, Integer.MAX_VALUE).size();
+            Bench.report("%-22s %10d %14.2f %12.2f", "\"" + query + "\"", matches,
+                    Bench.medianMillis(3, 9, () -> index.search(query, Integer.MAX_VALUE)),
+                    Bench.medianMillis(3, 9, () -> index.search(query, 50)));
+        }
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i > 0 ? " " : "").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
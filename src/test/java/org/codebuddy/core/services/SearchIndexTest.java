@@ -0,0 +1,182 @@
+package org.codebuddy.core.services;
+
+import org.codebuddy.core.models.Difficulty;
+import org.codebuddy.core.models.Platform;
+import org.codebuddy.core.models.Problem;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SearchIndexTest {
+    private final SearchIndex index = new SearchIndex();
+
+    @Test
+    void exactOutranksPrefixOutranksSubstringAndNamesOutrankNotes() {
+        index.add(problem(1, "Graph Coloring", ""));
+        index.add(problem(2, "Graphs and Trees", ""));
+        index.add(problem(3, "Subgraph Count", ""));
+        index.add(problem(4, "Islands", "a graph search"));
+        index.add(problem(5, "Islands II", "graphs again"));
+        index.add(problem(6, "Unrelated", "nothing here"));
+
+        assertEquals(List.of(1, 2, 4, 3, 5), ids(index.search("graph", 10)));
+        // Every term must match
+        assertEquals(List.of(4, 5), ids(index.search("graph islands", 10)));
+        // Short terms match exact tokens and prefixes only
+        assertEquals(List.of(), ids(index.search("ra", 10)));
+        assertEquals(List.of(2, 1, 5, 4), ids(index.search("gr", 10)));
+    }
+
+    @Test
+    void tiesAtTheCutoffGoToNewerIds() {
+        for (int id = 1; id <= 5; id++) {
+            index.add(problem(id, "Tree " + id, ""));
+        }
+        index.add(problem(6, "Trees", ""));
+
+        assertEquals(List.of(5, 4, 3), ids(index.search("tree", 3)));
+        assertEquals(List.of(5, 4, 3, 2, 1, 6), ids(index.search("tree", 10)));
+        // Every name is a prefix match for "tre", so only ids decide
+        assertEquals(List.of(6, 5), ids(index.search("tre", 2)));
+    }
+
+    @Test
+    void allowedIdsAreFilteredBeforeTheLimit() {
+        for (int id = 1; id <= 10; id++) {
+            index.add(problem(id, "Knapsack DP " + id, ""));
+        }
+        BitSet allowed = new BitSet();
+        allowed.set(1);
+        allowed.set(2);
+
+        assertEquals(List.of(10, 9), ids(index.search("dp", 2)));
+        assertEquals(List.of(2, 1), ids(index.search("dp", 2, allowed)));
+        assertEquals(List.of(), ids(index.search("dp", 2, new BitSet())));
+    }
+
+    @Test
+    void randomEditsMatchABruteForceSearch() {
+        Random random = new Random(11);
+        String[] syllables = {"ar", "ra", "tree", "graph", "sum", "max", "min", "path", "ath", "dp"};
+        Map<Integer, Problem> live = new TreeMap<>();
+        int nextId = 1;
+
+        for (int step = 0; step < 3_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 5 || live.isEmpty()) {
+                Problem problem = problem(nextId++, words(random, syllables), words(random, syllables));
+                live.put(problem.getId(), problem);
+                index.add(problem);
+            } else if (action < 8) {
+                // An edit is a remove of the old row and an add of the new one, as SearchService does
+                Problem old = randomLive(random, live);
+                Problem edited = problem(old.getId(), words(random, syllables), words(random, syllables));
+                index.remove(old);
+                index.add(edited);
+                live.put(edited.getId(), edited);
+            } else {
+                Problem old = randomLive(random, live);
+                index.remove(old);
+                live.remove(old.getId());
+            }
+
+            if (step % 100 == 0) {
+                for (String query : List.of("ar", "ath", "tree", "graphsum", "max path", "ra dp", "mi")) {
+                    int limit = 1 + random.nextInt(20);
+                    assertEquals(bruteForce(live.values(), query, limit), index.search(query, limit), query);
+                }
+                assertEquals(trigramVocabulary(live.values()), index.trigramTokens(), "trigram tokens at step " + step);
+            }
+        }
+
+        for (Problem problem : new ArrayList<>(live.values())) {
+            index.remove(problem);
+        }
+        assertEquals(Set.of(), index.trigramTokens());
+        assertEquals(List.of(), index.search("ar", 10));
+    }
+
+    // The index's weights: exact 4, prefix 2, substring 1, and name hits count three times
+    private static List<SearchIndex.Hit> bruteForce(Iterable<Problem> problems, String query, int limit) {
+        List<SearchIndex.Hit> hits = new ArrayList<>();
+        for (Problem problem : problems) {
+            int score = 0;
+            for (String term : SearchIndex.tokens(query)) {
+                int best = Math.max(3 * bestMatch(SearchIndex.tokens(problem.getName()), term),
+                        bestMatch(SearchIndex.tokens(problem.getNotes()), term));
+                if (best == 0) {
+                    score = 0;
+                    break;
+                }
+                score += best;
+            }
+            if (score > 0) {
+                hits.add(new SearchIndex.Hit(problem.getId(), score));
+            }
+        }
+        hits.sort(Comparator.comparingInt(SearchIndex.Hit::score).thenComparingInt(SearchIndex.Hit::problemId).reversed());
+        return hits.subList(0, Math.min(limit, hits.size()));
+    }
+
+    private static int bestMatch(Set<String> tokens, String term) {
+        int best = 0;
+        for (String token : tokens) {
+            if (token.equals(term)) {
+                best = Math.max(best, 4);
+            } else if (token.startsWith(term)) {
+                best = Math.max(best, 2);
+            } else if (term.length() >= 3 && token.contains(term)) {
+                best = Math.max(best, 1);
+            }
+        }
+        return best;
+    }
+
+    // Tokens long enough to have a trigram
+    private static Set<String> trigramVocabulary(Iterable<Problem> problems) {
+        Set<String> tokens = new HashSet<>();
+        for (Problem problem : problems) {
+            tokens.addAll(SearchIndex.tokens(problem.getName()));
+            tokens.addAll(SearchIndex.tokens(problem.getNotes()));
+        }
+        tokens.removeIf(token -> token.length() < 3);
+        return tokens;
+    }
+
+    // One to three words, each one or two syllables
+    private static String words(Random random, String[] syllables) {
+        StringBuilder text = new StringBuilder();
+        int count = 1 + random.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            text.append(' ').append(syllables[random.nextInt(syllables.length)]);
+            if (random.nextBoolean()) {
+                text.append(syllables[random.nextInt(syllables.length)]);
+            }
+        }
+        return text.toString();
+    }
+
+    private static Problem randomLive(Random random, Map<Integer, Problem> live) {
+        List<Problem> problems = new ArrayList<>(live.values());
+        return problems.get(random.nextInt(problems.size()));
+    }
+
+    private static Problem problem(int id, String name, String notes) {
+        return new Problem(id, name, Platform.LEETCODE, Difficulty.MEDIUM, 10, LocalDateTime.of(2024, 1, 1, 12, 0), notes, "");
+    }
+
+    private static List<Integer> ids(List<SearchIndex.Hit> hits) {
+        return hits.stream().map(SearchIndex.Hit::problemId).toList();
+    }
+}
@@ -0,0 +1,70 @@
+package org.codebuddy.gui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Random inserts and removals, across chunk splits and emptied chunks, against a plain list.
+ */
+class RowIdsTest {
+
+    @Test
+    void matchesAPlainListAfterRandomEdits() {
+        Random random = new Random(5);
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 1; id <= 3 * RowIds.CHUNK; id++) {
+            expected.add(id);
+        }
+        Collections.shuffle(expected, random);
+        RowIds rows = new RowIds(expected.stream().mapToInt(Integer::intValue).toArray());
+        int nextId = expected.size() + 1;
+
+        for (int step = 0; step < 20_000; step++) {
+            int action = random.nextInt(10);
+            if (action < 4 || expected.isEmpty()) {
+                int row = random.nextInt(expected.size() + 1);
+                rows.insert(row, nextId);
+                expected.add(row, nextId++);
+            } else if (action < 8) {
+                int row = random.nextInt(expected.size());
+                assertEquals(expected.remove(row), rows.remove(row));
+            } else {
+                // A run of removals at the front empties whole chunks
+                for (int i = Math.min(expected.size(), random.nextInt(RowIds.CHUNK)); i > 0; i--) {
+                    assertEquals(expected.remove(0), rows.remove(0));
+                }
+            }
+            if (step % 500 == 0) {
+                assertSame(expected, rows);
+            }
+        }
+        assertSame(expected, rows);
+        assertEquals(-1, rows.indexOf(nextId));
+        assertEquals(-1, rows.indexOf(-3));
+    }
+
+    @Test
+    void appendsFillNewChunks() {
+        RowIds rows = new RowIds();
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 1; id <= 2 * RowIds.CHUNK + 7; id++) {
+            rows.add(id);
+            expected.add(id);
+        }
+        assertSame(expected, rows);
+    }
+
+    private static void assertSame(List<Integer> expected, RowIds rows) {
+        assertEquals(expected.size(), rows.size());
+        for (int row = 0; row < expected.size(); row++) {
+            assertEquals(expected.get(row), rows.get(row));
+            assertEquals(row, rows.indexOf(expected.get(row)));
+        }
+    }
+}